@@ -0,0 +1,71 @@
+package datastructs;
+
+import java.util.Random;
+
+/**
+ * Measures random look ups in a TwoThreeTree against BTrees of several orders
+ * holding the same keys. Run with an optional element count, e.g.
+ * {@code java datastructs.BTreeBenchmark 2000000}.
+ *
+ * @author Neil Dey
+ */
+public class BTreeBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            // Distinct keys in a scrambled order
+            keys[i] = i * 0x9E3779B1;
+        }
+        Integer[] stream = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            stream[i] = keys[random.nextInt(n)];
+        }
+
+        TwoThreeTree<Integer, Integer> tree = new TwoThreeTree<Integer, Integer>();
+        for (Integer k : keys) {
+            tree.insert(k, k);
+        }
+        int[] orders = { 32, 64, 128, 256 };
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        BTree<Integer, Integer>[] btrees = new BTree[orders.length];
+        for (int o = 0; o < orders.length; o++) {
+            btrees[o] = new BTree<Integer, Integer>(orders[o]);
+            for (Integer k : keys) {
+                btrees[o].insert(k, k);
+            }
+        }
+
+        System.out.printf("look up %d random keys%n", n);
+        for (int round = 0; round < 3; round++) {
+            run("TwoThreeTree", tree, stream);
+            for (BTree<Integer, Integer> b : btrees) {
+                run("BTree " + b.getOrder() + " (" + b.height() + " levels)", b, stream);
+            }
+        }
+    }
+
+    /**
+     * Looks up every key of the stream and prints the throughput
+     *
+     * @param name
+     *            The name of the dictionary
+     * @param d
+     *            The dictionary
+     * @param stream
+     *            The keys to look up
+     */
+    static void run(String name, Dictionary<Integer, Integer> d, Integer[] stream) {
+        System.gc();
+        long sink = 0;
+        long start = System.nanoTime();
+        for (Integer k : stream) {
+            sink += d.lookUp(k);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-26s %8.2f M look ups/s%s%n", name, stream.length / (elapsed / 1e3),
+                sink == 42 ? " " : "");
+    }
+}
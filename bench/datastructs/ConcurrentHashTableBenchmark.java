@@ -0,0 +1,101 @@
+package datastructs;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures mixed read/write throughput of ConcurrentHashTable against a
+ * HashTable guarded by one global lock, from 1 to 32 threads. Run with an
+ * optional write percentage, e.g. {@code java datastructs.ConcurrentHashTableBenchmark 10}.
+ *
+ * @author Neil Dey
+ */
+public class ConcurrentHashTableBenchmark {
+    /** The number of distinct keys **/
+    static final int KEYS = 1 << 20;
+    /** How long each measurement runs, in milliseconds **/
+    private static final int DURATION_MS = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int writePercent = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+        final HashTable<Integer, Integer> locked = new HashTable<Integer, Integer>();
+        Dictionary<Integer, Integer> global = new Dictionary<Integer, Integer>() {
+            public synchronized void insert(Integer key, Integer value) {
+                if (locked.update(key, value) == null) {
+                    locked.insert(key, value);
+                }
+            }
+
+            public synchronized Integer lookUp(Integer key) {
+                return locked.lookUp(key);
+            }
+
+            public synchronized Integer remove(Integer key) {
+                return locked.remove(key);
+            }
+
+            public synchronized Integer update(Integer key, Integer value) {
+                return locked.update(key, value);
+            }
+        };
+        Dictionary<Integer, Integer> concurrent = new ConcurrentHashTable<Integer, Integer>();
+        for (int i = 0; i < KEYS; i += 2) {
+            global.insert(i, i);
+            concurrent.insert(i, i);
+        }
+
+        System.out.printf("%d%% writes, %d available processors%n", writePercent,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %16s %16s%n", "threads", "global lock", "concurrent");
+        for (int threads = 1; threads <= 32; threads <<= 1) {
+            double g = run(global, threads, writePercent);
+            double c = run(concurrent, threads, writePercent);
+            System.out.printf("%-8d %16.2f %16.2f   (Mops/s)%n", threads, g, c);
+        }
+    }
+
+    /**
+     * Runs a mix of look ups, inserts, and removes on random keys from several
+     * threads for a fixed time
+     *
+     * @param d
+     *            The dictionary to exercise
+     * @param threads
+     *            The number of threads
+     * @param writePercent
+     *            The percentage of operations that are writes
+     * @return The total throughput in Mops/s
+     */
+    static double run(Dictionary<Integer, Integer> d, int threads, int writePercent) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        long deadline = System.nanoTime() + DURATION_MS * 1_000_000L;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current();
+                long count = 0;
+                while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+                    Integer key = r.nextInt(KEYS);
+                    int op = r.nextInt(100);
+                    if (op >= writePercent) {
+                        d.lookUp(key);
+                    } else if ((op & 1) == 0) {
+                        d.insert(key, key);
+                    } else {
+                        d.remove(key);
+                    }
+                    count++;
+                }
+                ops.add(count);
+            });
+        }
+        for (Thread w : workers) {
+            w.start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        return ops.sum() / (DURATION_MS * 1000.0);
+    }
+}
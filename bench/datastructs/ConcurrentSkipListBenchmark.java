@@ -0,0 +1,49 @@
+package datastructs;
+
+/**
+ * Measures mixed read/write throughput of ConcurrentSkipList against a
+ * SkipList guarded by one global lock, from 1 to 32 threads. Run with an
+ * optional write percentage, e.g. {@code java datastructs.ConcurrentSkipListBenchmark 10}.
+ *
+ * @author Neil Dey
+ */
+public class ConcurrentSkipListBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int writePercent = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+        final SkipList<Integer, Integer> locked = new SkipList<Integer, Integer>();
+        Dictionary<Integer, Integer> global = new Dictionary<Integer, Integer>() {
+            public synchronized void insert(Integer key, Integer value) {
+                locked.insert(key, value);
+            }
+
+            public synchronized Integer lookUp(Integer key) {
+                return locked.lookUp(key);
+            }
+
+            public synchronized Integer remove(Integer key) {
+                // SkipList.remove acts on the previous entry if the key is missing
+                return locked.lookUp(key) == null ? null : locked.remove(key);
+            }
+
+            public synchronized Integer update(Integer key, Integer value) {
+                return locked.update(key, value);
+            }
+        };
+        Dictionary<Integer, Integer> concurrent = new ConcurrentSkipList<Integer, Integer>();
+        for (int i = 0; i < ConcurrentHashTableBenchmark.KEYS; i += 2) {
+            global.insert(i, i);
+            concurrent.insert(i, i);
+        }
+
+        System.out.printf("%d%% writes, %d available processors%n", writePercent,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %16s %16s%n", "threads", "global lock", "concurrent");
+        for (int threads = 1; threads <= 32; threads <<= 1) {
+            double g = ConcurrentHashTableBenchmark.run(global, threads, writePercent);
+            double c = ConcurrentHashTableBenchmark.run(concurrent, threads, writePercent);
+            System.out.printf("%-8d %16.2f %16.2f   (Mops/s)%n", threads, g, c);
+        }
+    }
+}
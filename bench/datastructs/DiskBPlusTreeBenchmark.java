@@ -0,0 +1,82 @@
+package datastructs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Builds a DiskBPlusTree in a temporary file, then measures how long reopening
+ * it takes, and look ups of a small working set against look ups spread over
+ * the whole tree, with the hit rate of the page cache. Run with an optional
+ * element count, e.g. {@code java datastructs.DiskBPlusTreeBenchmark 2000000}.
+ *
+ * @author Neil Dey
+ */
+public class DiskBPlusTreeBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = Files.createTempFile("bplustree", ".db");
+        Files.delete(file);
+        try {
+            long start = System.nanoTime();
+            try (DiskBPlusTree<Integer, Integer> d = new DiskBPlusTree<Integer, Integer>(file, Codec.INTEGER,
+                    Codec.INTEGER)) {
+                for (int i = 0; i < n; i++) {
+                    d.insert(i * 0x9E3779B1, i);
+                }
+            }
+            SkipListBenchmark.report("build", start);
+            System.out.printf("file size    %10.1f MB%n", Files.size(file) / 1e6);
+
+            start = System.nanoTime();
+            DiskBPlusTree<Integer, Integer> d = new DiskBPlusTree<Integer, Integer>(file, Codec.INTEGER,
+                    Codec.INTEGER);
+            SkipListBenchmark.report("reopen", start);
+
+            Random random = new Random(42);
+            Integer[] hot = new Integer[n];
+            Integer[] cold = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                // Two hundred keys fit in far fewer pages than the cache holds
+                hot[i] = random.nextInt(200) * 0x9E3779B1;
+                cold[i] = random.nextInt(n) * 0x9E3779B1;
+            }
+            for (int round = 0; round < 3; round++) {
+                run("working set", d, hot);
+                run("whole tree", d, cold);
+            }
+            d.close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Looks up every key of the stream and prints the throughput and the hit
+     * rate of the page cache
+     *
+     * @param name
+     *            The name of the key stream
+     * @param d
+     *            The tree
+     * @param stream
+     *            The keys to look up
+     */
+    static void run(String name, DiskBPlusTree<Integer, Integer> d, Integer[] stream) {
+        PageCache cache = d.getCache();
+        long hits = cache.getHits();
+        long misses = cache.getMisses();
+        long sink = 0;
+        long start = System.nanoTime();
+        for (Integer k : stream) {
+            sink += d.lookUp(k);
+        }
+        long elapsed = System.nanoTime() - start;
+        hits = cache.getHits() - hits;
+        misses = cache.getMisses() - misses;
+        System.out.printf("%-12s %8.2f M look ups/s   %6.2f%% cache hits%s%n", name, stream.length / (elapsed / 1e3),
+                100.0 * hits / (hits + misses), sink == 42 ? " " : "");
+    }
+}
@@ -0,0 +1,89 @@
+package datastructs;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * A side-by-side throughput comparison of the chained HashTable against the
+ * open-addressing RobinHoodHashTable. Run with an optional element count, e.g.
+ * {@code java datastructs.HashTableBenchmark 1000000}.
+ *
+ * @author Neil Dey
+ */
+public class HashTableBenchmark {
+    /** The number of untimed rounds used to warm up the JIT **/
+    private static final int WARMUP_ROUNDS = 3;
+    /** The number of timed rounds **/
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Integer[] keys = new Integer[n];
+        Integer[] misses = new Integer[n];
+        Random r = new Random(42);
+        for (int i = 0; i < n; i++) {
+            keys[i] = r.nextInt();
+            misses[i] = r.nextInt();
+        }
+
+        System.out.printf("%-20s %12s %12s %12s %12s%n", "n = " + n, "insert", "hit", "miss", "remove");
+        run("HashTable", () -> new HashTable<Integer, Integer>(), keys, misses);
+        run("RobinHoodHashTable", () -> new RobinHoodHashTable<Integer, Integer>(), keys, misses);
+    }
+
+    /**
+     * Times inserts, successful look ups, failed look ups, and removes against a
+     * fresh dictionary and prints the best throughput of each in Mops/s
+     *
+     * @param name
+     *            The name to print for the dictionary
+     * @param factory
+     *            Creates an empty dictionary
+     * @param keys
+     *            The keys to insert
+     * @param misses
+     *            Keys to look up that are (almost certainly) absent
+     */
+    static void run(String name, Supplier<Dictionary<Integer, Integer>> factory, Integer[] keys, Integer[] misses) {
+        double[] best = new double[4];
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            Dictionary<Integer, Integer> d = factory.get();
+            long[] times = new long[4];
+
+            long start = System.nanoTime();
+            for (Integer k : keys) {
+                d.insert(k, k);
+            }
+            times[0] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Integer k : keys) {
+                Integer v = d.lookUp(k);
+                sink += v == null ? 0 : v;
+            }
+            times[1] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Integer k : misses) {
+                Integer v = d.lookUp(k);
+                sink += v == null ? 0 : v;
+            }
+            times[2] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Integer k : keys) {
+                d.remove(k);
+            }
+            times[3] = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                for (int i = 0; i < 4; i++) {
+                    best[i] = Math.max(best[i], keys.length * 1000.0 / times[i]);
+                }
+            }
+        }
+        System.out.printf("%-20s %12.2f %12.2f %12.2f %12.2f   (Mops/s, sink %d)%n", name, best[0], best[1], best[2],
+                best[3], sink & 1);
+    }
+}
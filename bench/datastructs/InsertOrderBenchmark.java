@@ -0,0 +1,80 @@
+package datastructs;
+
+import java.util.Random;
+
+/**
+ * Measures building TwoThreeTree, BTree and BinarySearchTree from sorted,
+ * reverse-sorted and random insert orders, and then looking every key up.
+ * Sorted input degenerates a BinarySearchTree into a list, so it only gets the
+ * first BST_SIZE keys. Run with an optional element count, e.g.
+ * {@code java datastructs.InsertOrderBenchmark 2000000}.
+ *
+ * @author Neil Dey
+ */
+public class InsertOrderBenchmark {
+
+    /** The most keys given to a BinarySearchTree **/
+    static final int BST_SIZE = 20000;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Integer[] sorted = new Integer[n];
+        Integer[] reverse = new Integer[n];
+        Integer[] random = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+            reverse[i] = n - 1 - i;
+            random[i] = i;
+        }
+        Random r = new Random(42);
+        for (int i = n - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            Integer t = random[i];
+            random[i] = random[j];
+            random[j] = t;
+        }
+        String[] names = { "sorted", "reverse", "random" };
+        Integer[][] orders = { sorted, reverse, random };
+
+        for (int round = 0; round < 3; round++) {
+            for (int o = 0; o < orders.length; o++) {
+                run("TwoThreeTree", names[o], new TwoThreeTree<Integer, Integer>(), orders[o], n);
+                run("BTree", names[o], new BTree<Integer, Integer>(), orders[o], n);
+                run("BinarySearchTree", names[o], new BinarySearchTree<Integer, Integer>(), orders[o],
+                        Math.min(n, InsertOrderBenchmark.BST_SIZE));
+            }
+        }
+    }
+
+    /**
+     * Inserts the first keys of an order into an empty dictionary, looks them
+     * all up again, and prints both times
+     *
+     * @param name
+     *            The name of the dictionary
+     * @param order
+     *            The name of the insert order
+     * @param d
+     *            The empty dictionary
+     * @param keys
+     *            The keys in insert order
+     * @param count
+     *            The number of keys to use
+     */
+    static void run(String name, String order, Dictionary<Integer, Integer> d, Integer[] keys, int count) {
+        System.gc();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            d.insert(keys[i], keys[i]);
+        }
+        long insert = System.nanoTime() - start;
+        long sink = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sink += d.lookUp(keys[i]);
+        }
+        long lookUp = System.nanoTime() - start;
+        System.out.printf("%-18s %-8s %8d keys   insert %8.1f ns/op   look up %8.1f ns/op%s%n", name, order, count,
+                (double) insert / count, (double) lookUp / count, sink == 42 ? " " : "");
+    }
+}
@@ -0,0 +1,73 @@
+package datastructs;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Measures the latency of individual look ups in HashTable, RobinHoodHashTable
+ * and CuckooHashTable, timing batches of look ups so that the timer overhead
+ * does not hide the tail. Run with an optional element count, e.g.
+ * {@code java datastructs.LookUpLatencyBenchmark 2000000}.
+ *
+ * @author Neil Dey
+ */
+public class LookUpLatencyBenchmark {
+
+    /** The number of look ups timed together **/
+    private static final int BATCH = 16;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+        }
+        Integer[] probes = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            probes[i] = keys[random.nextInt(n)];
+        }
+
+        System.out.printf("%-12s %10s %10s %10s %12s%n", "n = " + n, "p50", "p99", "p99.99", "max (ns)");
+        for (int round = 0; round < 3; round++) {
+            run("chaining", () -> new HashTable<Integer, Integer>(), keys, probes);
+            run("robin hood", () -> new RobinHoodHashTable<Integer, Integer>(), keys, probes);
+            run("cuckoo", () -> new CuckooHashTable<Integer, Integer>(), keys, probes);
+        }
+    }
+
+    /**
+     * Fills a table, times look ups in batches of BATCH, and prints per look up
+     * latency percentiles
+     *
+     * @param name
+     *            The name to print for the table
+     * @param factory
+     *            Creates the empty table
+     * @param keys
+     *            The keys to insert
+     * @param probes
+     *            The keys to look up
+     */
+    static void run(String name, Supplier<Dictionary<Integer, Integer>> factory, Integer[] keys, Integer[] probes) {
+        Dictionary<Integer, Integer> d = factory.get();
+        for (Integer k : keys) {
+            d.insert(k, k);
+        }
+        long[] latencies = new long[probes.length / BATCH];
+        long sink = 0;
+        for (int b = 0; b < latencies.length; b++) {
+            long start = System.nanoTime();
+            for (int i = b * BATCH; i < (b + 1) * BATCH; i++) {
+                sink += d.lookUp(probes[i]);
+            }
+            latencies[b] = (System.nanoTime() - start) / BATCH;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-12s %10d %10d %10d %12d%s%n", name, ResizeLatencyBenchmark.percentile(latencies, 0.5),
+                ResizeLatencyBenchmark.percentile(latencies, 0.99),
+                ResizeLatencyBenchmark.percentile(latencies, 0.9999), latencies[latencies.length - 1],
+                sink == 42 ? " " : "");
+    }
+}
@@ -0,0 +1,72 @@
+package datastructs;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures a full-table reduction over a HashTable with iterator(), a
+ * sequential stream, and parallel streams on fork-join pools of 1 to 32
+ * threads. Run with an optional element count, e.g.
+ * {@code java datastructs.ParallelScanBenchmark 20000000}.
+ *
+ * @author Neil Dey
+ */
+public class ParallelScanBenchmark {
+    /** The number of times each scan is repeated **/
+    private static final int REPEATS = 5;
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws Exception {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        HashTable<Integer, Integer> d = new HashTable<Integer, Integer>();
+        for (int i = 0; i < n; i++) {
+            d.insert(i, i);
+        }
+        System.out.printf("n = %d, %d cores%n", n, Runtime.getRuntime().availableProcessors());
+
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            long sum = 0;
+            for (int r = 0; r < REPEATS; r++) {
+                for (HashTable.Node node : d) {
+                    sum += (Integer) node.value;
+                }
+            }
+            report("iterator", start, sum);
+
+            start = System.nanoTime();
+            sum = 0;
+            for (int r = 0; r < REPEATS; r++) {
+                sum += d.stream().mapToLong(node -> (Integer) node.value).sum();
+            }
+            report("stream", start, sum);
+
+            for (int threads = 1; threads <= 32; threads *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                start = System.nanoTime();
+                sum = 0;
+                for (int r = 0; r < REPEATS; r++) {
+                    sum += pool.submit(() -> d.parallelStream().mapToLong(node -> (Integer) node.value).sum())
+                            .get();
+                }
+                report("parallel x" + threads, start, sum);
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Prints the average time of one scan
+     *
+     * @param name
+     *            The name of the scan
+     * @param start
+     *            When the scans started, from System.nanoTime()
+     * @param sum
+     *            The sum computed by the scans, printed so that it is not
+     *            optimized away
+     */
+    static void report(String name, long start, long sum) {
+        System.out.printf("%-12s %8.1f ms per scan (sum %d)%n", name,
+                (System.nanoTime() - start) / 1e6 / REPEATS, sum);
+    }
+}
@@ -0,0 +1,63 @@
+package datastructs;
+
+import java.util.Arrays;
+
+/**
+ * Measures the latency of individual HashTable inserts with stop-the-world and
+ * incremental resizing. Run with an optional element count, e.g.
+ * {@code java datastructs.ResizeLatencyBenchmark 10000000}.
+ *
+ * @author Neil Dey
+ */
+public class ResizeLatencyBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = i * 31;
+        }
+
+        System.out.printf("%-14s %10s %10s %10s %12s%n", "n = " + n, "p50", "p99", "p99.99", "max (ns)");
+        for (int round = 0; round < 2; round++) {
+            run("stop-the-world", new HashTable<Integer, Integer>(HashTable.INIT_CAP, false), keys);
+            run("incremental", new HashTable<Integer, Integer>(HashTable.INIT_CAP, true), keys);
+        }
+    }
+
+    /**
+     * Inserts every key into the table, timing each insert on its own, and prints
+     * latency percentiles
+     *
+     * @param name
+     *            The name to print for the mode
+     * @param d
+     *            The empty hash table
+     * @param keys
+     *            The keys to insert
+     */
+    static void run(String name, HashTable<Integer, Integer> d, Integer[] keys) {
+        long[] latencies = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            d.insert(keys[i], keys[i]);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-14s %10d %10d %10d %12d%n", name, percentile(latencies, 0.5),
+                percentile(latencies, 0.99), percentile(latencies, 0.9999), latencies[latencies.length - 1]);
+    }
+
+    /**
+     * Returns the given percentile of a sorted array
+     *
+     * @param sorted
+     *            The sorted latencies
+     * @param p
+     *            The percentile, between 0 and 1
+     * @return The latency at that percentile
+     */
+    static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, (long) (p * sorted.length))];
+    }
+}
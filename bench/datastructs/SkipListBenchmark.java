@@ -0,0 +1,109 @@
+package datastructs;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures SkipList construction from sorted input (n calls to insert, one
+ * call to insertAll, and fromSorted), and look ups from the head against look
+ * ups through a cursor on sorted, clustered and random key streams. Run with an
+ * optional element count, e.g.
+ * {@code java datastructs.SkipListBenchmark 2000000}.
+ *
+ * @author Neil Dey
+ */
+public class SkipListBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = i;
+        }
+
+        System.out.printf("build from %d sorted entries%n", n);
+        for (int round = 0; round < 3; round++) {
+            System.gc();
+            long start = System.nanoTime();
+            SkipList<Integer, Integer> d = new SkipList<Integer, Integer>();
+            for (Integer k : keys) {
+                d.insert(k, k);
+            }
+            report("insert", start);
+
+            d = null;
+            System.gc();
+            start = System.nanoTime();
+            d = new SkipList<Integer, Integer>();
+            d.insertAll(keys, keys);
+            report("insertAll", start);
+
+            d = null;
+            System.gc();
+            start = System.nanoTime();
+            d = SkipList.fromSorted(Arrays.asList(keys).iterator(), Arrays.asList(keys).iterator());
+            report("fromSorted", start);
+        }
+
+        SkipList<Integer, Integer> d = SkipList.fromSorted(Arrays.asList(keys).iterator(),
+                Arrays.asList(keys).iterator());
+        Random random = new Random(42);
+        Integer[] sorted = keys;
+        Integer[] clustered = new Integer[n];
+        Integer[] shuffled = new Integer[n];
+        int k = n / 2;
+        for (int i = 0; i < n; i++) {
+            // A random walk with steps of up to 64 entries in either direction
+            k = Math.floorMod(k + random.nextInt(129) - 64, n);
+            clustered[i] = k;
+            shuffled[i] = random.nextInt(n);
+        }
+        System.out.printf("%nlook up %d keys%n", n);
+        for (int round = 0; round < 3; round++) {
+            lookUps("sorted", d, sorted);
+            lookUps("clustered", d, clustered);
+            lookUps("random", d, shuffled);
+        }
+    }
+
+    /**
+     * Looks up every key from the head and then through one cursor, and prints
+     * both times
+     *
+     * @param name
+     *            The name of the key stream
+     * @param d
+     *            The skip list
+     * @param stream
+     *            The keys to look up, in order
+     */
+    static void lookUps(String name, SkipList<Integer, Integer> d, Integer[] stream) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (Integer k : stream) {
+            sink += d.lookUp(k);
+        }
+        long head = System.nanoTime() - start;
+
+        SkipList<Integer, Integer>.Cursor c = d.cursor();
+        start = System.nanoTime();
+        for (Integer k : stream) {
+            sink += c.lookUp(k);
+        }
+        long cursor = System.nanoTime() - start;
+        System.out.printf("%-12s head %8.1f ms   cursor %8.1f ms%s%n", name, head / 1e6, cursor / 1e6,
+                sink == 42 ? " " : "");
+    }
+
+    /**
+     * Prints the time since the given start
+     *
+     * @param name
+     *            The name of the measurement
+     * @param start
+     *            When the measurement started, from System.nanoTime()
+     */
+    static void report(String name, long start) {
+        System.out.printf("%-12s %10.1f ms%n", name, (System.nanoTime() - start) / 1e6);
+    }
+}
@@ -0,0 +1,73 @@
+package datastructs;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Measures the heap used per entry and the look up time of SkipList, which
+ * keeps a column of linked nodes per entry, and CompactSkipList, which keeps
+ * one node with an array of forward pointers. Run with an optional element
+ * count, e.g. {@code java datastructs.SkipListMemoryBenchmark 2000000}.
+ *
+ * @author Neil Dey
+ */
+public class SkipListMemoryBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+        }
+
+        System.out.printf("%-10s %16s %16s%n", "n = " + n, "bytes per entry", "ns per lookUp");
+        for (int round = 0; round < 2; round++) {
+            run("linked", () -> new SkipList<Integer, Integer>(), keys);
+            run("compact", () -> new CompactSkipList<Integer, Integer>(), keys);
+        }
+    }
+
+    /**
+     * Fills a skip list, measuring the growth of the heap, then times a look up
+     * of every key
+     *
+     * @param name
+     *            The name to print for the skip list
+     * @param factory
+     *            Creates the empty skip list
+     * @param keys
+     *            The keys to insert; the same object is used as key and value, so
+     *            only the skip list itself is measured
+     */
+    static void run(String name, Supplier<Dictionary<Integer, Integer>> factory, Integer[] keys) {
+        long before = usedHeap();
+        Dictionary<Integer, Integer> d = factory.get();
+        for (Integer k : keys) {
+            d.insert(k, k);
+        }
+        long bytes = usedHeap() - before;
+
+        long start = System.nanoTime();
+        long sink = 0;
+        for (Integer k : keys) {
+            sink += d.lookUp(k);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-10s %16.1f %16.1f%s%n", name, (double) bytes / keys.length,
+                (double) elapsed / keys.length, sink == 42 ? " " : "");
+    }
+
+    /**
+     * Returns the heap in use after a few garbage collections
+     *
+     * @return The number of bytes in use
+     */
+    static long usedHeap() {
+        Runtime r = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return r.totalMemory() - r.freeMemory();
+    }
+}
@@ -0,0 +1,124 @@
+package datastructs;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the bytes allocated by TwoThreeTree while it is built by inserts,
+ * and then under a steady workload where every remove of a present key is
+ * followed by an insert of an absent one, so that the size of the tree stays
+ * the same. Keys are boxed up front, so that only the tree allocates while it
+ * is measured. Finally compares building a tree from sorted keys with inserts
+ * against fromSorted, on one thread and in parallel; the bytes allocated by a
+ * parallel build are mostly on other threads and are not counted. Run with an
+ * optional element count, e.g.
+ * {@code java datastructs.TwoThreeTreeBenchmark 2000000}.
+ *
+ * @author Neil Dey
+ */
+public class TwoThreeTreeBenchmark {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        // Keys 0 to n - 1 start in the tree, keys n to 2n - 1 start outside it
+        Integer[] keys = new Integer[2 * n];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer t = keys[i];
+            keys[i] = keys[j];
+            keys[j] = t;
+        }
+        int[] picks = new int[n];
+        for (int i = 0; i < n; i++) {
+            picks[i] = random.nextInt(n);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            System.gc();
+            TwoThreeTree<Integer, Integer> d = new TwoThreeTree<Integer, Integer>();
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                d.insert(keys[i], keys[i]);
+            }
+            report("build", n, start, bytes);
+
+            // Swap a random key in the tree with the next one outside it
+            Integer[] in = new Integer[n];
+            System.arraycopy(keys, 0, in, 0, n);
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                Integer out = in[picks[i]];
+                d.remove(out);
+                in[picks[i]] = keys[n + i];
+                d.insert(keys[n + i], keys[n + i]);
+            }
+            report("remove+insert", n, start, bytes);
+        }
+
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+        }
+        System.out.printf("%nbuild from %d sorted entries%n", n);
+        for (int round = 0; round < 3; round++) {
+            System.gc();
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            TwoThreeTree<Integer, Integer> d = new TwoThreeTree<Integer, Integer>();
+            for (Integer k : sorted) {
+                d.insert(k, k);
+            }
+            report("insert", n, start, bytes);
+
+            d = null;
+            System.gc();
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            d = TwoThreeTree.fromSorted(Arrays.asList(sorted).iterator(), Arrays.asList(sorted).iterator());
+            report("fromSorted", n, start, bytes);
+
+            d = null;
+            System.gc();
+            bytes = allocatedBytes();
+            start = System.nanoTime();
+            d = TwoThreeTree.fromSorted(Arrays.asList(sorted).iterator(), Arrays.asList(sorted).iterator(), true);
+            report("parallel", n, start, bytes);
+        }
+    }
+
+    /**
+     * Gets the number of bytes the current thread has allocated so far
+     *
+     * @return The number of bytes allocated by this thread
+     */
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Prints the time and the bytes allocated per operation since the given
+     * start
+     *
+     * @param name
+     *            The name of the measurement
+     * @param ops
+     *            The number of operations
+     * @param start
+     *            When the measurement started, from System.nanoTime()
+     * @param bytes
+     *            The bytes allocated by this thread when the measurement started
+     */
+    static void report(String name, int ops, long start, long bytes) {
+        long allocated = allocatedBytes() - bytes;
+        System.out.printf("%-14s %10.1f ms %8.1f bytes/op%n", name, (System.nanoTime() - start) / 1e6,
+                (double) allocated / ops);
+    }
+}
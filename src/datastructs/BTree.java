@@ -0,0 +1,450 @@
+package datastructs;
+
+import java.util.Arrays;
+
+/**
+ * An in-memory B-tree of configurable order. Every node keeps its keys, values
+ * and children in contiguous arrays and is searched with a binary search, so a
+ * look up touches one node per level, and with an order of 32 to 256 a tree of
+ * millions of entries is only three to five levels deep. A TwoThreeTree of the
+ * same size is around twenty levels deep and follows a pointer per level.
+ *
+ * Nodes other than the root hold between ceil(order / 2) - 1 and order - 1
+ * keys. Like the overflow key of a TwoThreeTree node, every node has room for
+ * one key too many: an insert puts its key into a leaf and then splits full
+ * nodes on the way back up. A remove borrows from or merges with a sibling on
+ * the way back up. The nodes on the way down are kept in a path buffer that is
+ * reused by every insert and remove.
+ *
+ * Unlike HashTable, inserting a key that is already present replaces its value.
+ *
+ * @author Neil Dey
+ * @param <K>
+ *            The generic type for keys. Keys must implement Comparable.
+ * @param <V>
+ *            The generic type for values
+ */
+public class BTree<K extends Comparable<K>, V> implements Dictionary<K, V> {
+    /** The order of a tree created without one **/
+    public static final int DEFAULT_ORDER = 64;
+
+    /** The maximum number of children of a node **/
+    private final int order;
+    /** The minimum number of keys of a node other than the root **/
+    private final int minKeys;
+    /** The root of the tree; an empty leaf if the tree is empty **/
+    private Node root;
+    /** The number of levels of the tree **/
+    private int height;
+    /** The number of entries in the tree **/
+    private int numElements;
+    /** The nodes on the path of the last insert or remove, from the root down **/
+    private Node[] pathNodes;
+    /**
+     * The position taken in each node of the path: the index of the key if it
+     * is in the node, and -(c + 1) if the path went on to child c
+     **/
+    private int[] pathIndices;
+
+    /**
+     * Initializes an empty tree of the given order
+     *
+     * @param order
+     *            The maximum number of children of a node; at least 3
+     */
+    public BTree(int order) {
+        if (order < 3) {
+            throw new IllegalArgumentException("Order must be at least 3.");
+        }
+        this.order = order;
+        this.minKeys = (order + 1) / 2 - 1;
+        this.root = new Node(true);
+        this.height = 1;
+        this.pathNodes = this.newPath(8);
+        this.pathIndices = new int[8];
+    }
+
+    /**
+     * Initializes an empty tree of the default order
+     */
+    public BTree() {
+        this(BTree.DEFAULT_ORDER);
+    }
+
+    /**
+     * Allocates an array of nodes
+     *
+     * @param length
+     *            The length of the array
+     * @return An empty array of nodes
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Node[] newPath(int length) {
+        return new BTree.Node[length];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V lookUp(K key) {
+        Node n = this.root;
+        while (true) {
+            int i = n.search(key);
+            if (i >= 0) {
+                return (V) n.values[i];
+            }
+            if (n.children == null) {
+                return null;
+            }
+            n = n.children[-i - 1];
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V update(K key, V value) {
+        Node n = this.root;
+        while (true) {
+            int i = n.search(key);
+            if (i >= 0) {
+                V temp = (V) n.values[i];
+                n.values[i] = value;
+                return temp;
+            }
+            if (n.children == null) {
+                return null;
+            }
+            n = n.children[-i - 1];
+        }
+    }
+
+    /**
+     * Inserts the given key/value pair, replacing the value if the key is
+     * already in the tree
+     *
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     */
+    @Override
+    public void insert(K key, V value) {
+        int depth = this.descend(key);
+        Node n = this.pathNodes[depth];
+        int i = this.pathIndices[depth];
+        if (i >= 0) {
+            n.values[i] = value;
+            return;
+        }
+        n.insertAt(-i - 1, key, value, null);
+        this.numElements++;
+
+        while (n.count == this.order) {
+            // Move the upper half into a new right sibling and the middle key up
+            int mid = this.order / 2;
+            Node right = new Node(n.children == null);
+            right.count = n.count - mid - 1;
+            System.arraycopy(n.keys, mid + 1, right.keys, 0, right.count);
+            System.arraycopy(n.values, mid + 1, right.values, 0, right.count);
+            if (n.children != null) {
+                System.arraycopy(n.children, mid + 1, right.children, 0, right.count + 1);
+                Arrays.fill(n.children, mid + 1, n.count + 1, null);
+            }
+            Object midKey = n.keys[mid];
+            Object midValue = n.values[mid];
+            Arrays.fill(n.keys, mid, n.count, null);
+            Arrays.fill(n.values, mid, n.count, null);
+            n.count = mid;
+
+            if (depth == 0) {
+                Node r = new Node(false);
+                r.keys[0] = midKey;
+                r.values[0] = midValue;
+                r.children[0] = n;
+                r.children[1] = right;
+                r.count = 1;
+                this.root = r;
+                this.height++;
+                if (this.height > this.pathNodes.length) {
+                    this.pathNodes = Arrays.copyOf(this.pathNodes, this.height * 2);
+                    this.pathIndices = Arrays.copyOf(this.pathIndices, this.height * 2);
+                }
+                return;
+            }
+            depth--;
+            Node parent = this.pathNodes[depth];
+            parent.insertAt(-this.pathIndices[depth] - 1, midKey, midValue, right);
+            n = parent;
+        }
+    }
+
+    /**
+     * Removes the entry with the given key
+     *
+     * @param key
+     *            The key of the entry to remove
+     * @return The value of the removed entry, or null if the key doesn't exist
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        int depth = this.descend(key);
+        Node n = this.pathNodes[depth];
+        int i = this.pathIndices[depth];
+        if (i < 0) {
+            Arrays.fill(this.pathNodes, 0, depth + 1, null);
+            return null;
+        }
+        V temp = (V) n.values[i];
+        if (n.children != null) {
+            // Replace the entry with its predecessor, the last entry of the left subtree
+            this.pathIndices[depth] = -i - 1;
+            Node leaf = n.children[i];
+            while (leaf.children != null) {
+                this.pathNodes[++depth] = leaf;
+                this.pathIndices[depth] = -leaf.count - 1;
+                leaf = leaf.children[leaf.count];
+            }
+            this.pathNodes[++depth] = leaf;
+            n.keys[i] = leaf.keys[leaf.count - 1];
+            n.values[i] = leaf.values[leaf.count - 1];
+            n = leaf;
+            i = leaf.count - 1;
+        }
+        n.removeAt(i);
+        this.numElements--;
+        int bottom = depth;
+
+        while (depth > 0 && n.count < this.minKeys) {
+            depth--;
+            n = this.pathNodes[depth];
+            this.rebalance(n, -this.pathIndices[depth] - 1);
+        }
+        if (this.root.count == 0 && this.root.children != null) {
+            Node r = this.root.children[0];
+            this.root.children[0] = null;
+            this.root = r;
+            this.height--;
+        }
+        // The path must not keep nodes removed by merges reachable
+        Arrays.fill(this.pathNodes, 0, bottom + 1, null);
+        return temp;
+    }
+
+    /**
+     * Walks from the root to the node holding the given key, or to the leaf
+     * where it belongs, recording the way in the path buffer
+     *
+     * @param key
+     *            The key to search for
+     * @return The depth of the last node of the path
+     */
+    private int descend(K key) {
+        Node n = this.root;
+        for (int depth = 0;; depth++) {
+            int i = n.search(key);
+            this.pathNodes[depth] = n;
+            this.pathIndices[depth] = i;
+            if (i >= 0 || n.children == null) {
+                return depth;
+            }
+            n = n.children[-i - 1];
+        }
+    }
+
+    /**
+     * Refills a child with too few keys by borrowing a key from a sibling, or
+     * merging it with a sibling if neither has a key to spare
+     *
+     * @param parent
+     *            The parent of the child
+     * @param c
+     *            The index of the child in the parent
+     */
+    private void rebalance(Node parent, int c) {
+        Node child = parent.children[c];
+        if (c > 0 && parent.children[c - 1].count > this.minKeys) {
+            // Rotate the last key of the left sibling through the parent
+            Node left = parent.children[c - 1];
+            Node moved = left.children == null ? null : left.children[left.count];
+            child.insertAt(0, parent.keys[c - 1], parent.values[c - 1], null);
+            if (moved != null) {
+                System.arraycopy(child.children, 0, child.children, 1, child.count);
+                child.children[0] = moved;
+                left.children[left.count] = null;
+            }
+            parent.keys[c - 1] = left.keys[left.count - 1];
+            parent.values[c - 1] = left.values[left.count - 1];
+            left.count--;
+            left.keys[left.count] = null;
+            left.values[left.count] = null;
+        } else if (c < parent.count && parent.children[c + 1].count > this.minKeys) {
+            // Rotate the first key of the right sibling through the parent
+            Node right = parent.children[c + 1];
+            child.keys[child.count] = parent.keys[c];
+            child.values[child.count] = parent.values[c];
+            child.count++;
+            if (right.children != null) {
+                child.children[child.count] = right.children[0];
+                System.arraycopy(right.children, 1, right.children, 0, right.count);
+                right.children[right.count] = null;
+            }
+            parent.keys[c] = right.keys[0];
+            parent.values[c] = right.values[0];
+            right.count--;
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count);
+            System.arraycopy(right.values, 1, right.values, 0, right.count);
+            right.keys[right.count] = null;
+            right.values[right.count] = null;
+        } else {
+            this.merge(parent, c > 0 ? c - 1 : c);
+        }
+    }
+
+    /**
+     * Merges two adjacent children and the key between them into the left child
+     *
+     * @param parent
+     *            The parent of the children
+     * @param k
+     *            The index of the key between the children
+     */
+    private void merge(Node parent, int k) {
+        Node left = parent.children[k];
+        Node right = parent.children[k + 1];
+        left.keys[left.count] = parent.keys[k];
+        left.values[left.count] = parent.values[k];
+        System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+        System.arraycopy(right.values, 0, left.values, left.count + 1, right.count);
+        if (left.children != null) {
+            System.arraycopy(right.children, 0, left.children, left.count + 1, right.count + 1);
+        }
+        left.count += right.count + 1;
+        parent.removeAt(k);
+    }
+
+    /**
+     * Gets the maximum number of children of a node
+     *
+     * @return The order of the tree
+     */
+    public int getOrder() {
+        return this.order;
+    }
+
+    /**
+     * Gets the number of levels of the tree
+     *
+     * @return The number of levels; 1 for an empty tree
+     */
+    public int height() {
+        return this.height;
+    }
+
+    /**
+     * Gets the number of entries in the tree
+     *
+     * @return The number of entries in the tree
+     */
+    public int size() {
+        return this.numElements;
+    }
+
+    /**
+     * A node of the tree, with room for one key and one child more than the
+     * order allows
+     *
+     * @author Neil Dey
+     *
+     */
+    private class Node {
+        /** The keys of the node in ascending order; the first count are used **/
+        private final Object[] keys;
+        /** The value of each key **/
+        private final Object[] values;
+        /** The children of the node, one more than its keys; null for a leaf **/
+        private final Node[] children;
+        /** The number of keys in the node **/
+        private int count;
+
+        /**
+         * Initializes an empty node
+         *
+         * @param leaf
+         *            Whether or not the node is a leaf
+         */
+        Node(boolean leaf) {
+            this.keys = new Object[BTree.this.order];
+            this.values = new Object[BTree.this.order];
+            this.children = leaf ? null : BTree.this.newPath(BTree.this.order + 1);
+        }
+
+        /**
+         * Binary searches the keys of the node
+         *
+         * @param key
+         *            The key to search for
+         * @return The index of the key, or -(c + 1) where c is the index of the
+         *         first key greater than it, which is also the child to search
+         *         next
+         */
+        @SuppressWarnings("unchecked")
+        int search(K key) {
+            int lo = 0;
+            int hi = this.count - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = ((K) this.keys[mid]).compareTo(key);
+                if (c < 0) {
+                    lo = mid + 1;
+                } else if (c > 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -lo - 1;
+        }
+
+        /**
+         * Inserts a key and the child to its right at the given index
+         *
+         * @param i
+         *            The index of the new key
+         * @param key
+         *            The key
+         * @param value
+         *            The value of the key
+         * @param right
+         *            The child to the right of the key; null for a leaf
+         */
+        void insertAt(int i, Object key, Object value, Node right) {
+            System.arraycopy(this.keys, i, this.keys, i + 1, this.count - i);
+            System.arraycopy(this.values, i, this.values, i + 1, this.count - i);
+            this.keys[i] = key;
+            this.values[i] = value;
+            if (right != null) {
+                System.arraycopy(this.children, i + 1, this.children, i + 2, this.count - i);
+                this.children[i + 1] = right;
+            }
+            this.count++;
+        }
+
+        /**
+         * Removes the key at the given index and the child to its right
+         *
+         * @param i
+         *            The index of the key
+         */
+        void removeAt(int i) {
+            this.count--;
+            System.arraycopy(this.keys, i + 1, this.keys, i, this.count - i);
+            System.arraycopy(this.values, i + 1, this.values, i, this.count - i);
+            this.keys[this.count] = null;
+            this.values[this.count] = null;
+            if (this.children != null) {
+                System.arraycopy(this.children, i + 2, this.children, i + 1, this.count - i);
+                this.children[this.count + 1] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package datastructs;
+
+import java.util.Arrays;
+
+/**
+ * Helpers for the batched Dictionary operations of the sorted dictionaries
+ * 
+ * @author Neil Dey
+ */
+final class Batches {
+
+    private Batches() {
+    }
+
+    /**
+     * Returns the indices of the keys in ascending key order. Equal keys keep
+     * their order in the batch.
+     * 
+     * @param keys
+     *            The keys of a batch
+     * @return The indices of keys, sorted by key
+     */
+    static <K extends Comparable<K>> Integer[] sortedOrder(K[] keys) {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+        return order;
+    }
+}
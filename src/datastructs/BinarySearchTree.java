@@ -22,7 +22,18 @@ public class BinarySearchTree<K extends Comparable<K>, V> implements Dictionary<
      * @return The node with the specified key
      */
     private Node getKey(K key) {
-        return this.root.getKey(key);
+        Node n = this.root;
+        while (true) {
+            int temp = n.key.compareTo(key);
+            if (temp == 0) {
+                return n;
+            }
+            Node next = temp > 0 ? n.left : n.right;
+            if (next == null) {
+                return n;
+            }
+            n = next;
+        }
     }
 
     /**
@@ -34,6 +45,9 @@ public class BinarySearchTree<K extends Comparable<K>, V> implements Dictionary<
      *            The new value of the node
      */
     public V update(K key, V value) {
+        if (this.root == null) {
+            return null;
+        }
         Node n = this.getKey(key);
         if (n == null || !n.key.equals(key)) {
             return null;
@@ -58,12 +72,23 @@ public class BinarySearchTree<K extends Comparable<K>, V> implements Dictionary<
             this.root = new Node(key, value);
             return;
         }
-        Node n = this.getKey(key);
-        if (n.key.compareTo(key) > 0) {
-            n.left = new Node(key, value);
-            return;
+        // Walk past equal keys to the right, so that no subtree is replaced
+        Node n = this.root;
+        while (true) {
+            if (n.key.compareTo(key) > 0) {
+                if (n.left == null) {
+                    n.left = new Node(key, value);
+                    return;
+                }
+                n = n.left;
+            } else {
+                if (n.right == null) {
+                    n.right = new Node(key, value);
+                    return;
+                }
+                n = n.right;
+            }
         }
-        n.right = new Node(key, value);
     }
 
     /**
@@ -74,6 +99,9 @@ public class BinarySearchTree<K extends Comparable<K>, V> implements Dictionary<
      * @return The value associated with the key; null if the key is not in the tree
      */
     public V lookUp(K key) {
+        if (this.root == null) {
+            return null;
+        }
         Node n = this.getKey(key);
         if (n.key.compareTo(key) != 0) {
             return null;
@@ -137,31 +165,6 @@ public class BinarySearchTree<K extends Comparable<K>, V> implements Dictionary<
             this(key, value, null, null);
         }
 
-        /**
-         * Gets Node with the specified key that occurs in the subtree with this as the
-         * root
-         * 
-         * @param key
-         *            The key to search for
-         * @return The node with the specified key
-         */
-        public Node getKey(K key) {
-            int temp = this.key.compareTo(key);
-            if (temp == 0) {
-                return this;
-            }
-            if (temp > 0) {
-                if (this.left == null) {
-                    return this;
-                }
-                return this.left.getKey(key);
-            }
-            if (this.right == null) {
-                return this;
-            }
-            return this.right.getKey(key);
-        }
-
         // public String toString() {
         // return this.key.toString() + ", " + this.value.toString();
         // }
@@ -0,0 +1,336 @@
+package datastructs;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A hash table with a maximum size that evicts entries once it is full. The
+ * overall linked list of the hash table is kept in eviction order: the entry
+ * at the tail is the next to go.
+ *
+ * Under LRU, every hit moves its node to the head of the list. Under LFU,
+ * nodes are grouped by use count, with the most used group at the head and the
+ * most recently used node at the head of each group; a hit moves its node to
+ * the head of the next group. The head of every group is tracked, so both
+ * policies are O(1) per operation.
+ *
+ * Unlike HashTable, inserting a key that is already present replaces its value
+ * and counts as a use.
+ *
+ * @author Neil Dey
+ *
+ * @param <K>
+ *            The generic type for keys
+ * @param <V>
+ *            The generic type for values
+ */
+public class BoundedCache<K, V> extends HashTable<K, V> {
+
+    /**
+     * The policy that picks which entry to evict
+     */
+    public enum Policy {
+        /** Evict the least recently used entry **/
+        LRU,
+        /** Evict the least frequently used entry, breaking ties by recency **/
+        LFU
+    }
+
+    /** The maximum number of entries **/
+    protected final int maxSize;
+    /** The eviction policy **/
+    protected final Policy policy;
+    /** Called with every evicted entry; may be null **/
+    protected final BiConsumer<K, V> onEvict;
+    /** The head-most node with each use count; only used by LFU **/
+    protected final IntObjectHashTable<Node> groupHeads;
+
+    /** The number of look ups that found their key **/
+    protected long hits;
+    /** The number of look ups that did not find their key **/
+    protected long misses;
+    /** The number of evicted entries **/
+    protected long evictions;
+
+    /**
+     * Creates a new cache
+     *
+     * @param maxSize
+     *            The maximum number of entries
+     * @param policy
+     *            The eviction policy
+     * @param onEvict
+     *            Called with the key and value of every evicted entry; may be
+     *            null
+     */
+    public BoundedCache(int maxSize, Policy policy, BiConsumer<K, V> onEvict) {
+        super(Math.max(1, maxSize + 1));
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive.");
+        }
+        this.maxSize = maxSize;
+        this.policy = policy;
+        this.onEvict = onEvict;
+        this.groupHeads = policy == Policy.LFU ? new IntObjectHashTable<Node>() : null;
+    }
+
+    /**
+     * Creates a new cache without an eviction callback
+     *
+     * @param maxSize
+     *            The maximum number of entries
+     * @param policy
+     *            The eviction policy
+     */
+    public BoundedCache(int maxSize, Policy policy) {
+        this(maxSize, policy, null);
+    }
+
+    @Override
+    public void insert(K key, V value) {
+        Node n = this.getNode(key);
+        if (n != null) {
+            n.value = value;
+            this.touch(n);
+            return;
+        }
+        if (this.numElements >= this.maxSize) {
+            this.evict();
+        }
+        super.insert(key, value);
+
+        if (this.policy == Policy.LFU) {
+            // New entries join the least used group, which sits at the tail
+            n = this.head.fullNext;
+            Node before = this.groupHeads.lookUp(1);
+            if (before == null) {
+                before = this.tail;
+            }
+            this.unlink(n);
+            this.linkBefore(n, before);
+            this.groupHeads.insert(1, n);
+        }
+    }
+
+    @Override
+    public V lookUp(K key) {
+        Node n = this.getNode(key);
+        if (n == null) {
+            this.misses++;
+            return null;
+        }
+        this.hits++;
+        this.touch(n);
+        return n.value;
+    }
+
+    @Override
+    public V update(K key, V value) {
+        Node n = this.getNode(key);
+        if (n == null) {
+            return null;
+        }
+        V temp = n.value;
+        n.value = value;
+        this.touch(n);
+        return temp;
+    }
+
+    @Override
+    public V remove(K key) {
+        Node n = this.getNode(key);
+        if (n == null) {
+            return null;
+        }
+        if (this.policy == Policy.LFU) {
+            this.leaveGroup(n);
+        }
+        return super.remove(key);
+    }
+
+    @Override
+    public void insertAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            this.insert(keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public void lookUpAll(K[] keys, V[] results) {
+        for (int i = 0; i < keys.length; i++) {
+            results[i] = this.lookUp(keys[i]);
+        }
+    }
+
+    @Override
+    public void removeAll(K[] keys, V[] results) {
+        for (int i = 0; i < keys.length; i++) {
+            V temp = this.remove(keys[i]);
+            if (results != null) {
+                results[i] = temp;
+            }
+        }
+    }
+
+    @Override
+    protected Node newNode(K key, V value) {
+        if (this.policy == Policy.LFU) {
+            return new CountedNode(key, value);
+        }
+        return super.newNode(key, value);
+    }
+
+    /**
+     * Records a use of the given node by moving it toward the head of the list
+     *
+     * @param n
+     *            The node that was used
+     */
+    protected void touch(Node n) {
+        if (this.policy == Policy.LRU) {
+            this.unlink(n);
+            this.linkBefore(n, this.head.fullNext);
+            return;
+        }
+        CountedNode c = (CountedNode) n;
+        int count = c.count;
+        Node oldNext = n.fullNext;
+        this.leaveGroup(n);
+        this.unlink(n);
+        c.count = count + 1;
+
+        Node before = this.groupHeads.lookUp(count + 1);
+        if (before == null) {
+            // The new group goes right in front of the rest of the old one
+            before = this.groupHeads.lookUp(count);
+            if (before == null) {
+                before = oldNext;
+            }
+        }
+        this.linkBefore(n, before);
+        this.groupHeads.insert(count + 1, n);
+    }
+
+    /**
+     * Removes the entry at the tail of the list and reports it to the eviction
+     * callback
+     */
+    protected void evict() {
+        Node victim = this.tail.fullPrev;
+        K key = victim.key;
+        V value = victim.value;
+        this.remove(key);
+        this.evictions++;
+        if (this.onEvict != null) {
+            this.onEvict.accept(key, value);
+        }
+    }
+
+    /**
+     * Hands the head of the node's use-count group to the next node of the group
+     * if the node is its head
+     *
+     * @param n
+     *            The node leaving its group
+     */
+    private void leaveGroup(Node n) {
+        int count = ((CountedNode) n).count;
+        if (this.groupHeads.lookUp(count) != n) {
+            return;
+        }
+        Node next = n.fullNext;
+        if (next != this.tail && ((CountedNode) next).count == count) {
+            this.groupHeads.update(count, next);
+        } else {
+            this.groupHeads.remove(count);
+        }
+    }
+
+    /**
+     * Unlinks a node from the overall linked list, leaving its chain alone
+     *
+     * @param n
+     *            The node to unlink
+     */
+    private void unlink(Node n) {
+        n.fullPrev.fullNext = n.fullNext;
+        n.fullNext.fullPrev = n.fullPrev;
+    }
+
+    /**
+     * Links a node into the overall linked list in front of another node
+     *
+     * @param n
+     *            The node to link
+     * @param before
+     *            The node that will follow n
+     */
+    private void linkBefore(Node n, Node before) {
+        n.fullNext = before;
+        n.fullPrev = before.fullPrev;
+        before.fullPrev.fullNext = n;
+        before.fullPrev = n;
+    }
+
+    /**
+     * Gets the number of look ups that found their key
+     *
+     * @return The number of hits
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Gets the number of look ups that did not find their key
+     *
+     * @return The number of misses
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Gets the number of evicted entries
+     *
+     * @return The number of evictions
+     */
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * Gets the maximum number of entries
+     *
+     * @return The maximum number of entries
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * A node that counts how often its entry has been used
+     *
+     * @author Neil Dey
+     *
+     */
+    protected class CountedNode extends Node {
+        /** The number of times the entry has been used **/
+        protected int count;
+
+        /**
+         * Creates a new CountedNode with the given key and value
+         *
+         * @param key
+         *            The key held by the Node
+         * @param value
+         *            The value held by the Node
+         */
+        public CountedNode(K key, V value) {
+            super(key, value);
+            this.count = 1;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package datastructs;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts keys or values to and from bytes
+ *
+ * @author Neil Dey
+ *
+ * @param <T>
+ *            The type to convert
+ */
+public interface Codec<T> {
+    /** Stores strings as UTF-8 **/
+    Codec<String> STRING = new Codec<String>() {
+        public byte[] encode(String s) {
+            return s.getBytes(StandardCharsets.UTF_8);
+        }
+
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /** Stores byte arrays as they are **/
+    Codec<byte[]> BYTES = new Codec<byte[]>() {
+        public byte[] encode(byte[] b) {
+            return b;
+        }
+
+        public byte[] decode(byte[] bytes) {
+            return bytes;
+        }
+    };
+
+    /** Stores integers as four big-endian bytes **/
+    Codec<Integer> INTEGER = new Codec<Integer>() {
+        public byte[] encode(Integer i) {
+            int v = i;
+            return new byte[] { (byte) (v >>> 24), (byte) (v >>> 16), (byte) (v >>> 8), (byte) v };
+        }
+
+        public Integer decode(byte[] bytes) {
+            return (bytes[0] << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+        }
+    };
+
+    /**
+     * Converts an object to bytes
+     *
+     * @param t
+     *            The object to convert
+     * @return The serialized object
+     */
+    byte[] encode(T t);
+
+    /**
+     * Converts bytes back to an object
+     *
+     * @param bytes
+     *            The serialized object
+     * @return The object
+     */
+    T decode(byte[] bytes);
+}
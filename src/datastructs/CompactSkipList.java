@@ -0,0 +1,273 @@
+package datastructs;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A skip list with the same semantics as SkipList, but with one node per
+ * entry. Instead of a column of linked nodes that each repeat the key and
+ * value, a node holds an array of forward pointers, one per level. There are
+ * no backward pointers; a remove finds the nodes in front of the entry on its
+ * way down instead.
+ *
+ * Entries with equal keys are ordered by value, and lookUp, update and remove
+ * act on the first entry with a key. The search that places an entry compares
+ * values as well as keys, so inserting under a key that already has many
+ * entries still takes O(log n) time.
+ *
+ * @author Neil Dey
+ * @param <K>
+ *            The generic type for keys. Keys must implement Comparable.
+ * @param <V>
+ *            The generic type for values. Values must implement Comparable.
+ */
+public class CompactSkipList<K extends Comparable<K>, V extends Comparable<V>> implements Dictionary<K, V> {
+    /** The maximum height of a node **/
+    protected static final int MAX_HEIGHT = LevelGenerator.DEFAULT_MAX_HEIGHT;
+
+    /** The node before every entry, with MAX_HEIGHT levels **/
+    private final Node head;
+    /** Picks the height of each new node **/
+    private final LevelGenerator levels;
+    /** The number of levels in use **/
+    private int height;
+    /** The number of entries in the skip list **/
+    private int numElements;
+    /** The last node before the entry being removed on each level, reused by remove **/
+    private final Node[] path;
+
+    /**
+     * Initializes an empty skip list
+     */
+    public CompactSkipList() {
+        this.head = new Node(null, null, CompactSkipList.MAX_HEIGHT);
+        this.levels = new LevelGenerator();
+        this.height = 1;
+        this.path = this.newPath();
+    }
+
+    /**
+     * Allocates an array with room for one node per level
+     *
+     * @return An empty array of MAX_HEIGHT nodes
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Node[] newPath() {
+        return new CompactSkipList.Node[CompactSkipList.MAX_HEIGHT];
+    }
+
+    /**
+     * Returns the last node on the bottom level whose key is less than the given
+     * key, or the head
+     *
+     * @param key
+     *            The key to search for
+     * @return The node in front of the first entry with the key
+     */
+    private Node getNodeBefore(K key) {
+        Node p = this.head;
+        for (int level = this.height - 1; level >= 0; level--) {
+            while (p.next[level] != null && p.next[level].key.compareTo(key) < 0) {
+                p = p.next[level];
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Returns the first node with the given key
+     *
+     * @param key
+     *            The key to search for
+     * @return The first node with the key, or null if the key doesn't exist
+     */
+    private Node getNode(K key) {
+        Node n = this.getNodeBefore(key).next[0];
+        if (n != null && n.key.compareTo(key) == 0) {
+            return n;
+        }
+        return null;
+    }
+
+    @Override
+    public V lookUp(K key) {
+        Node n = this.getNode(key);
+        if (n == null) {
+            return null;
+        }
+        return n.value;
+    }
+
+    /**
+     * Inserts the given key/value pair as an entry into the skip list, in front
+     * of any entries with the same key and a value that is not smaller
+     *
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value that the key matches to
+     */
+    @Override
+    public void insert(K key, V value) {
+        int h = this.levels.nextHeight();
+        if (h > this.height) {
+            this.height = h;
+        }
+        Node n = new Node(key, value, h);
+        Node p = this.head;
+        for (int level = this.height - 1; level >= 0; level--) {
+            while (p.next[level] != null && this.before(p.next[level], key, value)) {
+                p = p.next[level];
+            }
+            if (level < h) {
+                n.next[level] = p.next[level];
+                p.next[level] = n;
+            }
+        }
+        this.numElements++;
+    }
+
+    @Override
+    public V update(K key, V value) {
+        Node n = this.getNode(key);
+        if (n == null) {
+            return null;
+        }
+        V temp = n.value;
+        n.value = value;
+        return temp;
+    }
+
+    @Override
+    public V remove(K key) {
+        int top = this.height;
+        Node p = this.head;
+        for (int level = top - 1; level >= 0; level--) {
+            while (p.next[level] != null && p.next[level].key.compareTo(key) < 0) {
+                p = p.next[level];
+            }
+            this.path[level] = p;
+        }
+        Node n = p.next[0];
+        if (n == null || n.key.compareTo(key) != 0) {
+            Arrays.fill(this.path, 0, top, null);
+            return null;
+        }
+        // n is the first node with the key, so it directly follows the path on each of its levels
+        for (int level = 0; level < n.next.length; level++) {
+            this.path[level].next[level] = n.next[level];
+        }
+        // The path must not keep nodes removed later reachable
+        Arrays.fill(this.path, 0, top, null);
+        while (this.height > 1 && this.head.next[this.height - 1] == null) {
+            this.height--;
+        }
+        this.numElements--;
+        return n.value;
+    }
+
+    /**
+     * Returns whether or not a node comes before an entry with the given key and
+     * value
+     *
+     * @param n
+     *            The node
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     * @return Whether or not the node is ordered before the entry
+     */
+    private boolean before(Node n, K key, V value) {
+        int c = n.key.compareTo(key);
+        return c < 0 || (c == 0 && n.value.compareTo(value) < 0);
+    }
+
+    /**
+     * Returns the smallest key in the skip list
+     *
+     * @return The first key, or null if the skip list is empty
+     */
+    public K firstKey() {
+        Node n = this.head.next[0];
+        return n == null ? null : n.key;
+    }
+
+    /**
+     * Returns an iterator over the values of every entry, in the order of the
+     * entries. The skip list must not be modified while the iterator is in use.
+     *
+     * @return An iterator over the values
+     */
+    public Iterator<V> values() {
+        return new Iterator<V>() {
+            private Node cur = CompactSkipList.this.head.next[0];
+
+            @Override
+            public boolean hasNext() {
+                return this.cur != null;
+            }
+
+            @Override
+            public V next() {
+                if (this.cur == null) {
+                    throw new NoSuchElementException();
+                }
+                V value = this.cur.value;
+                this.cur = this.cur.next[0];
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Gets the number of entries in the skip list
+     *
+     * @return The number of entries in the skip list
+     */
+    public int size() {
+        return this.numElements;
+    }
+
+    // Only necessary for debugging purposes
+    public String printAll() {
+        StringBuilder s = new StringBuilder();
+        for (Node n = this.head.next[0]; n != null; n = n.next[0]) {
+            s.append(n.value + ", ");
+        }
+        return s.toString();
+    }
+
+    /**
+     * An entry of the skip list together with its forward pointers
+     *
+     * @author Neil Dey
+     *
+     */
+    private class Node {
+        /** The key of the entry **/
+        private final K key;
+        /** The value of the entry **/
+        private V value;
+        /** The next node on each level of this node **/
+        private final Node[] next;
+
+        /**
+         * Initializes a node with the given key, value, and height
+         *
+         * @param key
+         *            The key for the entry
+         * @param value
+         *            The value for the entry
+         * @param height
+         *            The number of levels of the node
+         */
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Node(K key, V value, int height) {
+            this.key = key;
+            this.value = value;
+            this.next = new CompactSkipList.Node[height];
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package datastructs;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe hash table that uses separate chaining and Fibonacci hash
+ * compression.
+ *
+ * Chains are immutable lists, so lookUp never locks: it reads a bucket head and
+ * walks a chain that no writer will modify. Writers lock one of a fixed set of
+ * lock stripes chosen by bucket index and publish a new head. A resize is
+ * shared: every writer that sees one in progress claims a range of old buckets,
+ * splits each into its two buckets in the doubled table, and leaves a
+ * forwarding node behind so that readers follow it to the new table.
+ *
+ * Inserting a key that is already present replaces its value.
+ *
+ * @author Neil Dey
+ *
+ * @param <K>
+ *            The generic type for keys
+ * @param <V>
+ *            The generic type for values
+ */
+public class ConcurrentHashTable<K, V> implements Dictionary<K, V> {
+
+    /** The load factor at which the hash table resizes **/
+    protected static final double RESIZE_THRESHOLD = 0.75;
+    /** The initial capacity of the hash table **/
+    protected static final int INIT_CAP = 16;
+    /** 2^32 divided by the golden ratio; the integer form of Fibonacci hashing **/
+    protected static final int FIB_MULTIPLIER = 0x9E3779B9;
+    /** The number of locks shared by the buckets **/
+    protected static final int LOCK_STRIPES = 256;
+    /** The number of buckets a thread claims at a time while resizing **/
+    protected static final int TRANSFER_STRIDE = 16;
+
+    /** The current table **/
+    protected volatile Table table;
+    /** The locks guarding writes to the buckets **/
+    protected final Object[] locks;
+    /** The number of elements in the hash table **/
+    protected final LongAdder numElements;
+
+    /**
+     * Creates a new hash table that can hold the given number of elements before
+     * resizing
+     *
+     * @param capacity
+     *            The capacity of the hash table
+     */
+    public ConcurrentHashTable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        int tableSize = 2;
+        while (tableSize * ConcurrentHashTable.RESIZE_THRESHOLD < capacity) {
+            tableSize <<= 1;
+        }
+        this.table = new Table(tableSize);
+        this.locks = new Object[ConcurrentHashTable.LOCK_STRIPES];
+        for (int i = 0; i < this.locks.length; i++) {
+            this.locks[i] = new Object();
+        }
+        this.numElements = new LongAdder();
+    }
+
+    /**
+     * Creates a new hash table with the default initial capacity
+     */
+    public ConcurrentHashTable() {
+        this(ConcurrentHashTable.INIT_CAP);
+    }
+
+    @Override
+    public void insert(K key, V value) {
+        int hash = key.hashCode();
+        Table t = this.table;
+        while (true) {
+            int index = t.compress(hash);
+            Node head = t.buckets.get(index);
+            if (head instanceof ConcurrentHashTable.Forward) {
+                t = this.helpTransfer(t);
+                continue;
+            }
+            synchronized (this.lockFor(index)) {
+                if (t.buckets.get(index) != head) {
+                    continue;
+                }
+                for (Node n = head; n != null; n = n.next) {
+                    if (n.hash == hash && n.key.equals(key)) {
+                        n.value = value;
+                        return;
+                    }
+                }
+                t.buckets.set(index, new Node(hash, key, value, head));
+            }
+            break;
+        }
+        this.numElements.increment();
+        if (this.numElements.sum() > t.buckets.length() * ConcurrentHashTable.RESIZE_THRESHOLD) {
+            this.resize(t);
+        }
+    }
+
+    @Override
+    public V lookUp(K key) {
+        Node n = this.getNode(key);
+        if (n == null) {
+            return null;
+        }
+        return n.value;
+    }
+
+    @Override
+    public V remove(K key) {
+        int hash = key.hashCode();
+        Table t = this.table;
+        while (true) {
+            int index = t.compress(hash);
+            Node head = t.buckets.get(index);
+            if (head == null) {
+                return null;
+            }
+            if (head instanceof ConcurrentHashTable.Forward) {
+                t = this.helpTransfer(t);
+                continue;
+            }
+            synchronized (this.lockFor(index)) {
+                if (t.buckets.get(index) != head) {
+                    continue;
+                }
+                Node n = head;
+                while (n != null && !(n.hash == hash && n.key.equals(key))) {
+                    n = n.next;
+                }
+                if (n == null) {
+                    return null;
+                }
+                // Chains are immutable, so copy the nodes in front of the removed one
+                Node newHead = n.next;
+                for (Node p = head; p != n; p = p.next) {
+                    newHead = new Node(p.hash, p.key, p.value, newHead);
+                }
+                t.buckets.set(index, newHead);
+                this.numElements.decrement();
+                return n.value;
+            }
+        }
+    }
+
+    @Override
+    public V update(K key, V value) {
+        int hash = key.hashCode();
+        Table t = this.table;
+        while (true) {
+            int index = t.compress(hash);
+            Node head = t.buckets.get(index);
+            if (head == null) {
+                return null;
+            }
+            if (head instanceof ConcurrentHashTable.Forward) {
+                t = this.helpTransfer(t);
+                continue;
+            }
+            synchronized (this.lockFor(index)) {
+                if (t.buckets.get(index) != head) {
+                    continue;
+                }
+                for (Node n = head; n != null; n = n.next) {
+                    if (n.hash == hash && n.key.equals(key)) {
+                        V temp = n.value;
+                        n.value = value;
+                        return temp;
+                    }
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns the node with the given key without locking
+     *
+     * @param key
+     *            The key to search for
+     * @return The node with the given key, or null if the key is not in the table
+     */
+    protected Node getNode(K key) {
+        int hash = key.hashCode();
+        Table t = this.table;
+        while (true) {
+            Node n = t.buckets.get(t.compress(hash));
+            if (n instanceof ConcurrentHashTable.Forward) {
+                t = ((Forward) n).table;
+                continue;
+            }
+            while (n != null) {
+                if (n.hash == hash && n.key.equals(key)) {
+                    return n;
+                }
+                n = n.next;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the lock guarding writes to the bucket at the given index
+     *
+     * @param index
+     *            The index of the bucket
+     * @return The lock for the bucket
+     */
+    private Object lockFor(int index) {
+        return this.locks[index & (ConcurrentHashTable.LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Starts a resize of the given table if none has been started yet, then helps
+     * finish it. A table that is still being filled by the resize of its
+     * predecessor is left alone; a later insert will resize it once installed.
+     *
+     * @param t
+     *            The table that is full
+     */
+    protected void resize(Table t) {
+        if (t.next.get() == null) {
+            if (this.table != t) {
+                return;
+            }
+            t.next.compareAndSet(null, new Table(t.buckets.length() << 1));
+        }
+        this.helpTransfer(t);
+    }
+
+    /**
+     * Moves ranges of buckets from the given table into the table that replaces
+     * it until no unclaimed buckets are left. Whichever thread moves the last
+     * bucket installs the new table.
+     *
+     * @param t
+     *            The table being resized
+     * @return The table that replaces t
+     */
+    protected Table helpTransfer(Table t) {
+        Table next = t.next.get();
+        int length = t.buckets.length();
+        while (true) {
+            int start = t.claimed.getAndAdd(ConcurrentHashTable.TRANSFER_STRIDE);
+            if (start >= length) {
+                break;
+            }
+            int end = Math.min(start + ConcurrentHashTable.TRANSFER_STRIDE, length);
+            for (int i = start; i < end; i++) {
+                this.transfer(t, next, i);
+            }
+            if (t.transferred.addAndGet(end - start) == length) {
+                this.table = next;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Splits one bucket of a table into its two buckets of the doubled table and
+     * leaves a forwarding node in its place
+     *
+     * @param t
+     *            The table being resized
+     * @param next
+     *            The doubled table
+     * @param index
+     *            The index of the bucket to move
+     */
+    private void transfer(Table t, Table next, int index) {
+        synchronized (this.lockFor(index)) {
+            Node lo = null;
+            Node hi = null;
+            for (Node n = t.buckets.get(index); n != null; n = n.next) {
+                if (next.compress(n.hash) == 2 * index) {
+                    lo = new Node(n.hash, n.key, n.value, lo);
+                } else {
+                    hi = new Node(n.hash, n.key, n.value, hi);
+                }
+            }
+            next.buckets.set(2 * index, lo);
+            next.buckets.set(2 * index + 1, hi);
+            t.buckets.set(index, new Forward(next));
+        }
+    }
+
+    /**
+     * Gets the number of buckets in the current table
+     *
+     * @return The number of buckets in the current table
+     */
+    public int getHashTableLength() {
+        return this.table.buckets.length();
+    }
+
+    /**
+     * Gets the number of elements in the hash table
+     *
+     * @return The number of elements in the hash table
+     */
+    public int size() {
+        return (int) this.numElements.sum();
+    }
+
+    /**
+     * An array of buckets together with the state of its resize
+     *
+     * @author Neil Dey
+     *
+     */
+    protected class Table {
+        /** The chains of the table **/
+        final AtomicReferenceArray<Node> buckets;
+        /** The shift that maps a multiplied hash onto the buckets **/
+        final int shift;
+        /** The table replacing this one, once a resize has started **/
+        final AtomicReference<Table> next;
+        /** The number of buckets claimed by resizing threads **/
+        final AtomicInteger claimed;
+        /** The number of buckets moved to the next table **/
+        final AtomicInteger transferred;
+
+        /**
+         * Creates an empty table with the given number of buckets
+         *
+         * @param length
+         *            The number of buckets; must be a power of two
+         */
+        Table(int length) {
+            this.buckets = new AtomicReferenceArray<Node>(length);
+            this.shift = 32 - Integer.numberOfTrailingZeros(length);
+            this.next = new AtomicReference<Table>();
+            this.claimed = new AtomicInteger();
+            this.transferred = new AtomicInteger();
+        }
+
+        /**
+         * Compresses a hash into the table using Fibonacci hash compression
+         *
+         * @param hash
+         *            The hash to compress
+         * @return The compressed hash
+         */
+        int compress(int hash) {
+            return (hash * ConcurrentHashTable.FIB_MULTIPLIER) >>> this.shift;
+        }
+    }
+
+    /**
+     * A node in a chain in the hash table. Only the value may change once a node
+     * is published.
+     *
+     * @author Neil Dey
+     *
+     */
+    protected class Node {
+        /** The hash of the key **/
+        final int hash;
+        /** The key held by the Node **/
+        final K key;
+        /** The value held by the Node **/
+        volatile V value;
+        /** The next node in a chain **/
+        final Node next;
+
+        /**
+         * Creates a new Node
+         *
+         * @param hash
+         *            The hash of the key
+         * @param key
+         *            The key held by the Node
+         * @param value
+         *            The value held by the Node
+         * @param next
+         *            The next node in the chain
+         */
+        Node(int hash, K key, V value, Node next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Marks a bucket that has been moved to a newer table
+     *
+     * @author Neil Dey
+     *
+     */
+    protected class Forward extends Node {
+        /** The table the bucket was moved to **/
+        final Table table;
+
+        /**
+         * Creates a forwarding node to the given table
+         *
+         * @param table
+         *            The table the bucket was moved to
+         */
+        Forward(Table table) {
+            super(0, null, null, null);
+            this.table = table;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package datastructs;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free skip list that allows duplicate keys, with the same semantics as
+ * SkipList: entries with equal keys are ordered by value, lookUp, update and
+ * remove act on the first entry with a key, and a new entry goes in front of
+ * any entry with an equal key and value.
+ *
+ * Each node is a tower of next references, one per level, each paired with a
+ * mark bit. An insert links its node into the bottom level with one CAS, which
+ * is where it takes effect, and then links the levels above. A remove takes
+ * effect by CASing the node's value to null, then marks every level of the
+ * tower so that no node can be linked after it, and finally unlinks it; any
+ * search that passes a marked node helps unlink it. lookUp never writes.
+ *
+ * Entries are ordered by key, then by the value they were inserted with, then
+ * newest first, so that every node has a distinct position. update changes the
+ * value of an entry without moving it, like SkipList. Null values are not
+ * allowed, since a null value marks a removed entry.
+ *
+ * @author Neil Dey
+ * @param <K>
+ *            The generic type for keys. Keys must implement Comparable.
+ * @param <V>
+ *            The generic type for values. Values must implement Comparable.
+ */
+public class ConcurrentSkipList<K extends Comparable<K>, V extends Comparable<V>> implements Dictionary<K, V> {
+    /** The maximum height of a tower **/
+    protected static final int MAX_HEIGHT = LevelGenerator.DEFAULT_MAX_HEIGHT;
+
+    /** The tower of the smallest possible key, with MAX_HEIGHT levels **/
+    private final Node head;
+    /** Picks the height of each new tower; unseeded, so it is safe to share **/
+    private final LevelGenerator levels;
+    /** Gives every entry a distinct position among equal keys and values **/
+    private final AtomicLong sequence;
+    /** The number of entries in the skip list **/
+    private final LongAdder numElements;
+
+    /**
+     * Initializes an empty skip list
+     */
+    public ConcurrentSkipList() {
+        this.head = new Node(null, null, Long.MAX_VALUE, ConcurrentSkipList.MAX_HEIGHT);
+        this.levels = new LevelGenerator();
+        this.sequence = new AtomicLong();
+        this.numElements = new LongAdder();
+    }
+
+    /**
+     * Inserts the given key/value pair as an entry into the skip list
+     *
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value that the key matches to; must not be null
+     */
+    @Override
+    public void insert(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Values must not be null.");
+        }
+        int height = this.levels.nextHeight();
+        Node n = new Node(key, value, this.sequence.getAndIncrement(), height);
+        Node[] preds = this.newPath();
+        Node[] succs = this.newPath();
+        while (true) {
+            this.find(n.key, n.order, n.seq, preds, succs);
+            for (int level = 0; level < height; level++) {
+                n.next[level].set(succs[level], false);
+            }
+            if (preds[0].next[0].compareAndSet(succs[0], n, false, false)) {
+                break;
+            }
+        }
+        this.numElements.increment();
+
+        boolean[] marked = { false };
+        for (int level = 1; level < height; level++) {
+            while (true) {
+                Node succ = succs[level];
+                Node current = n.next[level].get(marked);
+                if (marked[0]) {
+                    // The entry is already being removed; it needs no more levels
+                    return;
+                }
+                if (current != succ && !n.next[level].compareAndSet(current, succ, false, false)) {
+                    continue;
+                }
+                if (preds[level].next[level].compareAndSet(succ, n, false, false)) {
+                    break;
+                }
+                this.find(n.key, n.order, n.seq, preds, succs);
+            }
+        }
+    }
+
+    /**
+     * Returns the value of the first entry in the dictionary matching the given
+     * key. This never modifies the skip list.
+     *
+     * @param key
+     *            The key of the value to search for
+     * @return The value of the first entry in the dictionary matching the given
+     *         key, or null if the key doesn't exist.
+     */
+    @Override
+    public V lookUp(K key) {
+        boolean[] marked = { false };
+        Node pred = this.head;
+        Node current = null;
+        for (int level = ConcurrentSkipList.MAX_HEIGHT - 1; level >= 0; level--) {
+            current = pred.next[level].getReference();
+            while (current != null) {
+                Node succ = current.next[level].get(marked);
+                if (marked[0]) {
+                    current = succ;
+                } else if (current.key.compareTo(key) < 0) {
+                    pred = current;
+                    current = succ;
+                } else {
+                    break;
+                }
+            }
+        }
+        for (; current != null && current.key.compareTo(key) == 0; current = current.next[0].getReference()) {
+            V value = current.value.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the first entry with the given key
+     *
+     * @param key
+     *            The key of the entry to remove
+     * @return The value of the removed entry, or null if the key doesn't exist
+     */
+    @Override
+    public V remove(K key) {
+        while (true) {
+            Node n = this.firstNode(key);
+            if (n == null) {
+                return null;
+            }
+            V value = n.value.get();
+            if (value != null && n.value.compareAndSet(value, null)) {
+                this.numElements.decrement();
+                this.unlink(n);
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Replaces the value of the first entry with the given key, without moving
+     * the entry
+     *
+     * @param key
+     *            The key of the entry to update
+     * @param value
+     *            The new value of the entry; must not be null
+     * @return The old value of the entry, or null if the key doesn't exist
+     */
+    @Override
+    public V update(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Values must not be null.");
+        }
+        while (true) {
+            Node n = this.firstNode(key);
+            if (n == null) {
+                return null;
+            }
+            V temp = n.value.get();
+            if (temp != null && n.value.compareAndSet(temp, value)) {
+                return temp;
+            }
+        }
+    }
+
+    /**
+     * Returns the first bottom-level node with the given key whose entry has not
+     * been removed, unlinking removed nodes on the way
+     *
+     * @param key
+     *            The key to search for
+     * @return The first live node with the key, or null if there is none
+     */
+    private Node firstNode(K key) {
+        Node[] preds = this.newPath();
+        Node[] succs = this.newPath();
+        this.find(key, null, 0, preds, succs);
+        for (Node n = succs[0]; n != null && n.key.compareTo(key) == 0; n = n.next[0].getReference()) {
+            if (n.value.get() != null) {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Allocates an array with room for one node per level
+     *
+     * @return An empty array of MAX_HEIGHT nodes
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Node[] newPath() {
+        return new ConcurrentSkipList.Node[ConcurrentSkipList.MAX_HEIGHT];
+    }
+
+    /**
+     * Marks every level of a removed node, top down, and then unlinks it by
+     * searching for it
+     *
+     * @param n
+     *            The node whose value has been set to null
+     */
+    private void unlink(Node n) {
+        boolean[] marked = { false };
+        for (int level = n.next.length - 1; level >= 0; level--) {
+            Node succ = n.next[level].get(marked);
+            while (!marked[0]) {
+                n.next[level].attemptMark(succ, true);
+                succ = n.next[level].get(marked);
+            }
+        }
+        this.find(n.key, n.order, n.seq, this.newPath(), this.newPath());
+    }
+
+    /**
+     * Finds, on every level, the last node before the given position and the
+     * node after it, unlinking every marked node it passes. If order is null,
+     * the position is in front of every entry with the key.
+     *
+     * @param key
+     *            The key of the position
+     * @param order
+     *            The value the entry was inserted with, or null
+     * @param seq
+     *            The sequence number of the entry
+     * @param preds
+     *            Receives the last node before the position on each level
+     * @param succs
+     *            Receives the first node after the position on each level, or
+     *            null at the end of a level
+     */
+    private void find(K key, V order, long seq, Node[] preds, Node[] succs) {
+        boolean[] marked = { false };
+        retry: while (true) {
+            Node pred = this.head;
+            for (int level = ConcurrentSkipList.MAX_HEIGHT - 1; level >= 0; level--) {
+                Node current = pred.next[level].getReference();
+                while (current != null) {
+                    Node succ = current.next[level].get(marked);
+                    if (marked[0]) {
+                        // Help unlink the removed node; start over if pred changed
+                        if (!pred.next[level].compareAndSet(current, succ, false, false)) {
+                            continue retry;
+                        }
+                        current = succ;
+                    } else if (this.compare(current, key, order, seq) < 0) {
+                        pred = current;
+                        current = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = current;
+            }
+            return;
+        }
+    }
+
+    /**
+     * Compares the position of a node to the given position
+     *
+     * @param n
+     *            The node
+     * @param key
+     *            The key of the position
+     * @param order
+     *            The value the entry was inserted with, or null for the front of
+     *            the key
+     * @param seq
+     *            The sequence number of the entry
+     * @return A negative number, zero, or a positive number if the node comes
+     *         before, at, or after the position
+     */
+    private int compare(Node n, K key, V order, long seq) {
+        int c = n.key.compareTo(key);
+        if (c != 0 || order == null) {
+            return c == 0 ? 1 : c;
+        }
+        c = n.order.compareTo(order);
+        if (c != 0) {
+            return c;
+        }
+        // Newer entries come first
+        return Long.compare(seq, n.seq);
+    }
+
+    /**
+     * Gets the number of entries in the skip list. The count is only exact while
+     * no other thread modifies the skip list.
+     *
+     * @return The number of entries in the skip list
+     */
+    public int size() {
+        return (int) this.numElements.sum();
+    }
+
+    /**
+     * Returns the values in ascending order, separated by commas, like
+     * SkipList.printAll()
+     *
+     * @return The values of the live entries
+     */
+    public String printAll() {
+        StringBuilder s = new StringBuilder();
+        for (Node n = this.head.next[0].getReference(); n != null; n = n.next[0].getReference()) {
+            V value = n.value.get();
+            if (value != null) {
+                s.append(value + ", ");
+            }
+        }
+        return s.toString();
+    }
+
+    /**
+     * A tower of the skip list
+     *
+     * @author Neil Dey
+     *
+     */
+    private class Node {
+        /** The key of the entry **/
+        private final K key;
+        /** The value the entry was inserted with, which fixes its position **/
+        private final V order;
+        /** Orders the entry among entries with the same key and order **/
+        private final long seq;
+        /** The current value of the entry, or null once it is removed **/
+        private final AtomicReference<V> value;
+        /** The next node on each level, marked once this node is removed **/
+        private final AtomicMarkableReference<Node>[] next;
+
+        /**
+         * Initializes a tower with the given height and no successors
+         *
+         * @param key
+         *            The key for the entry
+         * @param value
+         *            The value for the entry
+         * @param seq
+         *            The sequence number of the entry
+         * @param height
+         *            The number of levels of the tower
+         */
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        Node(K key, V value, long seq, int height) {
+            this.key = key;
+            this.order = value;
+            this.seq = seq;
+            this.value = new AtomicReference<V>(value);
+            this.next = new AtomicMarkableReference[height];
+            for (int level = 0; level < height; level++) {
+                this.next[level] = new AtomicMarkableReference<Node>(null, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package datastructs;
+
+import java.util.Arrays;
+
+/**
+ * A bucketized cuckoo hash table. Every key may live in one of SLOTS slots of
+ * exactly two buckets, or in a stash, so a look up compares 2 * SLOTS keys
+ * plus every entry of the stash. The stash holds at most STASH_SIZE entries
+ * unless many keys have equal hashCode() values; in that worst case a look up
+ * is a linear scan of a stash that holds most of those keys.
+ *
+ * The first bucket of a key is chosen with the same Fibonacci hash compression
+ * as HashTable, over a prime number of buckets; the second is chosen the same
+ * way from a hash remixed with a seed. An insert that finds both buckets full
+ * evicts a random resident to its other bucket, repeating up to MAX_KICKS
+ * times. An entry that still has no home goes to the stash. Once the stash
+ * holds more than STASH_SIZE entries, the table rehashes at the same size with
+ * a new seed; keys whose hashCode() values are equal cannot be separated by any
+ * seed, so if that does not empty the stash enough, the stash is allowed to
+ * grow instead of the table. A remove that frees a slot moves a stash entry
+ * that belongs to its bucket into it, and once the stash is back down to
+ * STASH_SIZE entries, an overfull stash forces a rehash again. No set of keys
+ * can make inserts grow the table without bound.
+ *
+ * Inserting a key that is already present replaces its value.
+ *
+ * @author Neil Dey
+ *
+ * @param <K>
+ *            The generic type for keys
+ * @param <V>
+ *            The generic type for values
+ */
+public class CuckooHashTable<K, V> implements Dictionary<K, V> {
+
+    /** The load factor at which the hash table resizes **/
+    protected static final double RESIZE_THRESHOLD = 0.90;
+    /** The initial capacity of the hash table **/
+    protected static final int INIT_CAP = 16;
+    /** The number of slots in each bucket **/
+    protected static final int SLOTS = 4;
+    /** The number of entries the stash holds before the table rehashes **/
+    protected static final int STASH_SIZE = 8;
+    /** The number of evictions an insert tries before using the stash **/
+    protected static final int MAX_KICKS = 256;
+
+    /** The number of buckets **/
+    protected int numBuckets;
+    /** The keys of each slot, SLOTS per bucket **/
+    protected Object[] keys;
+    /** The values of each slot **/
+    protected Object[] values;
+    /** The keys of the stash **/
+    protected Object[] stashKeys;
+    /** The values of the stash **/
+    protected Object[] stashValues;
+    /** The number of entries in the stash **/
+    protected int stashSize;
+    /** The number of stash entries above which the table rehashes **/
+    protected int stashLimit;
+    /** The seed mixed into the hash that picks the second bucket of a key **/
+    protected int hashSeed;
+    /** The number of elements in the hash table **/
+    protected int numElements;
+    /** The state of the generator that picks which slot to evict **/
+    private int seed;
+
+    /**
+     * Creates a new hash table that can hold the given number of elements before
+     * resizing
+     *
+     * @param capacity
+     *            The capacity of the hash table
+     */
+    public CuckooHashTable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.allocate((int) Math.ceil(capacity / (CuckooHashTable.SLOTS * CuckooHashTable.RESIZE_THRESHOLD)));
+        this.seed = 0x2545F491;
+    }
+
+    /**
+     * Creates a new hash table with the default initial capacity
+     */
+    public CuckooHashTable() {
+        this(CuckooHashTable.INIT_CAP);
+    }
+
+    /**
+     * Allocates empty slots for at least the given number of buckets. The number
+     * of buckets is rounded up to a prime.
+     *
+     * @param buckets
+     *            The minimum number of buckets
+     */
+    private void allocate(int buckets) {
+        buckets = Math.max(buckets, 3);
+        if (buckets % 2 == 0) {
+            buckets++;
+        }
+        while (!HashTable.isPrime(buckets)) {
+            buckets += 2;
+        }
+        this.numBuckets = buckets;
+        this.keys = new Object[buckets * CuckooHashTable.SLOTS];
+        this.values = new Object[buckets * CuckooHashTable.SLOTS];
+        this.stashKeys = new Object[CuckooHashTable.STASH_SIZE];
+        this.stashValues = new Object[CuckooHashTable.STASH_SIZE];
+        this.stashSize = 0;
+        this.stashLimit = CuckooHashTable.STASH_SIZE;
+        this.numElements = 0;
+    }
+
+    @Override
+    public void insert(K key, V value) {
+        int slot = this.find(key);
+        if (slot >= 0) {
+            this.values[slot] = value;
+            return;
+        }
+        if (slot != -1) {
+            this.stashValues[-slot - 2] = value;
+            return;
+        }
+        if (this.numElements >= this.numBuckets * CuckooHashTable.SLOTS * CuckooHashTable.RESIZE_THRESHOLD) {
+            this.resize();
+        }
+        this.place(key, value);
+        if (this.stashSize > this.stashLimit) {
+            this.rehash(this.numBuckets);
+            if (this.stashSize > this.stashLimit) {
+                // No seed separates these keys, so let the stash hold them
+                this.stashLimit = this.stashSize * 2;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V lookUp(K key) {
+        int slot = this.find(key);
+        if (slot >= 0) {
+            return (V) this.values[slot];
+        }
+        if (slot != -1) {
+            return (V) this.stashValues[-slot - 2];
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        int slot = this.find(key);
+        V temp;
+        if (slot >= 0) {
+            temp = (V) this.values[slot];
+            this.keys[slot] = null;
+            this.values[slot] = null;
+            this.refill(slot);
+        } else if (slot != -1) {
+            temp = (V) this.stashValues[-slot - 2];
+            this.removeFromStash(-slot - 2);
+        } else {
+            return null;
+        }
+        this.numElements--;
+        return temp;
+    }
+
+    /**
+     * Moves an entry of the stash into a freed slot if the slot is in one of the
+     * entry's two buckets, so that the stash only holds entries with no room
+     *
+     * @param slot
+     *            The freed slot
+     */
+    private void refill(int slot) {
+        int bucket = slot / CuckooHashTable.SLOTS;
+        for (int s = 0; s < this.stashSize; s++) {
+            int hash = this.stashKeys[s].hashCode();
+            if (this.bucket1(hash) == bucket || this.bucket2(hash) == bucket) {
+                this.keys[slot] = this.stashKeys[s];
+                this.values[slot] = this.stashValues[s];
+                this.removeFromStash(s);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes an entry from the stash by moving the last entry into its place
+     *
+     * @param s
+     *            The index of the entry in the stash
+     */
+    private void removeFromStash(int s) {
+        this.stashSize--;
+        this.stashKeys[s] = this.stashKeys[this.stashSize];
+        this.stashValues[s] = this.stashValues[this.stashSize];
+        this.stashKeys[this.stashSize] = null;
+        this.stashValues[this.stashSize] = null;
+        if (this.stashSize <= CuckooHashTable.STASH_SIZE) {
+            // The keys that needed a larger stash are gone
+            this.stashLimit = CuckooHashTable.STASH_SIZE;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V update(K key, V value) {
+        int slot = this.find(key);
+        V temp;
+        if (slot >= 0) {
+            temp = (V) this.values[slot];
+            this.values[slot] = value;
+        } else if (slot != -1) {
+            temp = (V) this.stashValues[-slot - 2];
+            this.stashValues[-slot - 2] = value;
+        } else {
+            return null;
+        }
+        return temp;
+    }
+
+    /**
+     * Finds the given key in its two buckets or the stash
+     *
+     * @param key
+     *            The key to search for
+     * @return The slot holding the key; -(s + 2) if the key is at index s of the
+     *         stash; or -1 if the key is not in the table
+     */
+    protected int find(Object key) {
+        int hash = key.hashCode();
+        int start = this.bucket1(hash) * CuckooHashTable.SLOTS;
+        for (int i = start; i < start + CuckooHashTable.SLOTS; i++) {
+            if (key.equals(this.keys[i])) {
+                return i;
+            }
+        }
+        start = this.bucket2(hash) * CuckooHashTable.SLOTS;
+        for (int i = start; i < start + CuckooHashTable.SLOTS; i++) {
+            if (key.equals(this.keys[i])) {
+                return i;
+            }
+        }
+        for (int s = 0; s < this.stashSize; s++) {
+            if (key.equals(this.stashKeys[s])) {
+                return -s - 2;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Places a key that is not in the table into one of its buckets, evicting
+     * residents to their other buckets as needed. Falls back to the stash,
+     * which grows if it is full.
+     *
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     */
+    private void place(Object key, Object value) {
+        int hash = key.hashCode();
+        int bucket = this.bucket1(hash);
+        if (this.placeInBucket(bucket, key, value) || this.placeInBucket(this.bucket2(hash), key, value)) {
+            return;
+        }
+        for (int kick = 0; kick < CuckooHashTable.MAX_KICKS; kick++) {
+            // Swap the entry with a random resident, which then goes to its other bucket
+            int slot = bucket * CuckooHashTable.SLOTS + ((this.nextRandom() >>> 16) % CuckooHashTable.SLOTS);
+            Object k = this.keys[slot];
+            Object v = this.values[slot];
+            this.keys[slot] = key;
+            this.values[slot] = value;
+            key = k;
+            value = v;
+
+            hash = key.hashCode();
+            int b1 = this.bucket1(hash);
+            bucket = bucket == b1 ? this.bucket2(hash) : b1;
+            if (this.placeInBucket(bucket, key, value)) {
+                return;
+            }
+        }
+        if (this.stashSize == this.stashKeys.length) {
+            this.stashKeys = Arrays.copyOf(this.stashKeys, this.stashSize * 2);
+            this.stashValues = Arrays.copyOf(this.stashValues, this.stashSize * 2);
+        }
+        this.stashKeys[this.stashSize] = key;
+        this.stashValues[this.stashSize] = value;
+        this.stashSize++;
+        this.numElements++;
+    }
+
+    /**
+     * Advances the generator that picks evictions and seeds
+     * 
+     * @return The next pseudorandom number
+     */
+    private int nextRandom() {
+        this.seed ^= this.seed << 13;
+        this.seed ^= this.seed >>> 17;
+        this.seed ^= this.seed << 5;
+        return this.seed;
+    }
+
+    /**
+     * Puts an entry into a free slot of a bucket if there is one
+     *
+     * @param bucket
+     *            The bucket
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     * @return Whether or not the bucket had a free slot
+     */
+    private boolean placeInBucket(int bucket, Object key, Object value) {
+        int start = bucket * CuckooHashTable.SLOTS;
+        for (int i = start; i < start + CuckooHashTable.SLOTS; i++) {
+            if (this.keys[i] == null) {
+                this.keys[i] = key;
+                this.values[i] = value;
+                this.numElements++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the first bucket of a hash, using HashTable's Fibonacci hash
+     * compression
+     *
+     * @param hash
+     *            The hash of a key
+     * @return The first bucket of the key
+     */
+    protected int bucket1(int hash) {
+        return HashTable.compress(hash, this.numBuckets);
+    }
+
+    /**
+     * Returns the second bucket of a hash, compressing a copy of the hash
+     * remixed with the current seed
+     *
+     * @param hash
+     *            The hash of a key
+     * @return The second bucket of the key
+     */
+    protected int bucket2(int hash) {
+        int h = (hash ^ this.hashSeed) * 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return HashTable.compress(h, this.numBuckets);
+    }
+
+    /**
+     * Roughly doubles the number of buckets and re-places every entry
+     */
+    protected void resize() {
+        this.rehash(this.numBuckets * 2 + 1);
+    }
+
+    /**
+     * Picks a new seed for the second bucket of every key and re-places every
+     * entry into the given number of buckets
+     * 
+     * @param buckets
+     *            The minimum number of buckets
+     */
+    protected void rehash(int buckets) {
+        Object[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        Object[] oldStashKeys = this.stashKeys;
+        Object[] oldStashValues = this.stashValues;
+        int oldStashSize = this.stashSize;
+
+        this.hashSeed = this.nextRandom();
+        this.allocate(buckets);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                this.place(oldKeys[i], oldValues[i]);
+            }
+        }
+        for (int s = 0; s < oldStashSize; s++) {
+            this.place(oldStashKeys[s], oldStashValues[s]);
+        }
+    }
+
+    /**
+     * Gets the number of buckets in the hash table
+     *
+     * @return The number of buckets in the hash table
+     */
+    public int getHashTableLength() {
+        return this.numBuckets;
+    }
+
+    /**
+     * Gets the number of elements in the hash table
+     *
+     * @return The number of elements in the hash table
+     */
+    public int size() {
+        return this.numElements;
+    }
+
+    /**
+     * Gets the number of elements in the stash
+     *
+     * @return The number of elements in the stash
+     */
+    public int stashSize() {
+        return this.stashSize;
+    }
+}
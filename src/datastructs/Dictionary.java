@@ -40,4 +40,53 @@ public interface Dictionary<K, V> {
     V remove(K key);
     
     V update(K key, V value);
+
+    /**
+     * Inserts an entry for each key with the value at the same index
+     * 
+     * @param keys
+     *            The keys of the entries
+     * @param values
+     *            The values of the entries; must be as long as keys
+     */
+    default void insertAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            this.insert(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Looks up every key, storing the value associated with keys[i] in results[i]
+     * 
+     * @param keys
+     *            The keys to search for
+     * @param results
+     *            Receives the values; must be at least as long as keys
+     */
+    default void lookUpAll(K[] keys, V[] results) {
+        for (int i = 0; i < keys.length; i++) {
+            results[i] = this.lookUp(keys[i]);
+        }
+    }
+
+    /**
+     * Removes the entry with each key, storing the value removed for keys[i] in
+     * results[i]
+     * 
+     * @param keys
+     *            The keys of the entries to remove
+     * @param results
+     *            Receives the removed values, or null to discard them
+     */
+    default void removeAll(K[] keys, V[] results) {
+        for (int i = 0; i < keys.length; i++) {
+            V temp = this.remove(keys[i]);
+            if (results != null) {
+                results[i] = temp;
+            }
+        }
+    }
 }
@@ -0,0 +1,872 @@
+package datastructs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A B+ tree stored in a file of fixed-size pages. Keys and values are
+ * serialized by a Codec; every entry lives in a leaf, internal pages only hold
+ * separator keys, and each leaf links to the next one so that range() can scan
+ * the leaves in key order. Pages are read and written through a PageCache, so
+ * look ups within a working set that fits in the cache never touch the file.
+ *
+ * Opening an existing file only reads its header; pages are then read as they
+ * are needed. Modified pages and the header reach the file when they are
+ * evicted and on flush() or close(), and the tree must be closed for the file
+ * to be reopened in a consistent state.
+ *
+ * A page is slotted: a header, an array of cell offsets in key order growing
+ * from the front, and variable-size cells growing from the back. Page 0 holds
+ * the header of the file. All numbers are big-endian.
+ *
+ * <pre>
+ * file header:   [magic: int][version: int][page size: int][height: int]
+ *                [root page: long][number of pages: long][number of entries: long]
+ * page header:   [type: int][cell count: int][link: long][start of cells: int]
+ * leaf cell:     [key length: int][value length: int][key bytes][value bytes]
+ * internal cell: [key length: int][child page: long][key bytes]
+ * </pre>
+ *
+ * The link of a leaf is the next leaf, or -1; the link of an internal page is
+ * its leftmost child, and the child of each cell holds the keys from that cell
+ * up to the next. Keys are ordered by compareTo() after decoding, and
+ * inserting a key that is already present replaces its value. A remove takes
+ * the entry out of its leaf without merging pages; the space is reused by later
+ * inserts into the same range of keys.
+ *
+ * Since Dictionary methods cannot throw IOException, I/O errors during them
+ * are rethrown as UncheckedIOException.
+ *
+ * @author Neil Dey
+ * @param <K>
+ *            The generic type for keys. Keys must implement Comparable.
+ * @param <V>
+ *            The generic type for values
+ */
+public class DiskBPlusTree<K extends Comparable<K>, V> implements Dictionary<K, V>, Closeable {
+
+    /** Identifies a B+ tree file ("BPTR") **/
+    protected static final int MAGIC = 0x42505452;
+    /** The version of the file format **/
+    protected static final int VERSION = 1;
+    /** The size of the file header in bytes **/
+    protected static final int HEADER_SIZE = 40;
+    /** The page size of a new file created without one **/
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+    /** The smallest allowed page size **/
+    protected static final int MIN_PAGE_SIZE = 256;
+    /** The number of pages cached by a tree opened without a cache size **/
+    public static final int DEFAULT_CACHE_PAGES = 1024;
+    /** The smallest allowed cache, enough to pin the pages of a split **/
+    protected static final int MIN_CACHE_PAGES = 8;
+    /** The link of the last leaf **/
+    protected static final long NIL = -1;
+
+    /** The type of a leaf page **/
+    private static final int LEAF = 1;
+    /** The type of an internal page **/
+    private static final int INTERNAL = 2;
+    /** The offset of the type within a page **/
+    private static final int TYPE = 0;
+    /** The offset of the cell count within a page **/
+    private static final int COUNT = 4;
+    /** The offset of the link within a page **/
+    private static final int LINK = 8;
+    /** The offset of the start of the cells within a page **/
+    private static final int FREE = 16;
+    /** The offset of the cell offsets within a page **/
+    private static final int SLOTS = 20;
+    /** The size of a leaf cell before its key **/
+    private static final int LEAF_CELL = 8;
+    /** The size of an internal cell before its key **/
+    private static final int INTERNAL_CELL = 12;
+
+    /** Serializes keys **/
+    protected final Codec<K> keyCodec;
+    /** Serializes values **/
+    protected final Codec<V> valueCodec;
+    /** The file holding the tree **/
+    protected final FileChannel channel;
+    /** The pages of the file held in memory **/
+    protected PageCache cache;
+    /** The size of a page in bytes **/
+    protected int pageSize;
+    /** The largest cell a page accepts, so that a split always leaves room **/
+    protected int maxCell;
+    /** The page of the root **/
+    protected long root;
+    /** The number of levels of the tree **/
+    protected int height;
+    /** The number of pages in the file, including the header **/
+    protected long numPages;
+    /** The number of entries in the tree **/
+    protected long numElements;
+    /** The internal pages on the path of the last search, from the root down **/
+    private long[] pathPages;
+    /** The child taken in each page of the path **/
+    private int[] pathSlots;
+
+    /**
+     * Opens the B+ tree in the given file, creating it if the file is empty or
+     * does not exist
+     *
+     * @param file
+     *            The file holding the tree
+     * @param pageSize
+     *            The size of a page of a new file; an existing file keeps the
+     *            page size it was created with
+     * @param cachePages
+     *            The maximum number of pages held in memory
+     * @param keyCodec
+     *            Serializes keys; must match the codec the file was written with
+     * @param valueCodec
+     *            Serializes values; must match the codec the file was written
+     *            with
+     * @throws IOException
+     *             If the file cannot be opened or is not a B+ tree
+     */
+    public DiskBPlusTree(Path file, int pageSize, int cachePages, Codec<K> keyCodec, Codec<V> valueCodec)
+            throws IOException {
+        if (pageSize < DiskBPlusTree.MIN_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be at least " + DiskBPlusTree.MIN_PAGE_SIZE + ".");
+        }
+        if (cachePages < DiskBPlusTree.MIN_CACHE_PAGES) {
+            throw new IllegalArgumentException("Cache must hold at least " + DiskBPlusTree.MIN_CACHE_PAGES + " pages.");
+        }
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (this.channel.size() == 0) {
+                this.pageSize = pageSize;
+                this.root = 1;
+                this.height = 1;
+                this.numPages = 2;
+                this.cache = new PageCache(this.channel, this.pageSize, cachePages);
+                ByteBuffer b = this.cache.pinNew(this.root);
+                this.initPage(b, DiskBPlusTree.LEAF, DiskBPlusTree.NIL);
+                this.cache.unpin(this.root, true);
+                this.flush();
+            } else {
+                this.readHeader(file);
+                this.cache = new PageCache(this.channel, this.pageSize, cachePages);
+            }
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+        this.maxCell = (this.pageSize - DiskBPlusTree.SLOTS) / 4 - 4;
+        this.pathPages = new long[this.height + 8];
+        this.pathSlots = new int[this.height + 8];
+    }
+
+    /**
+     * Opens the B+ tree in the given file with the default page and cache sizes
+     *
+     * @param file
+     *            The file holding the tree
+     * @param keyCodec
+     *            Serializes keys
+     * @param valueCodec
+     *            Serializes values
+     * @throws IOException
+     *             If the file cannot be opened or is not a B+ tree
+     */
+    public DiskBPlusTree(Path file, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        this(file, DiskBPlusTree.DEFAULT_PAGE_SIZE, DiskBPlusTree.DEFAULT_CACHE_PAGES, keyCodec, valueCodec);
+    }
+
+    /**
+     * Reads the file header into the fields of the tree
+     *
+     * @param file
+     *            The file, for error messages
+     * @throws IOException
+     *             If the header cannot be read or is not a B+ tree header
+     */
+    private void readHeader(Path file) throws IOException {
+        ByteBuffer h = ByteBuffer.allocate(DiskBPlusTree.HEADER_SIZE);
+        while (h.hasRemaining() && this.channel.read(h, h.position()) >= 0) {
+            // Keep reading until the header is full or the file ends
+        }
+        if (h.position() < DiskBPlusTree.HEADER_SIZE || h.getInt(0) != DiskBPlusTree.MAGIC) {
+            throw new IOException("Not a B+ tree file: " + file);
+        }
+        if (h.getInt(4) != DiskBPlusTree.VERSION) {
+            throw new IOException("Unsupported B+ tree version " + h.getInt(4));
+        }
+        this.pageSize = h.getInt(8);
+        this.height = h.getInt(12);
+        this.root = h.getLong(16);
+        this.numPages = h.getLong(24);
+        this.numElements = h.getLong(32);
+    }
+
+    @Override
+    public V lookUp(K key) {
+        try {
+            long page = this.descend(key);
+            ByteBuffer b = this.cache.pin(page);
+            try {
+                int i = this.searchLeaf(b, key);
+                return i < 0 ? null : this.valueAt(b, i);
+            } finally {
+                this.cache.unpin(page, false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Inserts the given key/value pair, replacing the value if the key is
+     * already in the tree
+     *
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     */
+    @Override
+    public void insert(K key, V value) {
+        try {
+            this.put(key, value, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public V update(K key, V value) {
+        try {
+            return this.put(key, value, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        try {
+            long page = this.descend(key);
+            ByteBuffer b = this.cache.pin(page);
+            int i = this.searchLeaf(b, key);
+            if (i < 0) {
+                this.cache.unpin(page, false);
+                return null;
+            }
+            V temp = this.valueAt(b, i);
+            this.removeCell(b, i);
+            this.numElements--;
+            this.cache.unpin(page, true);
+            return temp;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stores the value of a key in its leaf, splitting pages as needed
+     *
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     * @param insert
+     *            Whether or not to add the key if it is not in the tree
+     * @return The old value of the key, or null if it was not in the tree
+     * @throws IOException
+     *             If a page cannot be read or written
+     */
+    private V put(K key, V value, boolean insert) throws IOException {
+        byte[] k = this.keyCodec.encode(key);
+        byte[] v = this.valueCodec.encode(value);
+        if (DiskBPlusTree.LEAF_CELL + k.length + v.length > this.maxCell) {
+            throw new IllegalArgumentException("Entry is too large for a page.");
+        }
+        byte[] cell = new byte[DiskBPlusTree.LEAF_CELL + k.length + v.length];
+        ByteBuffer c = ByteBuffer.wrap(cell);
+        c.putInt(k.length).putInt(v.length).put(k).put(v);
+
+        long page = this.descend(key);
+        ByteBuffer b = this.cache.pin(page);
+        int i = this.searchLeaf(b, key);
+        V temp = null;
+        if (i >= 0) {
+            temp = this.valueAt(b, i);
+            this.removeCell(b, i);
+        } else if (!insert) {
+            this.cache.unpin(page, false);
+            return null;
+        } else {
+            i = -i - 1;
+            this.numElements++;
+        }
+        if (this.insertCell(b, i, cell)) {
+            this.cache.unpin(page, true);
+            return temp;
+        }
+
+        // Move the upper half of the leaf into a new leaf after it
+        byte[][] cells = this.cellsWith(b, i, cell);
+        int m = DiskBPlusTree.splitPoint(cells);
+        long right = this.numPages++;
+        ByteBuffer r = this.cache.pinNew(right);
+        this.initPage(r, DiskBPlusTree.LEAF, b.getLong(DiskBPlusTree.LINK));
+        this.writeCells(r, cells, m, cells.length);
+        this.initPage(b, DiskBPlusTree.LEAF, right);
+        this.writeCells(b, cells, 0, m);
+        this.cache.unpin(right, true);
+        this.cache.unpin(page, true);
+        this.addSeparator(DiskBPlusTree.keyOf(cells[m], DiskBPlusTree.LEAF_CELL), right);
+        return temp;
+    }
+
+    /**
+     * Adds a separator for a new page to the parent of the page that was split,
+     * splitting internal pages on the way up and growing a new root if the root
+     * splits
+     *
+     * @param separator
+     *            The smallest key of the new page
+     * @param child
+     *            The new page, which goes right after the page that was split
+     * @throws IOException
+     *             If a page cannot be read or written
+     */
+    private void addSeparator(byte[] separator, long child) throws IOException {
+        for (int depth = this.height - 2; depth >= 0; depth--) {
+            long page = this.pathPages[depth];
+            int slot = this.pathSlots[depth];
+            byte[] cell = DiskBPlusTree.internalCell(separator, child);
+            ByteBuffer b = this.cache.pin(page);
+            if (this.insertCell(b, slot, cell)) {
+                this.cache.unpin(page, true);
+                return;
+            }
+
+            // Keep the lower half, move the upper half to a new page and the middle key up
+            byte[][] cells = this.cellsWith(b, slot, cell);
+            int m = DiskBPlusTree.splitPoint(cells);
+            long right = this.numPages++;
+            ByteBuffer r = this.cache.pinNew(right);
+            this.initPage(r, DiskBPlusTree.INTERNAL, ByteBuffer.wrap(cells[m]).getLong(4));
+            this.writeCells(r, cells, m + 1, cells.length);
+            this.initPage(b, DiskBPlusTree.INTERNAL, b.getLong(DiskBPlusTree.LINK));
+            this.writeCells(b, cells, 0, m);
+            this.cache.unpin(right, true);
+            this.cache.unpin(page, true);
+            separator = DiskBPlusTree.keyOf(cells[m], DiskBPlusTree.INTERNAL_CELL);
+            child = right;
+        }
+
+        long newRoot = this.numPages++;
+        ByteBuffer b = this.cache.pinNew(newRoot);
+        this.initPage(b, DiskBPlusTree.INTERNAL, this.root);
+        this.insertCell(b, 0, DiskBPlusTree.internalCell(separator, child));
+        this.cache.unpin(newRoot, true);
+        this.root = newRoot;
+        this.height++;
+        if (this.height > this.pathPages.length) {
+            this.pathPages = Arrays.copyOf(this.pathPages, this.height * 2);
+            this.pathSlots = Arrays.copyOf(this.pathSlots, this.height * 2);
+        }
+    }
+
+    /**
+     * Walks from the root to the leaf where the given key belongs, recording the
+     * internal pages and the children taken in the path buffer. Only one page is
+     * pinned at a time.
+     *
+     * @param key
+     *            The key to search for
+     * @return The leaf page
+     * @throws IOException
+     *             If a page cannot be read
+     */
+    private long descend(K key) throws IOException {
+        long page = this.root;
+        for (int depth = 0; depth < this.height - 1; depth++) {
+            ByteBuffer b = this.cache.pin(page);
+            int c = this.searchInternal(b, key);
+            long child = c == 0 ? b.getLong(DiskBPlusTree.LINK) : b.getLong(DiskBPlusTree.slot(b, c - 1) + 4);
+            this.cache.unpin(page, false);
+            this.pathPages[depth] = page;
+            this.pathSlots[depth] = c;
+            page = child;
+        }
+        return page;
+    }
+
+    /**
+     * Binary searches the keys of a leaf
+     *
+     * @param b
+     *            The leaf
+     * @param key
+     *            The key to search for
+     * @return The index of the key, or -(i + 1) where i is the index at which it
+     *         belongs
+     */
+    private int searchLeaf(ByteBuffer b, K key) {
+        int lo = 0;
+        int hi = b.getInt(DiskBPlusTree.COUNT) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = this.keyAt(b, mid, DiskBPlusTree.LEAF_CELL).compareTo(key);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -lo - 1;
+    }
+
+    /**
+     * Binary searches the separators of an internal page
+     *
+     * @param b
+     *            The internal page
+     * @param key
+     *            The key to search for
+     * @return The child whose keys include the key: the number of separators
+     *         that are not greater than it
+     */
+    private int searchInternal(ByteBuffer b, K key) {
+        int lo = 0;
+        int hi = b.getInt(DiskBPlusTree.COUNT);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.keyAt(b, mid, DiskBPlusTree.INTERNAL_CELL).compareTo(key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Decodes the key of a cell
+     *
+     * @param b
+     *            The page
+     * @param i
+     *            The index of the cell
+     * @param header
+     *            The size of the cell before its key
+     * @return The key of the cell
+     */
+    private K keyAt(ByteBuffer b, int i, int header) {
+        int offset = DiskBPlusTree.slot(b, i);
+        byte[] k = new byte[b.getInt(offset)];
+        b.get(offset + header, k);
+        return this.keyCodec.decode(k);
+    }
+
+    /**
+     * Decodes the value of a leaf cell
+     *
+     * @param b
+     *            The leaf
+     * @param i
+     *            The index of the cell
+     * @return The value of the cell
+     */
+    private V valueAt(ByteBuffer b, int i) {
+        int offset = DiskBPlusTree.slot(b, i);
+        byte[] v = new byte[b.getInt(offset + 4)];
+        b.get(offset + DiskBPlusTree.LEAF_CELL + b.getInt(offset), v);
+        return this.valueCodec.decode(v);
+    }
+
+    /**
+     * Empties a page
+     *
+     * @param b
+     *            The page
+     * @param type
+     *            LEAF or INTERNAL
+     * @param link
+     *            The next leaf of a leaf, or the leftmost child of an internal
+     *            page
+     */
+    private void initPage(ByteBuffer b, int type, long link) {
+        b.putInt(DiskBPlusTree.TYPE, type);
+        b.putInt(DiskBPlusTree.COUNT, 0);
+        b.putLong(DiskBPlusTree.LINK, link);
+        b.putInt(DiskBPlusTree.FREE, this.pageSize);
+    }
+
+    /**
+     * Inserts a cell into a page, compacting the page first if that makes room
+     *
+     * @param b
+     *            The page
+     * @param i
+     *            The index of the new cell
+     * @param cell
+     *            The cell
+     * @return Whether or not the cell fit
+     */
+    private boolean insertCell(ByteBuffer b, int i, byte[] cell) {
+        if (DiskBPlusTree.freeSpace(b) < cell.length + 4) {
+            byte[][] cells = this.cellsWith(b, -1, null);
+            this.initPage(b, b.getInt(DiskBPlusTree.TYPE), b.getLong(DiskBPlusTree.LINK));
+            this.writeCells(b, cells, 0, cells.length);
+            if (DiskBPlusTree.freeSpace(b) < cell.length + 4) {
+                return false;
+            }
+        }
+        int count = b.getInt(DiskBPlusTree.COUNT);
+        int offset = b.getInt(DiskBPlusTree.FREE) - cell.length;
+        b.put(offset, cell);
+        for (int j = count; j > i; j--) {
+            b.putInt(DiskBPlusTree.SLOTS + 4 * j, DiskBPlusTree.slot(b, j - 1));
+        }
+        b.putInt(DiskBPlusTree.SLOTS + 4 * i, offset);
+        b.putInt(DiskBPlusTree.COUNT, count + 1);
+        b.putInt(DiskBPlusTree.FREE, offset);
+        return true;
+    }
+
+    /**
+     * Removes a cell from a page. Its bytes stay behind until the page is
+     * compacted.
+     *
+     * @param b
+     *            The page
+     * @param i
+     *            The index of the cell
+     */
+    private void removeCell(ByteBuffer b, int i) {
+        int count = b.getInt(DiskBPlusTree.COUNT) - 1;
+        for (int j = i; j < count; j++) {
+            b.putInt(DiskBPlusTree.SLOTS + 4 * j, DiskBPlusTree.slot(b, j + 1));
+        }
+        b.putInt(DiskBPlusTree.COUNT, count);
+    }
+
+    /**
+     * Appends cells to a page, which must have room for them
+     *
+     * @param b
+     *            The page
+     * @param cells
+     *            The cells
+     * @param from
+     *            The index of the first cell to append
+     * @param to
+     *            The index after the last cell to append
+     */
+    private void writeCells(ByteBuffer b, byte[][] cells, int from, int to) {
+        int count = b.getInt(DiskBPlusTree.COUNT);
+        int offset = b.getInt(DiskBPlusTree.FREE);
+        for (int i = from; i < to; i++) {
+            offset -= cells[i].length;
+            b.put(offset, cells[i]);
+            b.putInt(DiskBPlusTree.SLOTS + 4 * count++, offset);
+        }
+        b.putInt(DiskBPlusTree.COUNT, count);
+        b.putInt(DiskBPlusTree.FREE, offset);
+    }
+
+    /**
+     * Copies the cells of a page, with an extra cell inserted
+     *
+     * @param b
+     *            The page
+     * @param i
+     *            The index of the extra cell, or -1 for none
+     * @param cell
+     *            The extra cell
+     * @return The cells in order
+     */
+    private byte[][] cellsWith(ByteBuffer b, int i, byte[] cell) {
+        int count = b.getInt(DiskBPlusTree.COUNT);
+        boolean leaf = b.getInt(DiskBPlusTree.TYPE) == DiskBPlusTree.LEAF;
+        byte[][] cells = new byte[i < 0 ? count : count + 1][];
+        int c = 0;
+        for (int j = 0; j < count; j++) {
+            if (j == i) {
+                cells[c++] = cell;
+            }
+            int offset = DiskBPlusTree.slot(b, j);
+            int size = leaf ? DiskBPlusTree.LEAF_CELL + b.getInt(offset) + b.getInt(offset + 4)
+                    : DiskBPlusTree.INTERNAL_CELL + b.getInt(offset);
+            cells[c] = new byte[size];
+            b.get(offset, cells[c++]);
+        }
+        if (i == count) {
+            cells[c] = cell;
+        }
+        return cells;
+    }
+
+    /**
+     * Picks where to split an overfull page so that both halves hold about the
+     * same number of bytes
+     *
+     * @param cells
+     *            The cells of the page
+     * @return The index of the first cell of the upper half; at least 1 and less
+     *         than the number of cells
+     */
+    private static int splitPoint(byte[][] cells) {
+        long total = 0;
+        for (byte[] cell : cells) {
+            total += cell.length + 4;
+        }
+        long lower = 0;
+        int m = 0;
+        while (m < cells.length - 1 && 2 * lower < total) {
+            lower += cells[m++].length + 4;
+        }
+        return Math.max(1, Math.min(m, cells.length - 1));
+    }
+
+    /**
+     * Builds an internal cell
+     *
+     * @param key
+     *            The separator key
+     * @param child
+     *            The page holding the keys from the separator on
+     * @return The cell
+     */
+    private static byte[] internalCell(byte[] key, long child) {
+        byte[] cell = new byte[DiskBPlusTree.INTERNAL_CELL + key.length];
+        ByteBuffer.wrap(cell).putInt(key.length).putLong(child).put(key);
+        return cell;
+    }
+
+    /**
+     * Copies the key bytes out of a cell
+     *
+     * @param cell
+     *            The cell
+     * @param header
+     *            The size of the cell before its key
+     * @return The key bytes
+     */
+    private static byte[] keyOf(byte[] cell, int header) {
+        int length = ByteBuffer.wrap(cell).getInt(0);
+        return Arrays.copyOfRange(cell, header, header + length);
+    }
+
+    /**
+     * Gets the offset of a cell within its page
+     *
+     * @param b
+     *            The page
+     * @param i
+     *            The index of the cell
+     * @return The offset of the cell
+     */
+    private static int slot(ByteBuffer b, int i) {
+        return b.getInt(DiskBPlusTree.SLOTS + 4 * i);
+    }
+
+    /**
+     * Gets the number of bytes between the cell offsets and the cells of a page
+     *
+     * @param b
+     *            The page
+     * @return The free space of the page in bytes
+     */
+    private static int freeSpace(ByteBuffer b) {
+        return b.getInt(DiskBPlusTree.FREE) - DiskBPlusTree.SLOTS - 4 * b.getInt(DiskBPlusTree.COUNT);
+    }
+
+    /**
+     * Returns an iterator over the entries with keys from the first key,
+     * inclusive, to the second, exclusive, in ascending order. Finding the first
+     * entry searches the tree once; every further entry comes from following the
+     * leaf links. The tree must not be modified while the iterator is in use.
+     *
+     * @param from
+     *            The smallest key to include
+     * @param to
+     *            The key at which to stop
+     * @return An iterator over the entries in the range
+     */
+    public Iterator<DiskBPlusTree<K, V>.Entry> range(K from, K to) {
+        final long first;
+        final int index;
+        try {
+            first = this.descend(from);
+            ByteBuffer b = this.cache.pin(first);
+            int i = this.searchLeaf(b, from);
+            index = i < 0 ? -i - 1 : i;
+            this.cache.unpin(first, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Iterator<DiskBPlusTree<K, V>.Entry>() {
+            /** The leaf of the next entry, or NIL once the range is done **/
+            private long page = first;
+            /** The index of the next entry in its leaf **/
+            private int i = index;
+            /** The next entry, or null if it has not been read yet **/
+            private Entry next = null;
+
+            @Override
+            public boolean hasNext() {
+                if (this.next == null && this.page != DiskBPlusTree.NIL) {
+                    try {
+                        this.next = this.advance();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return this.next != null;
+            }
+
+            @Override
+            public Entry next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry e = this.next;
+                this.next = null;
+                return e;
+            }
+
+            /**
+             * Reads the next entry, following leaf links past the ends of leaves
+             *
+             * @return The next entry, or null if the range is done
+             * @throws IOException
+             *             If a leaf cannot be read
+             */
+            private Entry advance() throws IOException {
+                DiskBPlusTree<K, V> t = DiskBPlusTree.this;
+                while (this.page != DiskBPlusTree.NIL) {
+                    long leaf = this.page;
+                    ByteBuffer b = t.cache.pin(leaf);
+                    try {
+                        if (this.i < b.getInt(DiskBPlusTree.COUNT)) {
+                            K key = t.keyAt(b, this.i, DiskBPlusTree.LEAF_CELL);
+                            if (key.compareTo(to) >= 0) {
+                                this.page = DiskBPlusTree.NIL;
+                                return null;
+                            }
+                            return new Entry(key, t.valueAt(b, this.i++));
+                        }
+                        this.i = 0;
+                        this.page = b.getLong(DiskBPlusTree.LINK);
+                    } finally {
+                        t.cache.unpin(leaf, false);
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Writes the header and every modified page to the file, and forces the
+     * file to the disk
+     *
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    public void flush() throws IOException {
+        ByteBuffer h = this.cache.pinNew(0);
+        h.putInt(0, DiskBPlusTree.MAGIC);
+        h.putInt(4, DiskBPlusTree.VERSION);
+        h.putInt(8, this.pageSize);
+        h.putInt(12, this.height);
+        h.putLong(16, this.root);
+        h.putLong(24, this.numPages);
+        h.putLong(32, this.numElements);
+        this.cache.unpin(0, true);
+        this.cache.flush();
+        this.channel.force(false);
+    }
+
+    /**
+     * Flushes the tree and closes its file
+     *
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Gets the cache of pages held in memory
+     *
+     * @return The page cache
+     */
+    public PageCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Gets the number of levels of the tree
+     *
+     * @return The number of levels; 1 if the root is a leaf
+     */
+    public int height() {
+        return this.height;
+    }
+
+    /**
+     * Gets the number of entries in the tree
+     *
+     * @return The number of entries in the tree
+     */
+    public long size() {
+        return this.numElements;
+    }
+
+    /**
+     * An entry of the tree
+     *
+     * @author Neil Dey
+     *
+     */
+    public class Entry {
+        /** The key of the entry **/
+        public final K key;
+        /** The value of the entry **/
+        public final V value;
+
+        /**
+         * Creates a new Entry with the given key and value
+         *
+         * @param key
+         *            The key of the entry
+         * @param value
+         *            The value of the entry
+         */
+        public Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + this.key.toString() + ", " + this.value.toString() + ")";
+        }
+    }
+}
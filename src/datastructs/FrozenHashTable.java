@@ -0,0 +1,285 @@
+package datastructs;
+
+import java.io.Serializable;
+
+/**
+ * An immutable dictionary built from a HashTable by HashTable.freeze(). The
+ * keys are placed with a minimal perfect hash in the style of CHD
+ * (hash-and-displace): keys are grouped into buckets of about BUCKET_SIZE keys,
+ * and each bucket stores one displacement that sends all of its keys to
+ * distinct slots of a table with exactly one slot per key. A look up reads the
+ * displacement of its bucket and compares the key in a single slot.
+ *
+ * Keys and values are kept in two flat arrays, so beyond the data itself the
+ * dictionary only needs one int per bucket. Keys whose hashCode() equals that
+ * of another key in their bucket cannot be told apart by any displacement;
+ * they are kept in a small overflow array that is only searched on a miss.
+ *
+ * The dictionary is Serializable if its keys and values are. Since slots are
+ * derived from hashCode(), a dictionary can only be used in another process if
+ * its keys have a hashCode() that is the same in every process (such as String
+ * or Integer).
+ *
+ * @author Neil Dey
+ *
+ * @param <K>
+ *            The generic type for keys
+ * @param <V>
+ *            The generic type for values
+ */
+public class FrozenHashTable<K, V> implements Dictionary<K, V>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The average number of keys in a bucket **/
+    protected static final int BUCKET_SIZE = 4;
+    /** The number of displacements tried for a bucket before it overflows **/
+    protected static final int MAX_DISPLACEMENT = 1 << 16;
+
+    /** The key in each slot **/
+    protected final Object[] keys;
+    /** The value in each slot **/
+    protected final Object[] values;
+    /**
+     * The displacement of each bucket; a negative displacement -(s + 1) places
+     * the only key of its bucket directly in slot s
+     **/
+    protected final int[] displacements;
+    /** The keys that could not be placed in a slot **/
+    protected final Object[] overflowKeys;
+    /** The values of the overflowing keys **/
+    protected final Object[] overflowValues;
+    /** The number of elements in the dictionary **/
+    protected final int numElements;
+
+    /**
+     * Builds a dictionary of the given entries
+     *
+     * @param entryKeys
+     *            The keys of the entries; must be distinct
+     * @param entryValues
+     *            The values of the entries
+     */
+    FrozenHashTable(Object[] entryKeys, Object[] entryValues) {
+        int n = entryKeys.length;
+        this.numElements = n;
+        int numBuckets = Math.max(1, (n + FrozenHashTable.BUCKET_SIZE - 1) / FrozenHashTable.BUCKET_SIZE);
+        this.keys = new Object[Math.max(1, n)];
+        this.values = new Object[Math.max(1, n)];
+        this.displacements = new int[numBuckets];
+
+        // Group the entries by bucket with a counting sort
+        int[] hashes = new int[n];
+        int[] start = new int[numBuckets + 1];
+        for (int i = 0; i < n; i++) {
+            hashes[i] = entryKeys[i].hashCode();
+            start[HashTable.compress(hashes[i], numBuckets) + 1]++;
+        }
+        int largest = 0;
+        for (int b = 0; b < numBuckets; b++) {
+            largest = Math.max(largest, start[b + 1]);
+            start[b + 1] += start[b];
+        }
+        int[] members = new int[n];
+        int[] fill = new int[numBuckets];
+        for (int i = 0; i < n; i++) {
+            int b = HashTable.compress(hashes[i], numBuckets);
+            members[start[b] + fill[b]++] = i;
+        }
+
+        // Place the largest buckets first, while the table is still mostly empty
+        int[] bySize = new int[largest + 2];
+        for (int b = 0; b < numBuckets; b++) {
+            bySize[largest - (start[b + 1] - start[b]) + 1]++;
+        }
+        for (int s = 0; s <= largest; s++) {
+            bySize[s + 1] += bySize[s];
+        }
+        int[] order = new int[numBuckets];
+        for (int b = 0; b < numBuckets; b++) {
+            order[bySize[largest - (start[b + 1] - start[b])]++] = b;
+        }
+
+        boolean[] taken = new boolean[this.keys.length];
+        int[] slots = new int[largest];
+        int[] overflow = new int[n];
+        int numOverflow = 0;
+        int nextFree = 0;
+        for (int b : order) {
+            int size = start[b + 1] - start[b];
+            if (size == 0) {
+                break;
+            }
+            if (size == 1) {
+                while (taken[nextFree]) {
+                    nextFree++;
+                }
+                int i = members[start[b]];
+                taken[nextFree] = true;
+                this.keys[nextFree] = entryKeys[i];
+                this.values[nextFree] = entryValues[i];
+                this.displacements[b] = -nextFree - 1;
+                continue;
+            }
+
+            // Keys with the same hash as another key of the bucket always collide
+            int placeable = 0;
+            outer: for (int m = start[b]; m < start[b + 1]; m++) {
+                for (int p = start[b]; p < start[b] + placeable; p++) {
+                    if (hashes[members[p]] == hashes[members[m]]) {
+                        overflow[numOverflow++] = members[m];
+                        continue outer;
+                    }
+                }
+                members[start[b] + placeable++] = members[m];
+            }
+
+            int d = this.displace(members, start[b], placeable, hashes, taken, slots);
+            if (d < 0) {
+                for (int m = start[b]; m < start[b] + placeable; m++) {
+                    overflow[numOverflow++] = members[m];
+                }
+                continue;
+            }
+            this.displacements[b] = d;
+            for (int m = 0; m < placeable; m++) {
+                int i = members[start[b] + m];
+                this.keys[slots[m]] = entryKeys[i];
+                this.values[slots[m]] = entryValues[i];
+            }
+        }
+
+        this.overflowKeys = new Object[numOverflow];
+        this.overflowValues = new Object[numOverflow];
+        for (int o = 0; o < numOverflow; o++) {
+            this.overflowKeys[o] = entryKeys[overflow[o]];
+            this.overflowValues[o] = entryValues[overflow[o]];
+        }
+    }
+
+    /**
+     * Finds a displacement that sends every key of a bucket to a distinct free
+     * slot, and marks those slots taken
+     *
+     * @param members
+     *            The entries grouped by bucket
+     * @param from
+     *            The index of the bucket's first entry in members
+     * @param size
+     *            The number of entries in the bucket
+     * @param hashes
+     *            The hash of every entry
+     * @param taken
+     *            Which slots are in use
+     * @param slots
+     *            Receives the slot of each entry of the bucket
+     * @return The displacement, or -1 if none was found
+     */
+    private int displace(int[] members, int from, int size, int[] hashes, boolean[] taken, int[] slots) {
+        outer: for (int d = 0; d < FrozenHashTable.MAX_DISPLACEMENT; d++) {
+            for (int m = 0; m < size; m++) {
+                slots[m] = FrozenHashTable.slot(hashes[members[from + m]], d, taken.length);
+                if (taken[slots[m]]) {
+                    for (int u = 0; u < m; u++) {
+                        taken[slots[u]] = false;
+                    }
+                    continue outer;
+                }
+                taken[slots[m]] = true;
+            }
+            return d;
+        }
+        return -1;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V lookUp(K key) {
+        int hash = key.hashCode();
+        int d = this.displacements[HashTable.compress(hash, this.displacements.length)];
+        int slot = d < 0 ? -d - 1 : FrozenHashTable.slot(hash, d, this.keys.length);
+        if (key.equals(this.keys[slot])) {
+            return (V) this.values[slot];
+        }
+        for (int o = 0; o < this.overflowKeys.length; o++) {
+            if (key.equals(this.overflowKeys[o])) {
+                return (V) this.overflowValues[o];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Frozen hash tables are read-only
+     *
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     */
+    @Override
+    public void insert(K key, V value) {
+        throw new UnsupportedOperationException("Frozen hash tables are read-only.");
+    }
+
+    /**
+     * Frozen hash tables are read-only
+     *
+     * @param key
+     *            The key of the entry to remove
+     */
+    @Override
+    public V remove(K key) {
+        throw new UnsupportedOperationException("Frozen hash tables are read-only.");
+    }
+
+    /**
+     * Frozen hash tables are read-only
+     *
+     * @param key
+     *            The key of the entry to update
+     * @param value
+     *            The new value of the entry
+     */
+    @Override
+    public V update(K key, V value) {
+        throw new UnsupportedOperationException("Frozen hash tables are read-only.");
+    }
+
+    /**
+     * Maps a hash to a slot under the given displacement
+     *
+     * @param hash
+     *            The hash of a key
+     * @param displacement
+     *            The displacement of the key's bucket
+     * @param length
+     *            The number of slots
+     * @return The slot of the key
+     */
+    static int slot(int hash, int displacement, int length) {
+        int h = (hash ^ displacement * 0x85EBCA6B) * 0x9E3779B9;
+        h ^= h >>> 15;
+        h *= 0x2C1B3C6D;
+        h ^= h >>> 12;
+        return (int) (((h & 0xFFFFFFFFL) * length) >>> 32);
+    }
+
+    /**
+     * Gets the number of keys that did not get a slot of their own
+     *
+     * @return The number of overflowing keys
+     */
+    public int overflowSize() {
+        return this.overflowKeys.length;
+    }
+
+    /**
+     * Gets the number of elements in the dictionary
+     *
+     * @return The number of elements in the dictionary
+     */
+    public int size() {
+        return this.numElements;
+    }
+}
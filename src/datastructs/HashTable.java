@@ -1,6 +1,16 @@
 package datastructs;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A hash table that uses separate chaining and Fibonnaci hash compression
@@ -17,6 +27,8 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
 
     /** The load factor at which the hash table resizes **/
     protected static final double RESIZE_THRESHOLD = 1.00;
+    /** The load factor below which the hash table shrinks, if automatic shrinking is on **/
+    protected static final double SHRINK_THRESHOLD = 0.25;
     /** The initial capacity of the hash table **/
     protected static final int INIT_CAP = 19;
     /** The inverse of the golden ratio **/
@@ -24,6 +36,15 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
 
     /** Determines whether or not to calculate primes **/
     protected static final boolean NEED_PRIMES = false;
+    /** The number of old buckets migrated per operation during an incremental resize **/
+    protected static final int MIGRATION_STEP = 2;
+
+    /** The estimated size of a reference, assuming compressed references **/
+    protected static final int REFERENCE_BYTES = 4;
+    /** The estimated size of an array header **/
+    protected static final int ARRAY_HEADER_BYTES = 16;
+    /** The estimated size of a Node: a 12 byte header and five references, padded to 8 bytes **/
+    protected static final int NODE_BYTES = 32;
 
     /** The list of chains in the hash table **/
     protected Node[] table;
@@ -36,14 +57,44 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
     /** The tail of the iterable linked list of nodes **/
     protected Node tail;
 
+    /** Whether or not resizes migrate buckets a few at a time **/
+    protected final boolean incremental;
+    /** The chains still being migrated by an incremental resize; null otherwise **/
+    protected Node[] oldTable;
+    /** The capacity of the old table **/
+    protected int oldCapacity;
+    /** The number of buckets of the old table that have been migrated **/
+    protected int migrated;
+
+    /** The capacity the hash table was created with; automatic shrinking stops here **/
+    protected final int minCapacity;
+    /** Whether or not the hash table shrinks once it falls below SHRINK_THRESHOLD **/
+    protected boolean autoShrink;
+
+    /** Whether or not statistics are being collected **/
+    protected boolean statsEnabled;
+    /** The number of key searches made while statistics were enabled **/
+    protected long searches;
+    /** The number of nodes compared by those searches **/
+    protected long probes;
+    /** The number of resizes made while statistics were enabled **/
+    protected long resizes;
+    /** The time spent in those resizes, in nanoseconds **/
+    protected long resizeNanos;
+
     /**
-     * Creates a new hash table with the given capacity
+     * Creates a new hash table with the given capacity. If incremental is true,
+     * a resize does not rehash every node at once; instead the old buckets are
+     * kept and a few of them are migrated on every operation until none are left,
+     * which keeps the cost of any single insert bounded.
      * 
      * @param capacity
      *            The capacity of the hash table
+     * @param incremental
+     *            Whether or not to resize incrementally
      */
     @SuppressWarnings("unchecked")
-    public HashTable(int capacity) {
+    public HashTable(int capacity, boolean incremental) {
         if (capacity < 1) {
             throw new IllegalArgumentException("Capacity must be positive.");
         }
@@ -61,7 +112,19 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
         this.head.fullNext = this.tail;
         this.tail.fullPrev = this.head;
         this.numElements = 0;
+        this.incremental = incremental;
+        this.minCapacity = capacity;
+        this.autoShrink = false;
+    }
 
+    /**
+     * Creates a new hash table with the given capacity
+     * 
+     * @param capacity
+     *            The capacity of the hash table
+     */
+    public HashTable(int capacity) {
+        this(capacity, false);
     }
 
     /**
@@ -73,12 +136,70 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
 
     @Override
     public void insert(K key, V value) {
+        if (this.oldTable != null) {
+            this.migrate(HashTable.MIGRATION_STEP);
+        }
         if (this.numElements / this.capacity >= HashTable.RESIZE_THRESHOLD) {
-            this.resize();
+            if (this.statsEnabled) {
+                long start = System.nanoTime();
+                this.resize();
+                this.resizes++;
+                this.resizeNanos += System.nanoTime() - start;
+            } else {
+                this.resize();
+            }
+        }
+        this.link(key, value);
+    }
+
+    /**
+     * Inserts every entry after growing the table once to fit the whole batch,
+     * instead of checking the resize threshold on every insert
+     * 
+     * @param keys
+     *            The keys of the entries
+     * @param values
+     *            The values of the entries; must be as long as keys
+     */
+    @Override
+    public void insertAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+        if (this.oldTable != null) {
+            this.migrate(this.oldCapacity);
+        }
+        int newCapacity = this.capacity;
+        while ((this.numElements + keys.length) / newCapacity >= HashTable.RESIZE_THRESHOLD) {
+            newCapacity = newCapacity * 2 + 1;
+        }
+        if (newCapacity != this.capacity) {
+            if (this.statsEnabled) {
+                long start = System.nanoTime();
+                this.rehash(newCapacity);
+                this.resizes++;
+                this.resizeNanos += System.nanoTime() - start;
+            } else {
+                this.rehash(newCapacity);
+            }
         }
+        for (int i = 0; i < keys.length; i++) {
+            this.link(keys[i], values[i]);
+        }
+    }
 
+    /**
+     * Adds a new node to the front of its chain and of the overall linked list
+     * without checking the load factor
+     * 
+     * @param key
+     *            The key of the node
+     * @param value
+     *            The value of the node
+     */
+    private void link(K key, V value) {
         int index = this.compress(key.hashCode());
-        Node n = new Node(key, value);
+        Node n = this.newNode(key, value);
         n.next = this.table[index];
 
         n.fullNext = this.head.fullNext;
@@ -90,42 +211,123 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
         this.numElements++;
     }
 
+    /**
+     * Creates the node that holds a new entry. Subclasses may override this to
+     * keep extra state on each node.
+     * 
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     * @return The new node
+     */
+    protected Node newNode(K key, V value) {
+        return new Node(key, value);
+    }
+
     @Override
     public V lookUp(K key) {
-        int index = this.compress(key.hashCode());
-        Node n = this.table[index];
-        while (n != null) {
-            if (n.key.equals(key)) {
-                return n.value;
-            }
-            n = n.next;
+        if (this.oldTable != null) {
+            this.migrate(HashTable.MIGRATION_STEP);
+        }
+        Node n = this.getNode(key);
+        if (n == null) {
+            return null;
+        }
+        return n.value;
+    }
+
+    @Override
+    public void lookUpAll(K[] keys, V[] results) {
+        if (this.oldTable != null) {
+            this.migrate(HashTable.MIGRATION_STEP);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            Node n = this.getNode(keys[i]);
+            results[i] = n == null ? null : n.value;
         }
-        return null;
     }
 
     @Override
     public V remove(K key) {
-        int index = this.compress(key.hashCode());
-        Node n = this.table[index];
+        if (this.oldTable != null) {
+            this.migrate(HashTable.MIGRATION_STEP);
+        }
+        V temp = this.removeNode(key);
+        this.shrinkIfSparse();
+        return temp;
+    }
+
+    @Override
+    public void removeAll(K[] keys, V[] results) {
+        if (this.oldTable != null) {
+            this.migrate(HashTable.MIGRATION_STEP);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            V temp = this.removeNode(keys[i]);
+            if (results != null) {
+                results[i] = temp;
+            }
+        }
+        this.shrinkIfSparse();
+    }
+
+    /**
+     * Removes the first node with the given key, consulting the old table if an
+     * incremental resize is in progress
+     * 
+     * @param key
+     *            The key of the node to remove
+     * @return The value of the removed node, or null if the key is not in the table
+     */
+    private V removeNode(K key) {
+        int hash = key.hashCode();
+        Node n = this.removeFromChain(this.table, this.compress(hash), key);
+        if (n == null && this.oldTable != null) {
+            int index = HashTable.compress(hash, this.oldCapacity);
+            if (index >= this.migrated) {
+                n = this.removeFromChain(this.oldTable, index, key);
+            }
+        }
+        if (n == null) {
+            return null;
+        }
+        return n.value;
+    }
+
+    /**
+     * Unlinks the first node with the given key from a chain and from the overall
+     * linked list
+     * 
+     * @param table
+     *            The table holding the chain
+     * @param index
+     *            The index of the chain in the table
+     * @param key
+     *            The key of the node to remove
+     * @return The removed node, or null if the chain does not hold the key
+     */
+    private Node removeFromChain(Node[] table, int index, K key) {
+        Node n = table[index];
         if (n == null) {
             return null;
         }
         if (n.key.equals(key)) {
-            this.table[index] = n.next;
+            table[index] = n.next;
 
             n.fullNext.fullPrev = n.fullPrev;
             n.fullPrev.fullNext = n.fullNext;
 
             this.numElements--;
-            return n.value;
+            return n;
         }
         while (n.next != null) {
             if (n.next.key.equals(key)) {
-                V temp = n.next.value;
-                n.next = n.next.next;
+                Node temp = n.next;
+                n.next = temp.next;
 
-                n.fullNext.fullPrev = n.fullPrev;
-                n.fullPrev.fullNext = n.fullNext;
+                temp.fullNext.fullPrev = temp.fullPrev;
+                temp.fullPrev.fullNext = temp.fullNext;
 
                 this.numElements--;
                 return temp;
@@ -137,16 +339,86 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
 
     @Override
     public V update(K key, V value) {
-        int index = this.compress(key.hashCode());
-        Node n = this.table[index];
+        if (this.oldTable != null) {
+            this.migrate(HashTable.MIGRATION_STEP);
+        }
+        Node n = this.getNode(key);
+        if (n == null) {
+            return null;
+        }
+        V temp = n.value;
+        n.value = value;
+        return temp;
+    }
+
+    /**
+     * Returns the first node with the given key, consulting the old table if an
+     * incremental resize is in progress
+     * 
+     * @param key
+     *            The key to search for
+     * @return The node with the given key, or null if the key is not in the table
+     */
+    protected Node getNode(K key) {
+        if (this.statsEnabled) {
+            return this.getNodeCounted(key);
+        }
+        int hash = key.hashCode();
+        Node n = this.table[this.compress(hash)];
         while (n != null) {
             if (n.key.equals(key)) {
-                V temp = n.value;
-                n.value = value;
-                return temp;
+                return n;
+            }
+            n = n.next;
+        }
+        if (this.oldTable != null) {
+            int index = HashTable.compress(hash, this.oldCapacity);
+            if (index >= this.migrated) {
+                n = this.oldTable[index];
+                while (n != null) {
+                    if (n.key.equals(key)) {
+                        return n;
+                    }
+                    n = n.next;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The same search as getNode(), but counting the search and every node it
+     * compares. It is kept separate so that getNode() pays nothing for statistics
+     * while they are disabled.
+     * 
+     * @param key
+     *            The key to search for
+     * @return The node with the given key, or null if the key is not in the table
+     */
+    private Node getNodeCounted(K key) {
+        this.searches++;
+        int hash = key.hashCode();
+        Node n = this.table[this.compress(hash)];
+        while (n != null) {
+            this.probes++;
+            if (n.key.equals(key)) {
+                return n;
             }
             n = n.next;
         }
+        if (this.oldTable != null) {
+            int index = HashTable.compress(hash, this.oldCapacity);
+            if (index >= this.migrated) {
+                n = this.oldTable[index];
+                while (n != null) {
+                    this.probes++;
+                    if (n.key.equals(key)) {
+                        return n;
+                    }
+                    n = n.next;
+                }
+            }
+        }
         return null;
     }
 
@@ -159,16 +431,34 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
      * @return The compressed hash
      */
     protected int compress(int hash) {
+        return HashTable.compress(hash, this.capacity);
+    }
+
+    /**
+     * Compresses a hash into the given capacity using Fibonnaci hash compression
+     * 
+     * @param hash
+     *            The hash to compress
+     * @param capacity
+     *            The capacity to compress into
+     * @return The compressed hash
+     */
+    protected static int compress(int hash, int capacity) {
         double temp = hash * HashTable.INV_PHI;
         temp = temp - (int) temp;
-        return (int) Math.abs(this.capacity * temp);
+        return (int) Math.abs(capacity * temp);
     }
 
     /**
-     * Resizes the hash table
+     * Resizes the hash table. In incremental mode this only allocates the new
+     * table; the nodes are moved over by later calls to migrate().
      */
     @SuppressWarnings("unchecked")
     protected void resize() {
+        if (this.oldTable != null) {
+            this.migrate(this.oldCapacity);
+        }
+        int oldCapacity = this.capacity;
         if (HashTable.NEED_PRIMES) {
             if (this.capacity % 2 == 0) {
                 this.capacity++;
@@ -179,7 +469,97 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
         } else {
             this.capacity = this.capacity * 2 + 1;
         }
-        Node[] temp = new HashTable.Node[capacity];
+        if (this.incremental) {
+            this.oldTable = this.table;
+            this.oldCapacity = oldCapacity;
+            this.migrated = 0;
+            this.table = new HashTable.Node[this.capacity];
+            return;
+        }
+        this.rehash(this.capacity);
+    }
+
+    /**
+     * Shrinks the hash table back to a load factor of one half if it has fallen
+     * below SHRINK_THRESHOLD, but never below the capacity it was created with.
+     * Since it grows at a load factor of RESIZE_THRESHOLD, the table has to halve
+     * or double in size again before it resizes again.
+     */
+    private void shrinkIfSparse() {
+        if (!this.autoShrink || this.capacity <= this.minCapacity
+                || this.numElements >= this.capacity * HashTable.SHRINK_THRESHOLD) {
+            return;
+        }
+        int newCapacity = HashTable.fitCapacity(Math.max(this.minCapacity, 2 * this.numElements + 1));
+        if (newCapacity < this.capacity) {
+            this.shrink(newCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the bucket array to the smallest capacity that holds the current
+     * elements below the resize threshold, ignoring the capacity the hash table
+     * was created with. The next insert may then grow the table again.
+     */
+    public void trimToSize() {
+        int newCapacity = HashTable.fitCapacity(this.numElements + 1);
+        if (newCapacity < this.capacity) {
+            this.shrink(newCapacity);
+        }
+    }
+
+    /**
+     * Rehashes every node into a smaller table at once, finishing any incremental
+     * resize first. Only as many nodes as fit in a quarter of the old table are
+     * moved, so this is done in one step even in incremental mode.
+     * 
+     * @param newCapacity
+     *            The capacity of the new table
+     */
+    private void shrink(int newCapacity) {
+        if (this.oldTable != null) {
+            this.migrate(this.oldCapacity);
+        }
+        if (this.statsEnabled) {
+            long start = System.nanoTime();
+            this.rehash(newCapacity);
+            this.resizes++;
+            this.resizeNanos += System.nanoTime() - start;
+        } else {
+            this.rehash(newCapacity);
+        }
+    }
+
+    /**
+     * Rounds a capacity up to the next odd number, or to the next prime if primes
+     * are needed
+     * 
+     * @param capacity
+     *            The minimum capacity
+     * @return The capacity to use
+     */
+    private static int fitCapacity(int capacity) {
+        if (capacity % 2 == 0) {
+            capacity++;
+        }
+        if (HashTable.NEED_PRIMES) {
+            while (!isPrime(capacity)) {
+                capacity += 2;
+            }
+        }
+        return capacity;
+    }
+
+    /**
+     * Rehashes every node into a new table of the given capacity
+     * 
+     * @param newCapacity
+     *            The capacity of the new table
+     */
+    @SuppressWarnings("unchecked")
+    protected void rehash(int newCapacity) {
+        this.capacity = newCapacity;
+        Node[] temp = new HashTable.Node[newCapacity];
 
         Node n = this.head.fullNext;
         while (n != this.tail) {
@@ -192,6 +572,172 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
         this.table = temp;
     }
 
+    /**
+     * Moves up to the given number of buckets from the old table into the current
+     * table, and drops the old table once it is empty
+     * 
+     * @param buckets
+     *            The maximum number of buckets to migrate
+     */
+    protected void migrate(int buckets) {
+        int end = Math.min(this.migrated + buckets, this.oldCapacity);
+        for (int i = this.migrated; i < end; i++) {
+            Node n = this.oldTable[i];
+            while (n != null) {
+                Node next = n.next;
+                int index = this.compress(n.key.hashCode());
+                n.next = this.table[index];
+                this.table[index] = n;
+                n = next;
+            }
+            this.oldTable[i] = null;
+        }
+        this.migrated = end;
+        if (this.migrated == this.oldCapacity) {
+            this.oldTable = null;
+        }
+    }
+
+    /**
+     * Copies the hash table into an immutable FrozenHashTable that answers every
+     * look up with a single probe. Where a key was inserted more than once, the
+     * frozen table keeps the value that lookUp returns.
+     * 
+     * @return The frozen copy of the hash table
+     */
+    public FrozenHashTable<K, V> freeze() {
+        if (this.oldTable != null) {
+            this.migrate(this.oldCapacity);
+        }
+        Object[] keys = new Object[this.numElements];
+        Object[] values = new Object[this.numElements];
+        int count = 0;
+        for (int i = 0; i < this.capacity; i++) {
+            outer: for (Node n = this.table[i]; n != null; n = n.next) {
+                // Only the first node with a key in its chain is visible
+                for (Node p = this.table[i]; p != n; p = p.next) {
+                    if (p.key.equals(n.key)) {
+                        continue outer;
+                    }
+                }
+                keys[count] = n.key;
+                values[count] = n.value;
+                count++;
+            }
+        }
+        return new FrozenHashTable<K, V>(Arrays.copyOf(keys, count), Arrays.copyOf(values, count));
+    }
+
+    /**
+     * Writes the hash table to a file that MappedHashTable can open. Each chain is
+     * written as it is laid out in the table, so the file has the same buckets.
+     * The format is documented in MappedHashTable.
+     * 
+     * @param file
+     *            The file to write
+     * @param keyCodec
+     *            Serializes keys
+     * @param valueCodec
+     *            Serializes values
+     * @throws IOException
+     *             If the file cannot be written
+     */
+    public void writeSnapshot(Path file, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        if (this.oldTable != null) {
+            this.migrate(this.oldCapacity);
+        }
+        long[] buckets = new long[this.capacity];
+        long position = MappedHashTable.HEADER_SIZE + 8L * this.capacity;
+        ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.position(position);
+            for (int i = 0; i < this.capacity; i++) {
+                buckets[i] = MappedHashTable.NIL;
+                Node n = this.table[i];
+                if (n == null) {
+                    continue;
+                }
+                byte[] k = keyCodec.encode(n.key);
+                byte[] v = valueCodec.encode(n.value);
+                while (n != null) {
+                    int size = MappedHashTable.RECORD_HEADER + k.length + v.length;
+                    long start = MappedHashTable.align(position, size);
+                    if (start != position) {
+                        this.flushSnapshot(out, buf);
+                        out.position(start);
+                        position = start;
+                    }
+                    if (buf.remaining() < size) {
+                        this.flushSnapshot(out, buf);
+                        if (buf.capacity() < size) {
+                            buf = ByteBuffer.allocate(size);
+                        }
+                    }
+                    if (buckets[i] == MappedHashTable.NIL) {
+                        buckets[i] = position;
+                    }
+
+                    // Encode the next record of the chain now to know where it will start
+                    Node next = n.next;
+                    byte[] nextKey = null;
+                    byte[] nextValue = null;
+                    long nextPosition = MappedHashTable.NIL;
+                    if (next != null) {
+                        nextKey = keyCodec.encode(next.key);
+                        nextValue = valueCodec.encode(next.value);
+                        nextPosition = MappedHashTable.align(position + size,
+                                MappedHashTable.RECORD_HEADER + nextKey.length + nextValue.length);
+                    }
+
+                    buf.putLong(nextPosition);
+                    buf.putInt(n.key.hashCode());
+                    buf.putInt(k.length);
+                    buf.putInt(v.length);
+                    buf.put(k);
+                    buf.put(v);
+                    position += size;
+
+                    n = next;
+                    k = nextKey;
+                    v = nextValue;
+                }
+            }
+            this.flushSnapshot(out, buf);
+
+            ByteBuffer header = ByteBuffer.allocate(MappedHashTable.HEADER_SIZE + 8 * this.capacity);
+            header.putInt(MappedHashTable.MAGIC);
+            header.putInt(MappedHashTable.VERSION);
+            header.putInt(this.capacity);
+            header.putInt(this.numElements);
+            for (long b : buckets) {
+                header.putLong(b);
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                out.write(header, header.position());
+            }
+        }
+    }
+
+    /**
+     * Writes out any bytes buffered by writeSnapshot at the channel's position
+     * 
+     * @param out
+     *            The channel to write to
+     * @param buf
+     *            The buffered bytes
+     * @throws IOException
+     *             If the bytes cannot be written
+     */
+    private void flushSnapshot(FileChannel out, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            out.write(buf);
+        }
+        buf.clear();
+    }
+
     /**
      * Returns (base^power) % mod
      * 
@@ -203,7 +749,7 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
      *            The value to take the mod of
      * @return (base^power) % mod
      */
-    protected int modPower(int base, int power, int mod) {
+    protected static int modPower(int base, int power, int mod) {
         long baseLong = base;
         baseLong = baseLong % mod;
 
@@ -234,7 +780,7 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
      *            A 32-bit integer
      * @return Whether or not n is prime
      */
-    protected boolean isPrime(int n) {
+    protected static boolean isPrime(int n) {
         if (n == 1) {
             return false;
         }
@@ -312,6 +858,119 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
         return this.numElements;
     }
 
+    /**
+     * Estimates the memory used by the hash table itself: its bucket arrays and
+     * nodes, but not the keys and values they refer to. The estimate assumes a
+     * 64-bit JVM with compressed references.
+     * 
+     * @return The estimated number of bytes used by the hash table
+     */
+    public long memoryFootprint() {
+        long bytes = HashTable.ARRAY_HEADER_BYTES + (long) HashTable.REFERENCE_BYTES * this.capacity;
+        if (this.oldTable != null) {
+            bytes += HashTable.ARRAY_HEADER_BYTES + (long) HashTable.REFERENCE_BYTES * this.oldCapacity;
+        }
+        // The head and tail sentinels are nodes as well
+        return bytes + (long) HashTable.NODE_BYTES * (this.numElements + 2);
+    }
+
+    /**
+     * Turns automatic shrinking on or off. It is off by default, so the table
+     * keeps its capacity through deletes unless this is turned on.
+     * 
+     * @param enabled
+     *            Whether or not to shrink the hash table once it is sparse
+     */
+    public void setAutoShrink(boolean enabled) {
+        this.autoShrink = enabled;
+    }
+
+    /**
+     * Returns whether or not the hash table shrinks automatically
+     * 
+     * @return Whether or not automatic shrinking is on
+     */
+    public boolean isAutoShrink() {
+        return this.autoShrink;
+    }
+
+    /**
+     * Turns the collection of search and resize statistics on or off. While off,
+     * the hash table does no extra work.
+     * 
+     * @param enabled
+     *            Whether or not to collect statistics
+     */
+    public void setStatsEnabled(boolean enabled) {
+        this.statsEnabled = enabled;
+    }
+
+    /**
+     * Returns whether or not statistics are being collected
+     * 
+     * @return Whether or not statistics are being collected
+     */
+    public boolean isStatsEnabled() {
+        return this.statsEnabled;
+    }
+
+    /**
+     * Resets the search and resize counters to zero
+     */
+    public void resetStats() {
+        this.searches = 0;
+        this.probes = 0;
+        this.resizes = 0;
+        this.resizeNanos = 0;
+    }
+
+    /**
+     * Takes a snapshot of the statistics of the hash table. The bucket occupancy
+     * and chain lengths are measured by walking every bucket, so this takes time
+     * proportional to the capacity. Chains of an incremental resize in progress
+     * are counted in the old table.
+     * 
+     * @return A snapshot of the statistics
+     */
+    public HashTableStats getStats() {
+        int[] histogram = new int[HashTableStats.HISTOGRAM_SIZE];
+        int longest = this.countChains(this.table, 0, histogram);
+        if (this.oldTable != null) {
+            longest = Math.max(longest, this.countChains(this.oldTable, this.migrated, histogram));
+        }
+        int occupied = -histogram[0];
+        for (int count : histogram) {
+            occupied += count;
+        }
+        return new HashTableStats(this.capacity, this.numElements, occupied, longest, histogram, this.searches,
+                this.probes, this.resizes, this.resizeNanos);
+    }
+
+    /**
+     * Adds the length of every chain of a table to a histogram
+     * 
+     * @param t
+     *            The table to measure
+     * @param start
+     *            The first bucket to measure
+     * @param histogram
+     *            Counts the chains of each length; the last entry also counts
+     *            every longer chain
+     * @return The length of the longest chain
+     */
+    private int countChains(Node[] t, int start, int[] histogram) {
+        int longest = 0;
+        for (int i = start; i < t.length; i++) {
+            int length = 0;
+            for (Node n = t[i]; n != null; n = n.next) {
+                length++;
+            }
+            longest = Math.max(longest, length);
+            histogram[Math.min(length, histogram.length - 1)]++;
+        }
+        return longest;
+    }
+
     @Override
     public Iterator<HashTable.Node> iterator() {
         Iterator<HashTable.Node> it = new Iterator<HashTable.Node>() {
@@ -331,6 +990,138 @@ public class HashTable<K, V> implements Dictionary<K, V>, Iterable<HashTable.Nod
         return it;
     }
 
+    /**
+     * Returns a spliterator over the nodes of the hash table. Unlike iterator(),
+     * which follows the overall linked list in insertion order, it walks the
+     * bucket array, which can be split into ranges of buckets that are traversed
+     * independently. Any incremental resize in progress is finished first. The
+     * hash table must not be modified during the traversal.
+     * 
+     * @return A spliterator over the nodes of the hash table
+     */
+    @Override
+    public Spliterator<HashTable.Node> spliterator() {
+        if (this.oldTable != null) {
+            this.migrate(this.oldCapacity);
+        }
+        return new BucketSpliterator(this.table, 0, this.table.length, this.numElements,
+                Spliterator.SIZED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a sequential stream over the nodes of the hash table
+     * 
+     * @return A stream over the nodes of the hash table
+     */
+    public Stream<HashTable.Node> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream over the nodes of the hash table, which splits
+     * the bucket array across the threads of the common fork-join pool
+     * 
+     * @return A parallel stream over the nodes of the hash table
+     */
+    public Stream<HashTable.Node> parallelStream() {
+        return StreamSupport.stream(this.spliterator(), true);
+    }
+
+    /**
+     * Traverses the chains of a range of buckets
+     * 
+     * @author Neil Dey
+     *
+     */
+    private class BucketSpliterator implements Spliterator<HashTable.Node> {
+        /** The table being traversed **/
+        private final Node[] table;
+        /** The next bucket to traverse **/
+        private int index;
+        /** One past the last bucket to traverse **/
+        private final int fence;
+        /** The next node of the chain being traversed, or null **/
+        private Node current;
+        /** The estimated number of nodes left **/
+        private long estimate;
+        /** The characteristics of the spliterator; only exactly sized until split **/
+        private int characteristics;
+
+        /**
+         * Creates a spliterator over the given range of buckets
+         * 
+         * @param table
+         *            The table to traverse
+         * @param index
+         *            The first bucket to traverse
+         * @param fence
+         *            One past the last bucket to traverse
+         * @param estimate
+         *            The estimated number of nodes in the range
+         * @param characteristics
+         *            The characteristics of the spliterator
+         */
+        BucketSpliterator(Node[] table, int index, int fence, long estimate, int characteristics) {
+            this.table = table;
+            this.index = index;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.characteristics = characteristics;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super HashTable.Node> action) {
+            while (this.current == null) {
+                if (this.index >= this.fence) {
+                    return false;
+                }
+                this.current = this.table[this.index++];
+            }
+            Node n = this.current;
+            this.current = n.next;
+            action.accept(n);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super HashTable.Node> action) {
+            for (Node n = this.current; n != null; n = n.next) {
+                action.accept(n);
+            }
+            this.current = null;
+            for (; this.index < this.fence; this.index++) {
+                for (Node n = this.table[this.index]; n != null; n = n.next) {
+                    action.accept(n);
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<HashTable.Node> trySplit() {
+            int mid = (this.index + this.fence) >>> 1;
+            if (mid <= this.index) {
+                return null;
+            }
+            // The first half of the buckets is split off; the chain in progress stays here
+            BucketSpliterator prefix = new BucketSpliterator(this.table, this.index, mid, this.estimate >>> 1,
+                    Spliterator.NONNULL);
+            this.index = mid;
+            this.estimate -= prefix.estimate;
+            this.characteristics = Spliterator.NONNULL;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return this.characteristics;
+        }
+    }
+
     /**
      * A node in a chain in the hash table
      * 
@@ -0,0 +1,109 @@
+package datastructs;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Exposes the statistics of a HashTable as a JMX MBean. Attributes that need
+ * the bucket array (occupancy, chain lengths) walk it on every read; the rest
+ * are read directly from the hash table's counters. Since HashTable is not
+ * thread-safe, values read while the table is being modified are approximate.
+ * 
+ * @author Neil Dey
+ */
+public class HashTableMonitor implements HashTableMonitorMBean {
+    /** The monitored hash table **/
+    private final HashTable<?, ?> table;
+
+    /**
+     * Creates a monitor for the given hash table and turns on its statistics
+     * 
+     * @param table
+     *            The hash table to monitor
+     */
+    public HashTableMonitor(HashTable<?, ?> table) {
+        this.table = table;
+        table.setStatsEnabled(true);
+    }
+
+    /**
+     * Monitors the given hash table and registers the monitor with the platform
+     * MBean server as datastructs:type=HashTable,name=<name>
+     * 
+     * @param table
+     *            The hash table to monitor
+     * @param name
+     *            The name to register it under
+     * @return The name the monitor was registered under
+     * @throws JMException
+     *             If the monitor cannot be registered
+     */
+    public static ObjectName register(HashTable<?, ?> table, String name) throws JMException {
+        ObjectName objectName = new ObjectName("datastructs:type=HashTable,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new HashTableMonitor(table), objectName);
+        return objectName;
+    }
+
+    @Override
+    public int getCapacity() {
+        return this.table.capacity;
+    }
+
+    @Override
+    public int getSize() {
+        return this.table.size();
+    }
+
+    @Override
+    public double getLoadFactor() {
+        return (double) this.table.size() / this.table.capacity;
+    }
+
+    @Override
+    public int getOccupiedBuckets() {
+        return this.table.getStats().getOccupiedBuckets();
+    }
+
+    @Override
+    public int getLongestChain() {
+        return this.table.getStats().getLongestChain();
+    }
+
+    @Override
+    public int[] getChainLengthHistogram() {
+        return this.table.getStats().getChainLengthHistogram();
+    }
+
+    @Override
+    public long getSearches() {
+        return this.table.searches;
+    }
+
+    @Override
+    public double getAverageProbes() {
+        long searches = this.table.searches;
+        return searches == 0 ? 0 : (double) this.table.probes / searches;
+    }
+
+    @Override
+    public long getResizes() {
+        return this.table.resizes;
+    }
+
+    @Override
+    public long getResizeNanos() {
+        return this.table.resizeNanos;
+    }
+
+    @Override
+    public long getMemoryFootprint() {
+        return this.table.memoryFootprint();
+    }
+
+    @Override
+    public void resetStats() {
+        this.table.resetStats();
+    }
+}
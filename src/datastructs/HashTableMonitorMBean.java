@@ -0,0 +1,32 @@
+package datastructs;
+
+/**
+ * The JMX management interface of a HashTableMonitor
+ * 
+ * @author Neil Dey
+ */
+public interface HashTableMonitorMBean {
+    int getCapacity();
+
+    int getSize();
+
+    double getLoadFactor();
+
+    int getOccupiedBuckets();
+
+    int getLongestChain();
+
+    int[] getChainLengthHistogram();
+
+    long getSearches();
+
+    double getAverageProbes();
+
+    long getResizes();
+
+    long getResizeNanos();
+
+    long getMemoryFootprint();
+
+    void resetStats();
+}
@@ -0,0 +1,166 @@
+package datastructs;
+
+import java.util.Arrays;
+
+/**
+ * A snapshot of the statistics of a HashTable, taken by HashTable.getStats()
+ * 
+ * @author Neil Dey
+ */
+public class HashTableStats {
+    /** The number of entries in the chain-length histogram; the last counts every longer chain **/
+    public static final int HISTOGRAM_SIZE = 16;
+
+    /** The capacity of the hash table **/
+    private final int capacity;
+    /** The number of elements in the hash table **/
+    private final int size;
+    /** The number of non-empty buckets **/
+    private final int occupiedBuckets;
+    /** The length of the longest chain **/
+    private final int longestChain;
+    /** The number of buckets with each chain length **/
+    private final int[] chainLengths;
+    /** The number of key searches counted **/
+    private final long searches;
+    /** The number of nodes compared by those searches **/
+    private final long probes;
+    /** The number of resizes counted **/
+    private final long resizes;
+    /** The time spent in those resizes, in nanoseconds **/
+    private final long resizeNanos;
+
+    /**
+     * Creates a new snapshot
+     * 
+     * @param capacity
+     *            The capacity of the hash table
+     * @param size
+     *            The number of elements in the hash table
+     * @param occupiedBuckets
+     *            The number of non-empty buckets
+     * @param longestChain
+     *            The length of the longest chain
+     * @param chainLengths
+     *            The number of buckets with each chain length
+     * @param searches
+     *            The number of key searches counted
+     * @param probes
+     *            The number of nodes compared by those searches
+     * @param resizes
+     *            The number of resizes counted
+     * @param resizeNanos
+     *            The time spent in those resizes, in nanoseconds
+     */
+    public HashTableStats(int capacity, int size, int occupiedBuckets, int longestChain, int[] chainLengths,
+            long searches, long probes, long resizes, long resizeNanos) {
+        this.capacity = capacity;
+        this.size = size;
+        this.occupiedBuckets = occupiedBuckets;
+        this.longestChain = longestChain;
+        this.chainLengths = chainLengths;
+        this.searches = searches;
+        this.probes = probes;
+        this.resizes = resizes;
+        this.resizeNanos = resizeNanos;
+    }
+
+    /**
+     * Gets the capacity of the hash table
+     * 
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Gets the number of elements in the hash table
+     * 
+     * @return The number of elements
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of elements per bucket
+     * 
+     * @return The load factor
+     */
+    public double getLoadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    /**
+     * Gets the number of non-empty buckets
+     * 
+     * @return The number of non-empty buckets
+     */
+    public int getOccupiedBuckets() {
+        return this.occupiedBuckets;
+    }
+
+    /**
+     * Gets the length of the longest chain
+     * 
+     * @return The length of the longest chain
+     */
+    public int getLongestChain() {
+        return this.longestChain;
+    }
+
+    /**
+     * Gets the number of buckets with each chain length. Entry i counts the
+     * chains of length i; the last entry also counts every longer chain.
+     * 
+     * @return The chain-length histogram
+     */
+    public int[] getChainLengthHistogram() {
+        return this.chainLengths.clone();
+    }
+
+    /**
+     * Gets the number of key searches made while statistics were enabled
+     * 
+     * @return The number of searches
+     */
+    public long getSearches() {
+        return this.searches;
+    }
+
+    /**
+     * Gets the average number of nodes compared per key search
+     * 
+     * @return The average number of probes, or 0 if nothing was searched
+     */
+    public double getAverageProbes() {
+        return this.searches == 0 ? 0 : (double) this.probes / this.searches;
+    }
+
+    /**
+     * Gets the number of resizes made while statistics were enabled
+     * 
+     * @return The number of resizes
+     */
+    public long getResizes() {
+        return this.resizes;
+    }
+
+    /**
+     * Gets the time spent resizing while statistics were enabled
+     * 
+     * @return The time spent resizing, in nanoseconds
+     */
+    public long getResizeNanos() {
+        return this.resizeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "capacity=" + this.capacity + " size=" + this.size + " loadFactor=" + this.getLoadFactor()
+                + " occupiedBuckets=" + this.occupiedBuckets + " longestChain=" + this.longestChain
+                + " chainLengths=" + Arrays.toString(this.chainLengths) + " averageProbes="
+                + this.getAverageProbes() + " resizes=" + this.resizes + " resizeNanos=" + this.resizeNanos;
+    }
+}
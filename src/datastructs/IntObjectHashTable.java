@@ -0,0 +1,285 @@
+package datastructs;
+
+/**
+ * A hash table from int keys to objects that never boxes its keys. Keys are
+ * stored in a primitive array parallel to the values using linear probing with
+ * backward-shift deletion and Fibonacci hash compression. Operations on a key
+ * that is not in the table return null, so a look up allocates nothing.
+ *
+ * The key 0 marks a free slot in the key array, so it is stored off to the
+ * side. Inserting a key that is already present replaces its value.
+ *
+ * @author Neil Dey
+ *
+ * @param <V>
+ *            The generic type for values
+ */
+public class IntObjectHashTable<V> {
+
+    /** The load factor at which the hash table resizes **/
+    protected static final double RESIZE_THRESHOLD = 0.75;
+    /** The initial capacity of the hash table **/
+    protected static final int INIT_CAP = 16;
+    /** 2^32 divided by the golden ratio; the integer form of Fibonacci hashing **/
+    protected static final int FIB_MULTIPLIER = 0x9E3779B9;
+    /** The key that marks a free slot **/
+    protected static final int FREE_KEY = 0;
+
+    /** The keys of the hash table **/
+    protected int[] keys;
+    /** The values of the hash table **/
+    protected Object[] values;
+    /** keys.length - 1 **/
+    protected int mask;
+    /** The shift that maps a multiplied key onto the table **/
+    protected int shift;
+    /** The number of elements at which the hash table resizes **/
+    protected int threshold;
+
+    /** Whether or not FREE_KEY is in the hash table **/
+    protected boolean hasFreeKey;
+    /** The value associated with FREE_KEY **/
+    protected V freeValue;
+    /** The number of elements in the hash table **/
+    protected int numElements;
+
+    /**
+     * Creates a new hash table that can hold the given number of elements before
+     * resizing
+     *
+     * @param capacity
+     *            The capacity of the hash table
+     */
+    public IntObjectHashTable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        int tableSize = 2;
+        while (tableSize * IntObjectHashTable.RESIZE_THRESHOLD < capacity) {
+            tableSize <<= 1;
+        }
+        this.allocate(tableSize);
+    }
+
+    /**
+     * Creates a new hash table with the default initial capacity
+     */
+    public IntObjectHashTable() {
+        this(IntObjectHashTable.INIT_CAP);
+    }
+
+    /**
+     * Allocates empty arrays of the given size
+     *
+     * @param tableSize
+     *            The size of the table; must be a power of two
+     */
+    private void allocate(int tableSize) {
+        this.keys = new int[tableSize];
+        this.values = new Object[tableSize];
+        this.mask = tableSize - 1;
+        this.shift = 32 - Integer.numberOfTrailingZeros(tableSize);
+        this.threshold = (int) (tableSize * IntObjectHashTable.RESIZE_THRESHOLD);
+    }
+
+    /**
+     * Inserts a new entry into the hash table with the given key and value, or
+     * replaces the value if the key is already present
+     *
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     */
+    public void insert(int key, V value) {
+        if (key == IntObjectHashTable.FREE_KEY) {
+            if (!this.hasFreeKey) {
+                this.hasFreeKey = true;
+                this.numElements++;
+            }
+            this.freeValue = value;
+            return;
+        }
+        int i = this.compress(key);
+        while (this.keys[i] != IntObjectHashTable.FREE_KEY) {
+            if (this.keys[i] == key) {
+                this.values[i] = value;
+                return;
+            }
+            i = (i + 1) & this.mask;
+        }
+        this.keys[i] = key;
+        this.values[i] = value;
+        if (++this.numElements >= this.threshold) {
+            this.resize();
+        }
+    }
+
+    /**
+     * Returns the value associated with a given key
+     *
+     * @param key
+     *            The key to search for
+     * @return The value associated with the key, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V lookUp(int key) {
+        if (key == IntObjectHashTable.FREE_KEY) {
+            return this.hasFreeKey ? this.freeValue : null;
+        }
+        int i = this.find(key);
+        return i < 0 ? null : (V) this.values[i];
+    }
+
+    /**
+     * Returns whether or not the given key is in the hash table
+     *
+     * @param key
+     *            The key to search for
+     * @return Whether or not the key is in the hash table
+     */
+    public boolean containsKey(int key) {
+        if (key == IntObjectHashTable.FREE_KEY) {
+            return this.hasFreeKey;
+        }
+        return this.find(key) >= 0;
+    }
+
+    /**
+     * Removes the entry from the hash table with the given key
+     *
+     * @param key
+     *            The key of the entry to remove
+     * @return The value of the removed entry, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == IntObjectHashTable.FREE_KEY) {
+            if (!this.hasFreeKey) {
+                return null;
+            }
+            V temp = this.freeValue;
+            this.hasFreeKey = false;
+            this.freeValue = null;
+            this.numElements--;
+            return temp;
+        }
+        int gap = this.find(key);
+        if (gap < 0) {
+            return null;
+        }
+        V temp = (V) this.values[gap];
+
+        // Shift back every later key in the cluster whose home is not after the gap
+        int j = (gap + 1) & this.mask;
+        while (this.keys[j] != IntObjectHashTable.FREE_KEY) {
+            if (((j - this.compress(this.keys[j])) & this.mask) >= ((j - gap) & this.mask)) {
+                this.keys[gap] = this.keys[j];
+                this.values[gap] = this.values[j];
+                gap = j;
+            }
+            j = (j + 1) & this.mask;
+        }
+        this.keys[gap] = IntObjectHashTable.FREE_KEY;
+        this.values[gap] = null;
+
+        this.numElements--;
+        return temp;
+    }
+
+    /**
+     * Replaces the value of the entry with the given key
+     *
+     * @param key
+     *            The key of the entry to update
+     * @param value
+     *            The new value of the entry
+     * @return The old value of the entry, or null if the key is not in the table
+     */
+    @SuppressWarnings("unchecked")
+    public V update(int key, V value) {
+        if (key == IntObjectHashTable.FREE_KEY) {
+            if (!this.hasFreeKey) {
+                return null;
+            }
+            V temp = this.freeValue;
+            this.freeValue = value;
+            return temp;
+        }
+        int i = this.find(key);
+        if (i < 0) {
+            return null;
+        }
+        V temp = (V) this.values[i];
+        this.values[i] = value;
+        return temp;
+    }
+
+    /**
+     * Finds the slot holding the given key, which must not be FREE_KEY
+     *
+     * @param key
+     *            The key to search for
+     * @return The slot holding the key, or -1 if the key is not in the table
+     */
+    protected int find(int key) {
+        int i = this.compress(key);
+        while (this.keys[i] != IntObjectHashTable.FREE_KEY) {
+            if (this.keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Compresses a key into the capacity of the hash table using Fibonacci hash
+     * compression
+     *
+     * @param key
+     *            The key to compress
+     * @return The compressed key
+     */
+    protected int compress(int key) {
+        return (key * IntObjectHashTable.FIB_MULTIPLIER) >>> this.shift;
+    }
+
+    /**
+     * Doubles the size of the hash table
+     */
+    protected void resize() {
+        int[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.allocate(oldKeys.length << 1);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == IntObjectHashTable.FREE_KEY) {
+                continue;
+            }
+            int i = this.compress(oldKeys[j]);
+            while (this.keys[i] != IntObjectHashTable.FREE_KEY) {
+                i = (i + 1) & this.mask;
+            }
+            this.keys[i] = oldKeys[j];
+            this.values[i] = oldValues[j];
+        }
+    }
+
+    /**
+     * Gets the length of the key array
+     *
+     * @return The length of the key array
+     */
+    public int getHashTableLength() {
+        return this.keys.length;
+    }
+
+    /**
+     * Gets the number of elements in the hash table
+     *
+     * @return The number of elements in the hash table
+     */
+    public int size() {
+        return this.numElements;
+    }
+}
@@ -0,0 +1,143 @@
+package datastructs;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the heights of skip list towers. A tower reaches each next level with
+ * the promotion probability, up to a maximum height. The whole height comes
+ * from a single random draw: when the promotion probability is 1/2^k, every k
+ * trailing zero bits of a random long are one more level; otherwise the
+ * geometric distribution is sampled by inverting a uniform draw.
+ *
+ * An unseeded generator draws from ThreadLocalRandom, so it may be shared by
+ * threads without contention. A seeded generator draws from its own
+ * SplittableRandom and produces the same heights on every run, but must not be
+ * shared by threads.
+ *
+ * @author Neil Dey
+ */
+public class LevelGenerator {
+    /** The default probability of promoting a tower to the next level **/
+    public static final double DEFAULT_PROMOTION = 0.5;
+    /** The default maximum height of a tower **/
+    public static final int DEFAULT_MAX_HEIGHT = 32;
+
+    /** The probability of promoting a tower to the next level **/
+    private final double promotion;
+    /** The maximum height of a tower **/
+    private final int maxHeight;
+    /** k if the promotion probability is 1/2^k, or 0 otherwise **/
+    private final int bitsPerLevel;
+    /** The natural log of the promotion probability **/
+    private final double logPromotion;
+    /** The seeded source of random bits, or null to use ThreadLocalRandom **/
+    private final SplittableRandom random;
+
+    /**
+     * Creates a generator with the given promotion probability and maximum
+     * height
+     *
+     * @param promotion
+     *            The probability of promoting a tower to the next level; must be
+     *            between 0 and 1, exclusive
+     * @param maxHeight
+     *            The maximum height of a tower; must be positive
+     * @param random
+     *            The seeded source of random bits, or null to use
+     *            ThreadLocalRandom
+     */
+    private LevelGenerator(double promotion, int maxHeight, SplittableRandom random) {
+        if (!(promotion > 0 && promotion < 1)) {
+            throw new IllegalArgumentException("Promotion probability must be between 0 and 1.");
+        }
+        if (maxHeight < 1) {
+            throw new IllegalArgumentException("Maximum height must be positive.");
+        }
+        this.promotion = promotion;
+        this.maxHeight = maxHeight;
+        this.logPromotion = Math.log(promotion);
+        int k = 0;
+        for (int bits = 1; bits < Long.SIZE; bits++) {
+            if (promotion == Math.scalb(1.0, -bits)) {
+                k = bits;
+                break;
+            }
+        }
+        this.bitsPerLevel = k;
+        this.random = random;
+    }
+
+    /**
+     * Creates an unseeded generator with the given promotion probability and
+     * maximum height
+     *
+     * @param promotion
+     *            The probability of promoting a tower to the next level; must be
+     *            between 0 and 1, exclusive
+     * @param maxHeight
+     *            The maximum height of a tower; must be positive
+     */
+    public LevelGenerator(double promotion, int maxHeight) {
+        this(promotion, maxHeight, null);
+    }
+
+    /**
+     * Creates a seeded generator, which produces the same heights every time
+     *
+     * @param promotion
+     *            The probability of promoting a tower to the next level; must be
+     *            between 0 and 1, exclusive
+     * @param maxHeight
+     *            The maximum height of a tower; must be positive
+     * @param seed
+     *            The seed of the random bits
+     */
+    public LevelGenerator(double promotion, int maxHeight, long seed) {
+        this(promotion, maxHeight, new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates an unseeded generator with the default promotion probability and
+     * maximum height
+     */
+    public LevelGenerator() {
+        this(LevelGenerator.DEFAULT_PROMOTION, LevelGenerator.DEFAULT_MAX_HEIGHT);
+    }
+
+    /**
+     * Returns the height of a new tower
+     *
+     * @return A height between 1 and the maximum height
+     */
+    public int nextHeight() {
+        long bits = this.random == null ? ThreadLocalRandom.current().nextLong() : this.random.nextLong();
+        int height;
+        if (this.bitsPerLevel > 0) {
+            height = 1 + Long.numberOfTrailingZeros(bits) / this.bitsPerLevel;
+        } else {
+            // The top 53 bits as a uniform double in [0, 1)
+            double u = (bits >>> 11) * 0x1.0p-53;
+            height = 1 + (int) Math.min(this.maxHeight, Math.log1p(-u) / this.logPromotion);
+        }
+        return Math.min(height, this.maxHeight);
+    }
+
+    /**
+     * Gets the probability of promoting a tower to the next level
+     *
+     * @return The promotion probability
+     */
+    public double getPromotion() {
+        return this.promotion;
+    }
+
+    /**
+     * Gets the maximum height of a tower
+     *
+     * @return The maximum height
+     */
+    public int getMaxHeight() {
+        return this.maxHeight;
+    }
+}
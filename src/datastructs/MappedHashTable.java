@@ -0,0 +1,229 @@
+package datastructs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only view of a HashTable snapshot written by
+ * HashTable.writeSnapshot(). Opening a snapshot only maps the file into memory;
+ * lookUp reads the bucket index and the chain directly from the mapped file
+ * and only deserializes the value it returns.
+ *
+ * The buckets are the buckets of the HashTable that was written, so keys must
+ * have a hashCode() that is the same in every process (such as String or
+ * Integer). All numbers are big-endian. The file is laid out as
+ *
+ * <pre>
+ * header:  [magic: int][version: int][capacity: int][numElements: int]
+ * buckets: capacity longs; the file position of the first record of each chain, or -1
+ * records: [next record position or -1: long][key hashCode: int][key length: int]
+ *          [value length: int][key bytes][value bytes]
+ * </pre>
+ *
+ * A record never crosses a multiple of REGION_SIZE; the writer pads up to the
+ * boundary instead, so that each region can be mapped on its own.
+ *
+ * @author Neil Dey
+ *
+ * @param <K>
+ *            The generic type for keys
+ * @param <V>
+ *            The generic type for values
+ */
+public class MappedHashTable<K, V> implements Dictionary<K, V> {
+
+    /** Identifies a snapshot file ("HTSN") **/
+    protected static final int MAGIC = 0x4854534E;
+    /** The version of the file format **/
+    protected static final int VERSION = 1;
+    /** The size of the header in bytes **/
+    protected static final int HEADER_SIZE = 16;
+    /** The size of a record before its key **/
+    protected static final int RECORD_HEADER = 20;
+    /** The size of each separately mapped region of the file **/
+    protected static final long REGION_SIZE = 1L << 30;
+    /** The position that ends a chain or marks an empty bucket **/
+    protected static final long NIL = -1;
+
+    /** Serializes keys **/
+    protected final Codec<K> keyCodec;
+    /** Deserializes values **/
+    protected final Codec<V> valueCodec;
+    /** The mapped regions of the file **/
+    protected final ByteBuffer[] regions;
+    /** The number of buckets **/
+    protected final int capacity;
+    /** The number of elements in the snapshot **/
+    protected final int numElements;
+
+    /**
+     * Maps a snapshot file into memory
+     *
+     * @param file
+     *            The snapshot to open
+     * @param keyCodec
+     *            Serializes keys; must match the codec the snapshot was written
+     *            with
+     * @param valueCodec
+     *            Deserializes values; must match the codec the snapshot was
+     *            written with
+     * @throws IOException
+     *             If the file cannot be mapped or is not a snapshot
+     */
+    public MappedHashTable(Path file, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = in.size();
+            this.regions = new ByteBuffer[(int) ((length + MappedHashTable.REGION_SIZE - 1)
+                    / MappedHashTable.REGION_SIZE)];
+            for (int r = 0; r < this.regions.length; r++) {
+                long start = r * MappedHashTable.REGION_SIZE;
+                this.regions[r] = in.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(MappedHashTable.REGION_SIZE, length - start));
+            }
+        }
+        if (this.regions.length == 0 || this.regions[0].limit() < MappedHashTable.HEADER_SIZE
+                || this.regions[0].getInt(0) != MappedHashTable.MAGIC) {
+            throw new IOException("Not a hash table snapshot: " + file);
+        }
+        if (this.regions[0].getInt(4) != MappedHashTable.VERSION) {
+            throw new IOException("Unsupported snapshot version " + this.regions[0].getInt(4));
+        }
+        this.capacity = this.regions[0].getInt(8);
+        this.numElements = this.regions[0].getInt(12);
+    }
+
+    @Override
+    public V lookUp(K key) {
+        byte[] k = this.keyCodec.encode(key);
+        int hash = key.hashCode();
+        long position = this.getLong(MappedHashTable.HEADER_SIZE + 8L * HashTable.compress(hash, this.capacity));
+        while (position != MappedHashTable.NIL) {
+            ByteBuffer region = this.regions[(int) (position / MappedHashTable.REGION_SIZE)];
+            int offset = (int) (position % MappedHashTable.REGION_SIZE);
+            if (region.getInt(offset + 8) == hash && this.keyEquals(region, offset, k)) {
+                byte[] v = new byte[region.getInt(offset + 16)];
+                region.get(offset + MappedHashTable.RECORD_HEADER + k.length, v);
+                return this.valueCodec.decode(v);
+            }
+            position = region.getLong(offset);
+        }
+        return null;
+    }
+
+    /**
+     * Snapshots are read-only
+     *
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     */
+    @Override
+    public void insert(K key, V value) {
+        throw new UnsupportedOperationException("Snapshots are read-only.");
+    }
+
+    /**
+     * Snapshots are read-only
+     *
+     * @param key
+     *            The key of the entry to remove
+     */
+    @Override
+    public V remove(K key) {
+        throw new UnsupportedOperationException("Snapshots are read-only.");
+    }
+
+    /**
+     * Snapshots are read-only
+     *
+     * @param key
+     *            The key of the entry to update
+     * @param value
+     *            The new value of the entry
+     */
+    @Override
+    public V update(K key, V value) {
+        throw new UnsupportedOperationException("Snapshots are read-only.");
+    }
+
+    /**
+     * Returns whether or not the record at the given offset has the given key
+     *
+     * @param region
+     *            The region holding the record
+     * @param offset
+     *            The offset of the record in the region
+     * @param k
+     *            The serialized key
+     * @return Whether or not the record holds the key
+     */
+    private boolean keyEquals(ByteBuffer region, int offset, byte[] k) {
+        if (region.getInt(offset + 12) != k.length) {
+            return false;
+        }
+        offset += MappedHashTable.RECORD_HEADER;
+        for (int i = 0; i < k.length; i++) {
+            if (region.get(offset + i) != k[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the long at the given position of the file
+     *
+     * @param position
+     *            The position in the file
+     * @return The long at that position
+     */
+    private long getLong(long position) {
+        return this.regions[(int) (position / MappedHashTable.REGION_SIZE)]
+                .getLong((int) (position % MappedHashTable.REGION_SIZE));
+    }
+
+    /**
+     * Returns where a record of the given size starts if it would otherwise start
+     * at the given position, so that it does not cross a region boundary
+     *
+     * @param position
+     *            The first free position in the file
+     * @param size
+     *            The size of the record
+     * @return The position of the record
+     */
+    static long align(long position, int size) {
+        if (size > MappedHashTable.REGION_SIZE) {
+            throw new IllegalArgumentException("Entry is too large for a snapshot.");
+        }
+        long regionEnd = (position / MappedHashTable.REGION_SIZE + 1) * MappedHashTable.REGION_SIZE;
+        if (position + size > regionEnd) {
+            return regionEnd;
+        }
+        return position;
+    }
+
+    /**
+     * Gets the number of buckets in the snapshot
+     *
+     * @return The number of buckets in the snapshot
+     */
+    public int getHashTableLength() {
+        return this.capacity;
+    }
+
+    /**
+     * Gets the number of elements in the snapshot
+     *
+     * @return The number of elements in the snapshot
+     */
+    public int size() {
+        return this.numElements;
+    }
+}
@@ -0,0 +1,483 @@
+package datastructs;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A hash table that keeps its entries outside the Java heap. Keys and values
+ * are serialized by a Codec and appended as records to direct ByteBuffer
+ * chunks; the only per-entry heap cost is a slot in the long[] bucket index.
+ * Chains use separate chaining and Fibonacci hash compression, with each record
+ * holding the address of the next record in its chain.
+ *
+ * Keys are compared by their serialized bytes. Inserting a key that is already
+ * present replaces its value. Space freed by removes and by values that grow is
+ * reclaimed by compact(), which insert calls once more than half of the arena
+ * is garbage.
+ *
+ * A record is laid out as
+ *
+ * <pre>
+ * [next address: long][hash: int][key length: int][value length: int][key][value]
+ * </pre>
+ *
+ * and an address is the chunk index in the high 32 bits and the offset within
+ * the chunk in the low 32 bits.
+ *
+ * @author Neil Dey
+ *
+ * @param <K>
+ *            The generic type for keys
+ * @param <V>
+ *            The generic type for values
+ */
+public class OffHeapHashTable<K, V> implements Dictionary<K, V> {
+
+    /** The load factor at which the hash table resizes **/
+    protected static final double RESIZE_THRESHOLD = 1.00;
+    /** The initial capacity of the hash table **/
+    protected static final int INIT_CAP = 16;
+    /** 2^32 divided by the golden ratio; the integer form of Fibonacci hashing **/
+    protected static final int FIB_MULTIPLIER = 0x9E3779B9;
+    /** The default size of each arena chunk in bytes **/
+    protected static final int DEFAULT_CHUNK_SIZE = 1 << 24;
+    /** The address that ends a chain **/
+    protected static final long NIL = -1;
+
+    /** The offset of the next address within a record **/
+    private static final int NEXT = 0;
+    /** The offset of the hash within a record **/
+    private static final int HASH = 8;
+    /** The offset of the key length within a record **/
+    private static final int KEY_LENGTH = 12;
+    /** The offset of the value length within a record **/
+    private static final int VALUE_LENGTH = 16;
+    /** The size of a record before its key **/
+    private static final int HEADER = 20;
+
+    /** Serializes keys **/
+    protected final Codec<K> keyCodec;
+    /** Serializes values **/
+    protected final Codec<V> valueCodec;
+    /** The size of each arena chunk in bytes **/
+    protected final int chunkSize;
+
+    /** The address of the first record of each chain **/
+    protected long[] table;
+    /** The shift that maps a multiplied hash onto the table **/
+    protected int shift;
+    /** The arena chunks **/
+    protected ByteBuffer[] chunks;
+    /** The number of chunks in use **/
+    protected int numChunks;
+    /** The first free byte of the last chunk **/
+    protected int chunkOffset;
+    /** The number of arena bytes taken by records **/
+    protected long usedBytes;
+    /** The number of arena bytes taken by records that are no longer reachable **/
+    protected long garbageBytes;
+    /** The number of elements in the hash table **/
+    protected int numElements;
+
+    /**
+     * Creates a new off-heap hash table
+     *
+     * @param capacity
+     *            The number of elements the table can hold before resizing
+     * @param chunkSize
+     *            The size of each arena chunk in bytes; no record may be larger
+     * @param keyCodec
+     *            Serializes keys
+     * @param valueCodec
+     *            Serializes values
+     */
+    public OffHeapHashTable(int capacity, int chunkSize, Codec<K> keyCodec, Codec<V> valueCodec) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        if (chunkSize <= OffHeapHashTable.HEADER) {
+            throw new IllegalArgumentException("Chunk size is too small.");
+        }
+        int tableSize = 2;
+        while (tableSize * OffHeapHashTable.RESIZE_THRESHOLD < capacity) {
+            tableSize <<= 1;
+        }
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.chunkSize = chunkSize;
+        this.allocateTable(tableSize);
+        this.chunks = new ByteBuffer[4];
+        this.chunks[0] = ByteBuffer.allocateDirect(chunkSize);
+        this.numChunks = 1;
+    }
+
+    /**
+     * Creates a new off-heap hash table with the default capacity and chunk size
+     *
+     * @param keyCodec
+     *            Serializes keys
+     * @param valueCodec
+     *            Serializes values
+     */
+    public OffHeapHashTable(Codec<K> keyCodec, Codec<V> valueCodec) {
+        this(OffHeapHashTable.INIT_CAP, OffHeapHashTable.DEFAULT_CHUNK_SIZE, keyCodec, valueCodec);
+    }
+
+    /**
+     * Allocates an empty bucket index of the given size
+     *
+     * @param tableSize
+     *            The size of the index; must be a power of two
+     */
+    private void allocateTable(int tableSize) {
+        this.table = new long[tableSize];
+        Arrays.fill(this.table, OffHeapHashTable.NIL);
+        this.shift = 32 - Integer.numberOfTrailingZeros(tableSize);
+    }
+
+    @Override
+    public void insert(K key, V value) {
+        if (this.garbageBytes > this.usedBytes / 2 && this.garbageBytes > this.chunkSize) {
+            this.compact();
+        }
+        byte[] k = this.keyCodec.encode(key);
+        byte[] v = this.valueCodec.encode(value);
+        int hash = Arrays.hashCode(k);
+        int index = this.compress(hash);
+
+        long prev = OffHeapHashTable.NIL;
+        long addr = this.table[index];
+        while (addr != OffHeapHashTable.NIL) {
+            if (this.keyEquals(addr, hash, k)) {
+                this.replaceValue(index, prev, addr, k, v);
+                return;
+            }
+            prev = addr;
+            addr = this.getLong(addr, OffHeapHashTable.NEXT);
+        }
+
+        long rec = this.append(hash, k, v, this.table[index]);
+        this.table[index] = rec;
+        this.numElements++;
+        if (this.numElements > this.table.length * OffHeapHashTable.RESIZE_THRESHOLD) {
+            this.resize();
+        }
+    }
+
+    @Override
+    public V lookUp(K key) {
+        byte[] k = this.keyCodec.encode(key);
+        long addr = this.find(k);
+        if (addr == OffHeapHashTable.NIL) {
+            return null;
+        }
+        return this.readValue(addr);
+    }
+
+    @Override
+    public V remove(K key) {
+        byte[] k = this.keyCodec.encode(key);
+        int hash = Arrays.hashCode(k);
+        int index = this.compress(hash);
+
+        long prev = OffHeapHashTable.NIL;
+        long addr = this.table[index];
+        while (addr != OffHeapHashTable.NIL) {
+            if (this.keyEquals(addr, hash, k)) {
+                V temp = this.readValue(addr);
+                this.link(index, prev, this.getLong(addr, OffHeapHashTable.NEXT));
+                this.garbageBytes += this.recordSize(addr);
+                this.numElements--;
+                return temp;
+            }
+            prev = addr;
+            addr = this.getLong(addr, OffHeapHashTable.NEXT);
+        }
+        return null;
+    }
+
+    @Override
+    public V update(K key, V value) {
+        byte[] k = this.keyCodec.encode(key);
+        int hash = Arrays.hashCode(k);
+        int index = this.compress(hash);
+
+        long prev = OffHeapHashTable.NIL;
+        long addr = this.table[index];
+        while (addr != OffHeapHashTable.NIL) {
+            if (this.keyEquals(addr, hash, k)) {
+                V temp = this.readValue(addr);
+                this.replaceValue(index, prev, addr, k, this.valueCodec.encode(value));
+                return temp;
+            }
+            prev = addr;
+            addr = this.getLong(addr, OffHeapHashTable.NEXT);
+        }
+        return null;
+    }
+
+    /**
+     * Finds the record with the given serialized key
+     *
+     * @param k
+     *            The serialized key
+     * @return The address of the record, or NIL if the key is not in the table
+     */
+    protected long find(byte[] k) {
+        int hash = Arrays.hashCode(k);
+        long addr = this.table[this.compress(hash)];
+        while (addr != OffHeapHashTable.NIL) {
+            if (this.keyEquals(addr, hash, k)) {
+                return addr;
+            }
+            addr = this.getLong(addr, OffHeapHashTable.NEXT);
+        }
+        return OffHeapHashTable.NIL;
+    }
+
+    /**
+     * Replaces the value of a record. The new value is written in place if it is
+     * no longer than the old one; otherwise a new record takes the old one's place
+     * in its chain.
+     *
+     * @param index
+     *            The bucket of the record
+     * @param prev
+     *            The record before it in the chain, or NIL
+     * @param addr
+     *            The record
+     * @param k
+     *            The serialized key
+     * @param v
+     *            The serialized new value
+     */
+    private void replaceValue(int index, long prev, long addr, byte[] k, byte[] v) {
+        int oldLength = this.getInt(addr, OffHeapHashTable.VALUE_LENGTH);
+        if (v.length <= oldLength) {
+            this.putInt(addr, OffHeapHashTable.VALUE_LENGTH, v.length);
+            this.putBytes(addr, OffHeapHashTable.HEADER + k.length, v);
+            this.garbageBytes += oldLength - v.length;
+            return;
+        }
+        long rec = this.append(this.getInt(addr, OffHeapHashTable.HASH), k, v,
+                this.getLong(addr, OffHeapHashTable.NEXT));
+        this.link(index, prev, rec);
+        this.garbageBytes += this.recordSize(addr);
+    }
+
+    /**
+     * Points either a bucket or a record at the given address
+     *
+     * @param index
+     *            The bucket to update if prev is NIL
+     * @param prev
+     *            The record to update, or NIL
+     * @param addr
+     *            The address to link to
+     */
+    private void link(int index, long prev, long addr) {
+        if (prev == OffHeapHashTable.NIL) {
+            this.table[index] = addr;
+        } else {
+            this.putLong(prev, OffHeapHashTable.NEXT, addr);
+        }
+    }
+
+    /**
+     * Returns whether or not the record at the given address has the given key
+     *
+     * @param addr
+     *            The record
+     * @param hash
+     *            The hash of the key
+     * @param k
+     *            The serialized key
+     * @return Whether or not the record holds the key
+     */
+    private boolean keyEquals(long addr, int hash, byte[] k) {
+        if (this.getInt(addr, OffHeapHashTable.HASH) != hash
+                || this.getInt(addr, OffHeapHashTable.KEY_LENGTH) != k.length) {
+            return false;
+        }
+        ByteBuffer chunk = this.chunks[(int) (addr >>> 32)];
+        int offset = (int) addr + OffHeapHashTable.HEADER;
+        for (int i = 0; i < k.length; i++) {
+            if (chunk.get(offset + i) != k[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deserializes the value of a record
+     *
+     * @param addr
+     *            The record
+     * @return The value of the record
+     */
+    private V readValue(long addr) {
+        int keyLength = this.getInt(addr, OffHeapHashTable.KEY_LENGTH);
+        byte[] v = new byte[this.getInt(addr, OffHeapHashTable.VALUE_LENGTH)];
+        this.chunks[(int) (addr >>> 32)].get((int) addr + OffHeapHashTable.HEADER + keyLength, v);
+        return this.valueCodec.decode(v);
+    }
+
+    /**
+     * Appends a record to the arena
+     *
+     * @param hash
+     *            The hash of the key
+     * @param k
+     *            The serialized key
+     * @param v
+     *            The serialized value
+     * @param next
+     *            The next record in the chain
+     * @return The address of the new record
+     */
+    private long append(int hash, byte[] k, byte[] v, long next) {
+        int size = OffHeapHashTable.HEADER + k.length + v.length;
+        if (size > this.chunkSize) {
+            throw new IllegalArgumentException("Entry does not fit in an arena chunk.");
+        }
+        if (this.chunkOffset + size > this.chunkSize) {
+            if (this.numChunks == this.chunks.length) {
+                this.chunks = Arrays.copyOf(this.chunks, this.chunks.length * 2);
+            }
+            this.chunks[this.numChunks++] = ByteBuffer.allocateDirect(this.chunkSize);
+            this.chunkOffset = 0;
+        }
+        long addr = ((long) (this.numChunks - 1) << 32) | this.chunkOffset;
+        this.putLong(addr, OffHeapHashTable.NEXT, next);
+        this.putInt(addr, OffHeapHashTable.HASH, hash);
+        this.putInt(addr, OffHeapHashTable.KEY_LENGTH, k.length);
+        this.putInt(addr, OffHeapHashTable.VALUE_LENGTH, v.length);
+        this.putBytes(addr, OffHeapHashTable.HEADER, k);
+        this.putBytes(addr, OffHeapHashTable.HEADER + k.length, v);
+        this.chunkOffset += size;
+        this.usedBytes += size;
+        return addr;
+    }
+
+    /**
+     * Returns the number of live bytes of a record
+     *
+     * @param addr
+     *            The record
+     * @return The size of the record
+     */
+    private int recordSize(long addr) {
+        return OffHeapHashTable.HEADER + this.getInt(addr, OffHeapHashTable.KEY_LENGTH)
+                + this.getInt(addr, OffHeapHashTable.VALUE_LENGTH);
+    }
+
+    private long getLong(long addr, int field) {
+        return this.chunks[(int) (addr >>> 32)].getLong((int) addr + field);
+    }
+
+    private int getInt(long addr, int field) {
+        return this.chunks[(int) (addr >>> 32)].getInt((int) addr + field);
+    }
+
+    private void putLong(long addr, int field, long value) {
+        this.chunks[(int) (addr >>> 32)].putLong((int) addr + field, value);
+    }
+
+    private void putInt(long addr, int field, int value) {
+        this.chunks[(int) (addr >>> 32)].putInt((int) addr + field, value);
+    }
+
+    private void putBytes(long addr, int field, byte[] bytes) {
+        this.chunks[(int) (addr >>> 32)].put((int) addr + field, bytes);
+    }
+
+    /**
+     * Compresses a hash into the table using Fibonacci hash compression
+     *
+     * @param hash
+     *            The hash to compress
+     * @return The compressed hash
+     */
+    protected int compress(int hash) {
+        return (hash * OffHeapHashTable.FIB_MULTIPLIER) >>> this.shift;
+    }
+
+    /**
+     * Doubles the size of the bucket index and relinks every record. Records stay
+     * where they are in the arena.
+     */
+    protected void resize() {
+        long[] old = this.table;
+        this.allocateTable(old.length * 2);
+        for (long head : old) {
+            long addr = head;
+            while (addr != OffHeapHashTable.NIL) {
+                long next = this.getLong(addr, OffHeapHashTable.NEXT);
+                int index = this.compress(this.getInt(addr, OffHeapHashTable.HASH));
+                this.putLong(addr, OffHeapHashTable.NEXT, this.table[index]);
+                this.table[index] = addr;
+                addr = next;
+            }
+        }
+    }
+
+    /**
+     * Copies every live record into a fresh arena and releases the old one
+     */
+    public void compact() {
+        ByteBuffer[] oldChunks = this.chunks;
+        long[] old = this.table;
+        this.chunks = new ByteBuffer[4];
+        this.chunks[0] = ByteBuffer.allocateDirect(this.chunkSize);
+        this.numChunks = 1;
+        this.chunkOffset = 0;
+        this.usedBytes = 0;
+        this.garbageBytes = 0;
+        this.allocateTable(old.length);
+
+        for (long head : old) {
+            long addr = head;
+            while (addr != OffHeapHashTable.NIL) {
+                ByteBuffer chunk = oldChunks[(int) (addr >>> 32)];
+                int offset = (int) addr;
+                int hash = chunk.getInt(offset + OffHeapHashTable.HASH);
+                byte[] k = new byte[chunk.getInt(offset + OffHeapHashTable.KEY_LENGTH)];
+                byte[] v = new byte[chunk.getInt(offset + OffHeapHashTable.VALUE_LENGTH)];
+                chunk.get(offset + OffHeapHashTable.HEADER, k);
+                chunk.get(offset + OffHeapHashTable.HEADER + k.length, v);
+
+                int index = this.compress(hash);
+                this.table[index] = this.append(hash, k, v, this.table[index]);
+                addr = chunk.getLong(offset + OffHeapHashTable.NEXT);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of buckets in the hash table
+     *
+     * @return The number of buckets in the hash table
+     */
+    public int getHashTableLength() {
+        return this.table.length;
+    }
+
+    /**
+     * Gets the number of elements in the hash table
+     *
+     * @return The number of elements in the hash table
+     */
+    public int size() {
+        return this.numElements;
+    }
+
+    /**
+     * Gets the number of bytes allocated outside the heap
+     *
+     * @return The size of the arena in bytes
+     */
+    public long offHeapBytes() {
+        return (long) this.numChunks * this.chunkSize;
+    }
+}
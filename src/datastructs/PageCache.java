@@ -0,0 +1,307 @@
+package datastructs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A bounded buffer pool of fixed-size pages of a file. Pages are read into
+ * direct buffers called frames on first use and written back when they are
+ * evicted or flushed, so repeated access to a working set that fits in the
+ * pool never touches the file.
+ *
+ * Eviction follows the clock algorithm: every frame has a reference bit that
+ * is set whenever its page is used, and a hand sweeps the frames, clearing set
+ * bits and evicting the first unpinned frame whose bit is already clear. This
+ * approximates LRU without reordering anything on a hit.
+ *
+ * A page is pinned from pin() until the matching unpin(), and pinned frames
+ * are never evicted, so a caller may hold the buffers of several pages at
+ * once. Frames are allocated as they are first needed, up to the capacity.
+ *
+ * @author Neil Dey
+ */
+public class PageCache {
+
+    /** The file the pages belong to **/
+    protected final FileChannel channel;
+    /** The size of a page in bytes **/
+    protected final int pageSize;
+    /** The page number of a frame that holds no page **/
+    protected static final long NO_PAGE = -1;
+
+    /** The frames allocated so far; at most capacity **/
+    protected final Frame[] frames;
+    /** The number of frames allocated so far **/
+    protected int numFrames;
+    /** The frame holding each cached page **/
+    protected final LongObjectHashTable<Frame> pageTable;
+    /** The next frame the clock hand looks at **/
+    protected int hand;
+
+    /** The number of pins that found their page in the pool **/
+    protected long hits;
+    /** The number of pins that had to read their page from the file **/
+    protected long misses;
+    /** The number of pages evicted from the pool **/
+    protected long evictions;
+
+    /**
+     * Creates an empty pool for the pages of a file
+     *
+     * @param channel
+     *            The file; must be open for reading and writing
+     * @param pageSize
+     *            The size of a page in bytes
+     * @param capacity
+     *            The maximum number of pages held in memory
+     */
+    public PageCache(FileChannel channel, int pageSize, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.channel = channel;
+        this.pageSize = pageSize;
+        this.frames = new Frame[capacity];
+        this.pageTable = new LongObjectHashTable<Frame>(capacity);
+    }
+
+    /**
+     * Pins a page, reading it from the file if it is not in the pool. Parts of
+     * the page beyond the end of the file read as zeros.
+     *
+     * @param page
+     *            The number of the page
+     * @return The contents of the page, valid until the page is unpinned
+     * @throws IOException
+     *             If the page cannot be read, or a dirty page cannot be written
+     *             back to make room for it
+     */
+    public ByteBuffer pin(long page) throws IOException {
+        Frame f = this.pageTable.lookUp(page);
+        if (f != null) {
+            this.hits++;
+        } else {
+            this.misses++;
+            f = this.claim(page);
+            ByteBuffer b = f.buffer;
+            b.clear();
+            long position = page * this.pageSize;
+            try {
+                while (b.hasRemaining()) {
+                    if (this.channel.read(b, position + b.position()) < 0) {
+                        while (b.hasRemaining()) {
+                            b.put((byte) 0);
+                        }
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // The frame holds none of the page, so it must not be found as a hit
+                this.pageTable.remove(page);
+                f.page = PageCache.NO_PAGE;
+                throw e;
+            }
+        }
+        f.pins++;
+        f.referenced = true;
+        return f.buffer;
+    }
+
+    /**
+     * Pins a page that is about to be overwritten without reading it
+     *
+     * @param page
+     *            The number of the page
+     * @return A zeroed buffer for the page, valid until the page is unpinned
+     * @throws IOException
+     *             If a dirty page cannot be written back to make room for it
+     */
+    public ByteBuffer pinNew(long page) throws IOException {
+        Frame f = this.pageTable.lookUp(page);
+        if (f == null) {
+            f = this.claim(page);
+        }
+        ByteBuffer b = f.buffer;
+        int i = 0;
+        for (; i + 8 <= this.pageSize; i += 8) {
+            b.putLong(i, 0);
+        }
+        for (; i < this.pageSize; i++) {
+            b.put(i, (byte) 0);
+        }
+        f.pins++;
+        f.referenced = true;
+        f.dirty = true;
+        return b;
+    }
+
+    /**
+     * Releases a pin on a page
+     *
+     * @param page
+     *            The number of the page; must be pinned
+     * @param dirty
+     *            Whether or not the page was modified while it was pinned
+     */
+    public void unpin(long page, boolean dirty) {
+        Frame f = this.pageTable.lookUp(page);
+        if (f == null || f.pins == 0) {
+            throw new IllegalStateException("Page " + page + " is not pinned.");
+        }
+        f.pins--;
+        f.dirty |= dirty;
+    }
+
+    /**
+     * Writes every modified page in the pool back to the file
+     *
+     * @throws IOException
+     *             If a page cannot be written
+     */
+    public void flush() throws IOException {
+        for (int i = 0; i < this.numFrames; i++) {
+            if (this.frames[i].dirty) {
+                this.write(this.frames[i]);
+            }
+        }
+    }
+
+    /**
+     * Finds a frame for a page that is not in the pool: a new frame while there
+     * is room for one, and otherwise the frame the clock hand settles on
+     *
+     * @param page
+     *            The number of the page
+     * @return The frame, now holding the page
+     * @throws IOException
+     *             If the evicted page was modified and cannot be written
+     */
+    private Frame claim(long page) throws IOException {
+        Frame f;
+        if (this.numFrames < this.frames.length) {
+            f = new Frame(ByteBuffer.allocateDirect(this.pageSize));
+            this.frames[this.numFrames++] = f;
+        } else {
+            f = null;
+            // Two sweeps clear every reference bit, so the hand must stop by then
+            for (int step = 0; step < 2 * this.frames.length; step++) {
+                Frame c = this.frames[this.hand];
+                this.hand = (this.hand + 1) % this.frames.length;
+                if (c.pins > 0) {
+                    continue;
+                }
+                if (c.referenced) {
+                    c.referenced = false;
+                    continue;
+                }
+                f = c;
+                break;
+            }
+            if (f == null) {
+                throw new IllegalStateException("Every page in the cache is pinned.");
+            }
+            if (f.dirty) {
+                this.write(f);
+            }
+            if (f.page != PageCache.NO_PAGE) {
+                this.pageTable.remove(f.page);
+                this.evictions++;
+            }
+        }
+        f.page = page;
+        this.pageTable.insert(page, f);
+        return f;
+    }
+
+    /**
+     * Writes a frame to its page of the file and marks it clean
+     *
+     * @param f
+     *            The frame
+     * @throws IOException
+     *             If the page cannot be written
+     */
+    private void write(Frame f) throws IOException {
+        ByteBuffer b = f.buffer.duplicate();
+        b.clear();
+        long position = f.page * this.pageSize;
+        while (b.hasRemaining()) {
+            this.channel.write(b, position + b.position());
+        }
+        f.dirty = false;
+    }
+
+    /**
+     * Gets the size of a page
+     *
+     * @return The size of a page in bytes
+     */
+    public int getPageSize() {
+        return this.pageSize;
+    }
+
+    /**
+     * Gets the maximum number of pages held in memory
+     *
+     * @return The capacity of the pool
+     */
+    public int getCapacity() {
+        return this.frames.length;
+    }
+
+    /**
+     * Gets the number of pins that found their page in the pool
+     *
+     * @return The number of hits
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Gets the number of pins that read their page from the file
+     *
+     * @return The number of misses
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Gets the number of pages evicted from the pool
+     *
+     * @return The number of evictions
+     */
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * A buffer holding one page of the file
+     *
+     * @author Neil Dey
+     *
+     */
+    protected static class Frame {
+        /** The contents of the page **/
+        protected final ByteBuffer buffer;
+        /** The number of the page held by the frame, or NO_PAGE **/
+        protected long page;
+        /** The number of pins on the page **/
+        protected int pins;
+        /** Whether or not the page has been used since the clock hand last passed **/
+        protected boolean referenced;
+        /** Whether or not the page differs from the file **/
+        protected boolean dirty;
+
+        /**
+         * Creates a frame around the given buffer
+         *
+         * @param buffer
+         *            A buffer of one page
+         */
+        protected Frame(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package datastructs;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An open-addressing hash table that uses Robin Hood linear probing with
+ * backward-shift deletion. Keys, values, and hashes are kept in parallel flat
+ * arrays in the order they were inserted; the probe table only stores indices
+ * into those arrays. Neither insert nor lookUp allocates a node.
+ *
+ * Like HashTable, iteration visits the most recently inserted entry first.
+ * Unlike HashTable, inserting a key that is already present replaces its value
+ * instead of adding a second entry.
+ *
+ * @author Neil Dey
+ *
+ * @param <K>
+ *            The generic type for keys
+ * @param <V>
+ *            The generic type for values
+ */
+public class RobinHoodHashTable<K, V> implements Dictionary<K, V>, Iterable<RobinHoodHashTable<K, V>.Entry> {
+
+    /** The load factor of the probe table at which the hash table resizes **/
+    protected static final double RESIZE_THRESHOLD = 0.875;
+    /** The initial capacity of the hash table **/
+    protected static final int INIT_CAP = 16;
+    /** 2^32 divided by the golden ratio; the integer form of Fibonacci hashing **/
+    protected static final int FIB_MULTIPLIER = 0x9E3779B9;
+    /** Marks a slot in the probe table that holds no entry **/
+    protected static final int EMPTY = -1;
+
+    /** The probe table; each slot holds an index into the entry arrays **/
+    protected int[] slots;
+    /** slots.length - 1 **/
+    protected int mask;
+    /** The shift that maps a multiplied hash onto the probe table **/
+    protected int shift;
+
+    /** The keys of the entries in insertion order; null once removed **/
+    protected Object[] keys;
+    /** The values of the entries in insertion order **/
+    protected Object[] values;
+    /** The cached hash codes of the keys **/
+    protected int[] hashes;
+    /** The number of entry slots used so far, including removed entries **/
+    protected int numEntries;
+    /** The number of elements in the hash table **/
+    protected int numElements;
+
+    /**
+     * Creates a new hash table that can hold the given number of elements before
+     * resizing
+     *
+     * @param capacity
+     *            The capacity of the hash table
+     */
+    public RobinHoodHashTable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        int tableSize = 2;
+        while (tableSize * RobinHoodHashTable.RESIZE_THRESHOLD < capacity) {
+            tableSize <<= 1;
+        }
+        this.allocate(tableSize);
+    }
+
+    /**
+     * Creates a new hash table with the default initial capacity
+     */
+    public RobinHoodHashTable() {
+        this(RobinHoodHashTable.INIT_CAP);
+    }
+
+    /**
+     * Allocates an empty probe table of the given size and entry arrays to match
+     *
+     * @param tableSize
+     *            The size of the probe table; must be a power of two
+     */
+    private void allocate(int tableSize) {
+        this.slots = new int[tableSize];
+        Arrays.fill(this.slots, RobinHoodHashTable.EMPTY);
+        this.mask = tableSize - 1;
+        this.shift = 32 - Integer.numberOfTrailingZeros(tableSize);
+
+        int entryCap = Math.max(1, (int) (tableSize * RobinHoodHashTable.RESIZE_THRESHOLD));
+        this.keys = new Object[entryCap];
+        this.values = new Object[entryCap];
+        this.hashes = new int[entryCap];
+        this.numEntries = 0;
+        this.numElements = 0;
+    }
+
+    @Override
+    public void insert(K key, V value) {
+        int hash = key.hashCode();
+        int i = this.compress(hash);
+        int dist = 0;
+        while (true) {
+            int e = this.slots[i];
+            if (e == RobinHoodHashTable.EMPTY) {
+                break;
+            }
+            if (this.hashes[e] == hash && key.equals(this.keys[e])) {
+                this.values[e] = value;
+                return;
+            }
+            if (this.probeDistance(i, e) < dist) {
+                break;
+            }
+            i = (i + 1) & this.mask;
+            dist++;
+        }
+
+        if (this.numEntries == this.keys.length) {
+            this.resize();
+            this.insert(key, value);
+            return;
+        }
+
+        int entry = this.numEntries++;
+        this.keys[entry] = key;
+        this.values[entry] = value;
+        this.hashes[entry] = hash;
+        this.place(entry, i, dist);
+        this.numElements++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V lookUp(K key) {
+        int slot = this.find(key);
+        if (slot == RobinHoodHashTable.EMPTY) {
+            return null;
+        }
+        return (V) this.values[this.slots[slot]];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        int slot = this.find(key);
+        if (slot == RobinHoodHashTable.EMPTY) {
+            return null;
+        }
+        int e = this.slots[slot];
+        V temp = (V) this.values[e];
+        this.keys[e] = null;
+        this.values[e] = null;
+
+        // Shift the rest of the cluster back by one until an entry is at home
+        int next = (slot + 1) & this.mask;
+        while (this.slots[next] != RobinHoodHashTable.EMPTY && this.probeDistance(next, this.slots[next]) != 0) {
+            this.slots[slot] = this.slots[next];
+            slot = next;
+            next = (next + 1) & this.mask;
+        }
+        this.slots[slot] = RobinHoodHashTable.EMPTY;
+
+        this.numElements--;
+        return temp;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V update(K key, V value) {
+        int slot = this.find(key);
+        if (slot == RobinHoodHashTable.EMPTY) {
+            return null;
+        }
+        int e = this.slots[slot];
+        V temp = (V) this.values[e];
+        this.values[e] = value;
+        return temp;
+    }
+
+    /**
+     * Finds the slot of the probe table that refers to the given key
+     *
+     * @param key
+     *            The key to search for
+     * @return The slot holding the key, or EMPTY if the key is not in the table
+     */
+    protected int find(Object key) {
+        int hash = key.hashCode();
+        int i = this.compress(hash);
+        for (int dist = 0;; dist++) {
+            int e = this.slots[i];
+            if (e == RobinHoodHashTable.EMPTY) {
+                return RobinHoodHashTable.EMPTY;
+            }
+            if (this.hashes[e] == hash && key.equals(this.keys[e])) {
+                return i;
+            }
+            // Robin Hood invariant: the key would have displaced this entry
+            if (this.probeDistance(i, e) < dist) {
+                return RobinHoodHashTable.EMPTY;
+            }
+            i = (i + 1) & this.mask;
+        }
+    }
+
+    /**
+     * Places an entry into the probe table starting at slot i, displacing any
+     * entries that are closer to their home slot
+     *
+     * @param entry
+     *            The index of the entry to place
+     * @param i
+     *            The slot to start at
+     * @param dist
+     *            The distance of slot i from the entry's home slot
+     */
+    private void place(int entry, int i, int dist) {
+        while (true) {
+            int e = this.slots[i];
+            if (e == RobinHoodHashTable.EMPTY) {
+                this.slots[i] = entry;
+                return;
+            }
+            int eDist = this.probeDistance(i, e);
+            if (eDist < dist) {
+                this.slots[i] = entry;
+                entry = e;
+                dist = eDist;
+            }
+            i = (i + 1) & this.mask;
+            dist++;
+        }
+    }
+
+    /**
+     * Returns how far the given slot is from the home slot of an entry
+     *
+     * @param slot
+     *            The slot holding the entry
+     * @param entry
+     *            The index of the entry
+     * @return The probe distance of the entry
+     */
+    private int probeDistance(int slot, int entry) {
+        return (slot - this.compress(this.hashes[entry])) & this.mask;
+    }
+
+    /**
+     * Compresses a hash into the probe table using Fibonacci hash compression
+     *
+     * @param hash
+     *            The hash to compress
+     * @return The compressed hash
+     */
+    protected int compress(int hash) {
+        return (hash * RobinHoodHashTable.FIB_MULTIPLIER) >>> this.shift;
+    }
+
+    /**
+     * Rebuilds the hash table once the entry arrays are full. If many entries have
+     * been removed, the entry arrays are compacted in place; otherwise the table
+     * doubles in size. Insertion order is kept either way.
+     */
+    protected void resize() {
+        Object[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        int[] oldHashes = this.hashes;
+        int oldEntries = this.numEntries;
+
+        int tableSize = this.slots.length;
+        if (this.numElements >= oldKeys.length / 2) {
+            tableSize <<= 1;
+        }
+        this.allocate(tableSize);
+
+        for (int e = 0; e < oldEntries; e++) {
+            if (oldKeys[e] == null) {
+                continue;
+            }
+            int entry = this.numEntries++;
+            this.keys[entry] = oldKeys[e];
+            this.values[entry] = oldValues[e];
+            this.hashes[entry] = oldHashes[e];
+            this.place(entry, this.compress(oldHashes[e]), 0);
+        }
+        this.numElements = this.numEntries;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append("{ ");
+        for (Entry e : this) {
+            s.append(e.toString() + " ");
+        }
+        s.append("}");
+        return s.toString();
+    }
+
+    /**
+     * Gets the length of the probe table
+     *
+     * @return The length of the probe table
+     */
+    public int getHashTableLength() {
+        return this.slots.length;
+    }
+
+    /**
+     * Gets the number of elements in the hash table
+     *
+     * @return The number of elements in the hash table
+     */
+    public int size() {
+        return this.numElements;
+    }
+
+    @Override
+    public Iterator<RobinHoodHashTable<K, V>.Entry> iterator() {
+        Iterator<RobinHoodHashTable<K, V>.Entry> it = new Iterator<RobinHoodHashTable<K, V>.Entry>() {
+            private int cur = this.skip(RobinHoodHashTable.this.numEntries - 1);
+
+            private int skip(int e) {
+                while (e >= 0 && RobinHoodHashTable.this.keys[e] == null) {
+                    e--;
+                }
+                return e;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.cur >= 0;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Entry next() {
+                if (this.cur < 0) {
+                    throw new NoSuchElementException();
+                }
+                Entry e = new Entry((K) RobinHoodHashTable.this.keys[this.cur],
+                        (V) RobinHoodHashTable.this.values[this.cur]);
+                this.cur = this.skip(this.cur - 1);
+                return e;
+            }
+        };
+        return it;
+    }
+
+    /**
+     * A key/value pair returned while iterating over the hash table
+     *
+     * @author Neil Dey
+     *
+     */
+    public class Entry {
+        /** The key of the entry **/
+        public final K key;
+        /** The value of the entry **/
+        public final V value;
+
+        /**
+         * Creates a new Entry with the given key and value
+         *
+         * @param key
+         *            The key of the entry
+         * @param value
+         *            The value of the entry
+         */
+        public Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + this.key.toString() + ", " + this.value.toString() + ")";
+        }
+    }
+}
@@ -1,9 +1,20 @@
 package datastructs;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * A skip list that allows duplicate values. This is an implementation of the
  * dictionary abstract data type.
  * 
+ * In multimap mode, each distinct key has a single tower, and once a key has
+ * a second value, its values are kept in a CompactSkipList hanging off its
+ * bottom-level node; a key with one value needs no container. A duplicate
+ * insert then costs O(log n + log d) for a key with d values instead
+ * of a walk past every equal key, and values(key) reads every value of a key in
+ * order. The bottom-level node holds the smallest value, so look ups are
+ * unchanged.
+ * 
  * @author Neil Dey
  * @param <K>
  *            The generic type for keys. Keys must implement Comparable.
@@ -22,17 +33,47 @@ public class SkipList<K extends Comparable<K>, V extends Comparable<V>> implemen
     private Node tail;
     /** The height of the skip list **/
     private int height;
+    /** Whether or not each key keeps all of its values in one container **/
+    private final boolean multimap;
+    /** Picks the height of each new tower **/
+    private final LevelGenerator levels;
 
     /**
      * Initializes the skip list with a height of one and with the POS_INFTY and
      * NEG_INFTY entries
+     * 
+     * @param multimap
+     *            Whether or not to keep the values of each key in one container
+     * @param levels
+     *            Picks the height of each new tower; a seeded generator makes
+     *            the shape of the skip list reproducible
      */
-    public SkipList() {
+    public SkipList(boolean multimap, LevelGenerator levels) {
         this.head = new Node(negInfty, null);
         this.tail = new Node(posInfty, null);
         head.next = tail;
         tail.prev = head;
         this.height = 1;
+        this.multimap = multimap;
+        this.levels = levels;
+    }
+
+    /**
+     * Initializes an empty skip list whose towers are promoted with probability
+     * one half, up to LevelGenerator.DEFAULT_MAX_HEIGHT levels
+     * 
+     * @param multimap
+     *            Whether or not to keep the values of each key in one container
+     */
+    public SkipList(boolean multimap) {
+        this(multimap, new LevelGenerator());
+    }
+
+    /**
+     * Initializes an empty skip list that keeps one tower per entry
+     */
+    public SkipList() {
+        this(false);
     }
 
     /**
@@ -109,10 +150,167 @@ public class SkipList<K extends Comparable<K>, V extends Comparable<V>> implemen
      *            The value that the key matches to
      */
     public void insert(K key, V value) {
+        if (this.multimap) {
+            Node p = this.getNodeAtMost(key);
+            if (p.key != negInfty && p.key.compareTo(key) == 0) {
+                this.addToBucket(p, value);
+            } else {
+                this.insertAfter(p, key, value);
+            }
+            return;
+        }
         Node p = getNodeAtMost(key, value);
         if (p.key != negInfty && p.key.compareTo(key) == 0) {
             p = p.prev;
         }
+        this.insertAfter(p, key, value);
+    }
+
+    /**
+     * Inserts the entries in ascending key order, resuming each search from where
+     * the previous one ended instead of from the head
+     * 
+     * @param keys
+     *            The keys of the entries
+     * @param values
+     *            The values of the entries; must be as long as keys
+     */
+    @Override
+    public void insertAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+        Node finger = this.bottomHead();
+        for (int i : Batches.sortedOrder(keys)) {
+            finger = this.getNodeBefore(finger, keys[i]);
+            Node n = finger.next;
+            if (this.multimap && n.key != posInfty && n.key.compareTo(keys[i]) == 0) {
+                this.addToBucket(n, values[i]);
+            } else {
+                this.insertAfter(finger, keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Looks up the keys in ascending order, resuming each search from where the
+     * previous one ended instead of from the head
+     * 
+     * @param keys
+     *            The keys to search for
+     * @param results
+     *            Receives the values; must be at least as long as keys
+     */
+    @Override
+    public void lookUpAll(K[] keys, V[] results) {
+        Node finger = this.bottomHead();
+        for (int i : Batches.sortedOrder(keys)) {
+            finger = this.getNodeBefore(finger, keys[i]);
+            Node n = finger.next;
+            if (n.key != posInfty && n.key.compareTo(keys[i]) == 0) {
+                results[i] = n.value;
+            } else {
+                results[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Removes the keys in ascending order, resuming each search from where the
+     * previous one ended instead of from the head
+     * 
+     * @param keys
+     *            The keys of the entries to remove
+     * @param results
+     *            Receives the removed values, or null to discard them
+     */
+    @Override
+    public void removeAll(K[] keys, V[] results) {
+        Node finger = this.bottomHead();
+        for (int i : Batches.sortedOrder(keys)) {
+            finger = this.getNodeBefore(finger, keys[i]);
+            Node n = finger.next;
+            V temp = null;
+            if (n.key != posInfty && n.key.compareTo(keys[i]) == 0) {
+                temp = this.removeFirst(n);
+            }
+            if (results != null) {
+                results[i] = temp;
+            }
+        }
+    }
+
+    /**
+     * Returns the first node of the bottom level, which holds NEG_INFTY
+     * 
+     * @return The bottom-level head
+     */
+    private Node bottomHead() {
+        Node p = head;
+        while (p.down != null) {
+            p = p.down;
+        }
+        return p;
+    }
+
+    /**
+     * Returns the last node in the bottom level whose key is less than the given
+     * key, searching from a finger instead of from the head. The search climbs
+     * from the finger, forward or backward, until it is on a level where the key
+     * is close, and then descends, so it costs O(log d) where d is the distance
+     * from the finger to the key.
+     * 
+     * @param finger
+     *            A bottom-level node that is in the skip list, or the
+     *            bottom-level head
+     * @param key
+     *            The key to search for
+     * @return The last bottom-level node whose key is less than the key
+     */
+    private Node getNodeBefore(Node finger, K key) {
+        Node p = finger;
+        if (p.key != negInfty && p.key.compareTo(key) >= 0) {
+            // The key is behind the finger: climb backward until a smaller key
+            while (p.key != negInfty && p.key.compareTo(key) >= 0) {
+                if (p.up != null) {
+                    p = p.up;
+                } else {
+                    p = p.prev;
+                }
+            }
+        } else {
+            while (p.next.key != posInfty && p.next.key.compareTo(key) < 0) {
+                if (p.up != null) {
+                    p = p.up;
+                } else {
+                    p = p.next;
+                }
+            }
+        }
+        while (true) {
+            if (p.next.key != posInfty && p.next.key.compareTo(key) < 0) {
+                p = p.next;
+            } else if (p.down == null) {
+                return p;
+            } else {
+                p = p.down;
+            }
+        }
+    }
+
+    /**
+     * Inserts an entry into the bottom level after the given node, past any equal
+     * keys with smaller values, and promotes it to a random height
+     * 
+     * @param p
+     *            The bottom-level node to insert after; its key must not be
+     *            greater than the new key
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     */
+    private void insertAfter(Node p, K key, V value) {
         // This is the bottleneck
         while (p.next.key != posInfty && p.next.key.compareTo(key) == 0 && p.next.value.compareTo(value) < 0) {
             p = p.next;
@@ -122,27 +320,14 @@ public class SkipList<K extends Comparable<K>, V extends Comparable<V>> implemen
         p.next.prev = n;
         p.next = n;
 
+        int towerHeight = this.levels.nextHeight();
         int heightSoFar = 1;
         p = n;
         Node r = n.next;
-        while (Math.random() < 0.5) {
+        while (heightSoFar < towerHeight) {
             // If we need to add another level to the skip list
             if (heightSoFar >= height) {
-                Node temp = new Node(negInfty, null);
-                temp.down = head;
-                head.up = temp;
-                head = temp;
-
-                temp = new Node(posInfty, null);
-                temp.down = tail;
-                tail.up = temp;
-                tail = temp;
-
-                head.next = tail;
-                tail.prev = head;
-
-                temp = null;
-                this.height++;
+                this.addLevel();
             }
 
             p.up = new Node(key, value);
@@ -162,12 +347,153 @@ public class SkipList<K extends Comparable<K>, V extends Comparable<V>> implemen
         }
     }
 
+    /**
+     * Adds an empty level with new NEG_INFTY and POS_INFTY nodes on top of the
+     * skip list
+     */
+    private void addLevel() {
+        Node temp = new Node(negInfty, null);
+        temp.down = head;
+        head.up = temp;
+        head = temp;
+
+        temp = new Node(posInfty, null);
+        temp.down = tail;
+        tail.up = temp;
+        tail = temp;
+
+        head.next = tail;
+        tail.prev = head;
+
+        this.height++;
+    }
+
+    /**
+     * Builds a skip list from entries that are already sorted by key and then by
+     * value, in a single pass. Instead of searching for every entry and flipping
+     * coins, the towers are built bottom-up along the right edge of the list, and
+     * the i-th distinct key (counting from 1) gets a tower one level taller than
+     * the number of times 2 divides i. The result is a perfectly balanced skip
+     * list, built in O(n) time.
+     * 
+     * @param keys
+     *            The keys, in ascending order
+     * @param values
+     *            The values, in the same order as their keys; ascending among
+     *            equal keys unless multimap is true
+     * @param multimap
+     *            Whether or not to build the skip list in multimap mode
+     * @param <K>
+     *            The generic type for keys
+     * @param <V>
+     *            The generic type for values
+     * @return The new skip list
+     */
+    public static <K extends Comparable<K>, V extends Comparable<V>> SkipList<K, V> fromSorted(Iterator<K> keys,
+            Iterator<V> values, boolean multimap) {
+        SkipList<K, V> list = new SkipList<K, V>(multimap);
+        return list.buildFromSorted(keys, values);
+    }
+
+    /**
+     * Builds a skip list from entries that are already sorted by key and then by
+     * value, in a single pass
+     * 
+     * @param keys
+     *            The keys, in ascending order
+     * @param values
+     *            The values, in the same order as their keys; ascending among
+     *            equal keys
+     * @param <K>
+     *            The generic type for keys
+     * @param <V>
+     *            The generic type for values
+     * @return The new skip list
+     */
+    public static <K extends Comparable<K>, V extends Comparable<V>> SkipList<K, V> fromSorted(Iterator<K> keys,
+            Iterator<V> values) {
+        return SkipList.fromSorted(keys, values, false);
+    }
+
+    /**
+     * Appends sorted entries to this empty skip list, level by level along its
+     * right edge
+     * 
+     * @param keys
+     *            The keys, in ascending order
+     * @param values
+     *            The values, in the same order as their keys
+     * @return This skip list
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private SkipList<K, V> buildFromSorted(Iterator<K> keys, Iterator<V> values) {
+        // The last node on each level so far, starting with the bottom-level head
+        Node[] last = new SkipList.Node[Integer.SIZE + 1];
+        last[0] = head;
+        Node previous = null;
+        int count = 0;
+        while (keys.hasNext()) {
+            if (!values.hasNext()) {
+                throw new IllegalArgumentException("Keys and values must have the same length.");
+            }
+            K key = keys.next();
+            V value = values.next();
+            if (previous != null) {
+                int c = previous.key.compareTo(key);
+                if (c > 0 || (c == 0 && !this.multimap && previous.value.compareTo(value) > 0)) {
+                    throw new IllegalArgumentException("Entries must be sorted by key and then by value.");
+                }
+                if (c == 0 && this.multimap) {
+                    this.addToBucket(previous, value);
+                    continue;
+                }
+            }
+
+            count++;
+            int towerHeight = Integer.numberOfTrailingZeros(count) + 1;
+            Node below = null;
+            for (int level = 0; level < towerHeight; level++) {
+                if (level >= this.height) {
+                    this.addLevel();
+                    last[level] = head;
+                }
+                Node n = new Node(key, value, null, below, last[level], null);
+                last[level].next = n;
+                if (below != null) {
+                    below.up = n;
+                }
+                last[level] = n;
+                below = n;
+            }
+            previous = last[0];
+        }
+        if (values.hasNext()) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+
+        // Close every level with its POS_INFTY node
+        Node t = tail;
+        for (int level = this.height - 1; level >= 0; level--) {
+            last[level].next = t;
+            t.prev = last[level];
+            t = t.down;
+        }
+        return this;
+    }
+
     public V update(K key, V value) {
         Node p = this.getNodeAtMost(key);
         if (p.key == null) {
             return null;
         }
         V temp = p.value;
+        if (p.bucket != null) {
+            // The container stays sorted, so the new value takes its place among the others
+            p.bucket.remove(temp);
+            p.bucket.insert(value, value);
+            p.value = p.bucket.firstKey();
+            return temp;
+        }
         while (p != null) {
             p.value = value;
             p = p.up;
@@ -181,6 +507,95 @@ public class SkipList<K extends Comparable<K>, V extends Comparable<V>> implemen
         if (p.key == null) {
             return null;
         }
+        return this.removeFirst(p);
+    }
+
+    /**
+     * Removes the first entry of the key of the given bottom-level node. In
+     * multimap mode, the tower is only removed with the last value of its key.
+     * 
+     * @param p
+     *            The bottom-level node of the first entry with a key
+     * @return The value of the removed entry
+     */
+    private V removeFirst(Node p) {
+        if (p.bucket == null) {
+            return this.removeTower(p);
+        }
+        V temp = p.bucket.remove(p.value);
+        p.value = p.bucket.firstKey();
+        if (p.bucket.size() == 1) {
+            p.bucket = null;
+        }
+        return temp;
+    }
+
+    /**
+     * Adds a value to the container of an existing key in multimap mode,
+     * creating the container when the key gets its second value
+     * 
+     * @param p
+     *            The bottom-level node of the key
+     * @param value
+     *            The value to add
+     */
+    private void addToBucket(Node p, V value) {
+        if (p.bucket == null) {
+            p.bucket = new CompactSkipList<V, V>();
+            p.bucket.insert(p.value, p.value);
+        }
+        p.bucket.insert(value, value);
+        if (value.compareTo(p.value) < 0) {
+            p.value = value;
+        }
+    }
+
+    /**
+     * Returns an iterator over every value of the given key, in ascending order.
+     * In multimap mode this reads the key's container; otherwise it follows the
+     * bottom level from the first entry with the key. The skip list must not be
+     * modified while the iterator is in use.
+     * 
+     * @param key
+     *            The key of the values
+     * @return An iterator over the values of the key, which is empty if the key
+     *         doesn't exist
+     */
+    public Iterator<V> values(K key) {
+        Node p = this.getNodeAtMost(key);
+        boolean found = p.key != negInfty && p.key.compareTo(key) == 0;
+        if (found && p.bucket != null) {
+            return p.bucket.values();
+        }
+        final Node first = found ? p : tail;
+        return new Iterator<V>() {
+            private Node cur = first;
+
+            @Override
+            public boolean hasNext() {
+                return this.cur.key != posInfty && this.cur.key.compareTo(key) == 0;
+            }
+
+            @Override
+            public V next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                V value = this.cur.value;
+                this.cur = this.cur.next;
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Unlinks every level of the entry whose bottom-level node is given
+     * 
+     * @param p
+     *            The bottom-level node of the entry
+     * @return The value of the entry
+     */
+    private V removeTower(Node p) {
         V temp = p.value;
         while (p != null) {
             p.down = null;
@@ -191,6 +606,201 @@ public class SkipList<K extends Comparable<K>, V extends Comparable<V>> implemen
         return temp;
     }
 
+    /**
+     * Returns the first entry with the greatest key less than or equal to the
+     * given key
+     * 
+     * @param key
+     *            The key to search for
+     * @return The entry, or null if every key is greater
+     */
+    public Entry floor(K key) {
+        Node p = this.getNodeAtMost(key);
+        if (p.key == negInfty) {
+            return null;
+        }
+        if (p.key.compareTo(key) == 0) {
+            return new Entry(p.key, p.value);
+        }
+        return this.firstEntry(p.key);
+    }
+
+    /**
+     * Returns the first entry with the least key greater than or equal to the
+     * given key
+     * 
+     * @param key
+     *            The key to search for
+     * @return The entry, or null if every key is smaller
+     */
+    public Entry ceiling(K key) {
+        Node p = this.getNodeAtMost(key);
+        if (p.key == negInfty || p.key.compareTo(key) < 0) {
+            p = p.next;
+        }
+        if (p.key == posInfty) {
+            return null;
+        }
+        return new Entry(p.key, p.value);
+    }
+
+    /**
+     * Returns the first entry with the least key strictly greater than the given
+     * key
+     * 
+     * @param key
+     *            The key to search for
+     * @return The entry, or null if no key is greater
+     */
+    public Entry higher(K key) {
+        Node p = this.getLastNodeAtMost(key).next;
+        if (p.key == posInfty) {
+            return null;
+        }
+        return new Entry(p.key, p.value);
+    }
+
+    /**
+     * Returns the first entry with the greatest key strictly less than the given
+     * key
+     * 
+     * @param key
+     *            The key to search for
+     * @return The entry, or null if no key is smaller
+     */
+    public Entry lower(K key) {
+        Node p = this.getNodeAtMost(key);
+        if (p.key != negInfty && p.key.compareTo(key) == 0) {
+            p = p.prev;
+        }
+        if (p.key == negInfty) {
+            return null;
+        }
+        return this.firstEntry(p.key);
+    }
+
+    /**
+     * Returns the entry with the smallest key and, among those, the smallest
+     * value
+     * 
+     * @return The first entry, or null if the skip list is empty
+     */
+    public Entry first() {
+        Node p = this.bottomHead().next;
+        if (p.key == posInfty) {
+            return null;
+        }
+        return new Entry(p.key, p.value);
+    }
+
+    /**
+     * Returns the first entry with the greatest key
+     * 
+     * @return The entry, or null if the skip list is empty
+     */
+    public Entry last() {
+        Node p = head;
+        while (true) {
+            if (p.next.key != posInfty) {
+                p = p.next;
+            } else if (p.down == null) {
+                break;
+            } else {
+                p = p.down;
+            }
+        }
+        if (p.key == negInfty) {
+            return null;
+        }
+        return this.firstEntry(p.key);
+    }
+
+    /**
+     * Returns an iterator over the entries with keys from the first key,
+     * inclusive, to the second, exclusive, in ascending order. Finding the first
+     * entry takes O(log n) time; every further entry is produced lazily by
+     * following the bottom level. The skip list must not be modified while the
+     * iterator is in use.
+     * 
+     * @param from
+     *            The smallest key to include
+     * @param to
+     *            The key at which to stop
+     * @return An iterator over the entries in the range
+     */
+    public Iterator<SkipList<K, V>.Entry> range(K from, K to) {
+        Node start = this.getNodeAtMost(from);
+        if (start.key == negInfty || start.key.compareTo(from) < 0) {
+            start = start.next;
+        }
+        final Node first = start;
+        return new Iterator<SkipList<K, V>.Entry>() {
+            private Node cur = first;
+            /** The values of the current key when it has a container **/
+            private Iterator<V> bucket = null;
+
+            @Override
+            public boolean hasNext() {
+                return this.cur.key != posInfty && this.cur.key.compareTo(to) < 0;
+            }
+
+            @Override
+            public Entry next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (this.cur.bucket == null) {
+                    Entry e = new Entry(this.cur.key, this.cur.value);
+                    this.cur = this.cur.next;
+                    return e;
+                }
+                if (this.bucket == null) {
+                    this.bucket = this.cur.bucket.values();
+                }
+                Entry e = new Entry(this.cur.key, this.bucket.next());
+                if (!this.bucket.hasNext()) {
+                    this.bucket = null;
+                    this.cur = this.cur.next;
+                }
+                return e;
+            }
+        };
+    }
+
+    /**
+     * Returns the first entry with a key that is known to be in the skip list
+     * 
+     * @param key
+     *            A key in the skip list
+     * @return The first entry with the key
+     */
+    private Entry firstEntry(K key) {
+        Node p = this.getNodeAtMost(key);
+        return new Entry(p.key, p.value);
+    }
+
+    /**
+     * Returns the last node in the bottom level whose key is at most the given
+     * key. Unlike getNodeAtMost(), this skips past every entry with an equal key.
+     * 
+     * @param key
+     *            The key to search for
+     * @return The last bottom-level node whose key is at most the key, or the
+     *         bottom-level head
+     */
+    private Node getLastNodeAtMost(K key) {
+        Node p = head;
+        while (true) {
+            if (p.next.key != posInfty && p.next.key.compareTo(key) <= 0) {
+                p = p.next;
+            } else if (p.down == null) {
+                return p;
+            } else {
+                p = p.down;
+            }
+        }
+    }
+
     // Only necessary for debugging purposes
     public String printAll() {
         StringBuilder s = new StringBuilder();
@@ -200,12 +810,128 @@ public class SkipList<K extends Comparable<K>, V extends Comparable<V>> implemen
         }
         p = p.next;
         while (p.key != posInfty) {
-            s.append(p.value + ", ");
+            if (p.bucket != null) {
+                for (Iterator<V> it = p.bucket.values(); it.hasNext();) {
+                    s.append(it.next() + ", ");
+                }
+            } else {
+                s.append(p.value + ", ");
+            }
             p = p.next;
         }
         return s.toString();
     }
 
+    /**
+     * Returns a cursor that starts before the first entry
+     * 
+     * @return A new cursor
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Remembers a position in the bottom level of the skip list, so that a search
+     * for a key near the previous one resumes from there instead of from the
+     * head. Each look up costs O(log d), where d is the number of entries between
+     * the previous key and the new one, in either direction.
+     * 
+     * Inserting through the skip list does not disturb a cursor, but removing
+     * the entry the cursor is positioned at does; call reset() after removing
+     * entries.
+     * 
+     * @author Neil Dey
+     *
+     */
+    public class Cursor implements Iterator<SkipList<K, V>.Entry> {
+        /** The last bottom-level node before the last key searched for **/
+        private Node finger;
+
+        /**
+         * Creates a cursor positioned before the first entry
+         */
+        private Cursor() {
+            this.reset();
+        }
+
+        /**
+         * Moves the cursor back before the first entry
+         */
+        public void reset() {
+            this.finger = SkipList.this.bottomHead();
+        }
+
+        /**
+         * Returns the value of the first entry matching the given key, and leaves
+         * the cursor positioned just before the key
+         * 
+         * @param key
+         *            The key of the value to search for
+         * @return The value of the first entry matching the key, or null if the
+         *         key doesn't exist
+         */
+        public V lookUp(K key) {
+            this.finger = SkipList.this.getNodeBefore(this.finger, key);
+            Node n = this.finger.next;
+            if (n.key != posInfty && n.key.compareTo(key) == 0) {
+                return n.value;
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.finger.next.key != posInfty;
+        }
+
+        /**
+         * Returns the entry after the cursor and moves the cursor past it
+         * 
+         * @return The next entry
+         */
+        @Override
+        public Entry next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.finger = this.finger.next;
+            return new Entry(this.finger.key, this.finger.value);
+        }
+    }
+
+    /**
+     * A key and value returned by the navigation methods. Entries are copies, so
+     * they are not affected by later changes to the skip list.
+     * 
+     * @author Neil Dey
+     *
+     */
+    public class Entry {
+        /** The key of the entry **/
+        public final K key;
+        /** The value of the entry **/
+        public final V value;
+
+        /**
+         * Creates a new Entry with the given key and value
+         * 
+         * @param key
+         *            The key of the entry
+         * @param value
+         *            The value of the entry
+         */
+        public Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + this.key.toString() + ", " + this.value.toString() + ")";
+        }
+    }
+
     /**
      * An inner class that stores the keys and values for the skip list
      * 
@@ -225,6 +951,8 @@ public class SkipList<K extends Comparable<K>, V extends Comparable<V>> implemen
         private Node prev;
         /** The node after this one **/
         private Node next;
+        /** Every value of a bottom-level key with several values in multimap mode **/
+        private CompactSkipList<V, V> bucket;
 
         /**
          * Initializes a node with the given key, value, and neighboring nodes
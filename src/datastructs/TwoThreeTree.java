@@ -1,8 +1,37 @@
 package datastructs;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A 2-3 tree: a balanced search tree whose nodes hold one or two keys and
+ * whose leaves are all at the same depth. Inserting a key that is already
+ * present replaces its value.
+ *
+ * @author Neil Dey
+ * @param <K>
+ *            The generic type for keys. Keys must implement Comparable.
+ * @param <V>
+ *            The generic type for values
+ */
 public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V> {
+    /** The most nodes kept for reuse after remove releases them **/
+    protected static final int MAX_FREE_NODES = 64;
+    /** The fewest keys a subtree needs before a parallel build forks its children **/
+    protected static final int PARALLEL_THRESHOLD = 1 << 13;
+
     /** The root of the search tree **/
     private Node root;
+    /** Nodes released by remove, linked through their left children, for split to reuse **/
+    private Node free;
+    /** The number of nodes in the free list **/
+    private int numFree;
+    /** The nodes from the root down to the node found by the last descend() **/
+    private Node[] path = this.newPath(16);
+    /** The index in path of the node found by the last descend() **/
+    private int depth;
 
     /**
      * Gets Node with the specified key
@@ -12,7 +41,58 @@ public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V
      * @return The node with the specified key
      */
     private Node getKey(K key) {
-        return this.root.getKey(key);
+        Node n = this.root;
+        for (Node c = n.next(key); c != null; c = n.next(key)) {
+            n = c;
+        }
+        return n;
+    }
+
+    /**
+     * Gets Node with the specified key like getKey, recording the nodes on the
+     * way down in the path buffer for insert and remove to walk back up
+     * 
+     * @param key
+     *            The key to search for
+     * @return The node with the specified key
+     */
+    private Node descend(K key) {
+        Node n = this.root;
+        int d = 0;
+        this.path[0] = n;
+        for (Node c = n.next(key); c != null; c = n.next(key)) {
+            n = c;
+            this.push(++d, n);
+        }
+        this.depth = d;
+        return n;
+    }
+
+    /**
+     * Stores a node in the path buffer, growing the buffer if needed
+     * 
+     * @param d
+     *            The depth of the node
+     * @param n
+     *            The node
+     */
+    private void push(int d, Node n) {
+        if (d == this.path.length) {
+            this.path = Arrays.copyOf(this.path, d * 2);
+        }
+        this.path[d] = n;
+    }
+
+    /**
+     * Allocates a path buffer
+     * 
+     * @param length
+     *            The length of the buffer
+     * @return An empty array of nodes
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Node[] newPath(int length) {
+        return new TwoThreeTree.Node[length];
     }
 
     /**
@@ -24,6 +104,9 @@ public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V
      *            The new value of the node
      */
     public V update(K key, V value) {
+        if (this.root == null) {
+            return null;
+        }
         Node n = this.getKey(key);
         if (n.leftKey.compareTo(key) == 0) {
             V temp = n.leftValue;
@@ -38,13 +121,30 @@ public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V
         }
     }
 
+    /**
+     * Inserts the given key/value pair, replacing the value if the key is
+     * already in the tree
+     * 
+     * @param key
+     *            The key of the entry
+     * @param value
+     *            The value of the entry
+     */
     public void insert(K key, V value) {
         if (this.root == null) {
-            this.root = new Node(key, value);
+            this.root = this.newNode(key, value, null, null, null, null, null);
             return;
         }
 
-        Node n = this.getKey(key);
+        Node n = this.descend(key);
+        // The search stops early, possibly at an internal node, if the key is present
+        if (n.leftKey.compareTo(key) == 0) {
+            n.leftValue = value;
+            return;
+        } else if (n.rightKey != null && n.rightKey.compareTo(key) == 0) {
+            n.rightValue = value;
+            return;
+        }
 
         // Is a 2-node
         if (n.rightKey == null) {
@@ -77,88 +177,268 @@ public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V
             n.overFlowKey = key;
             n.overFlowValue = value;
         }
-        split(n);
+        this.split(n);
     }
 
-    private void split(Node n) {
-        // This is the root node
-        if (n.parent == null) {
-            Node r = new Node(n.rightKey, n.rightValue);
-            r.left = new Node(n.leftKey, n.leftValue, null, null, n.left, null, n.middle, r);
-            r.right = new Node(n.overFlowKey, n.overFlowValue, null, null, n.right, null, n.overFlowNode, r);
-            TwoThreeTree.this.root = r;
-        }
-        // The parent is a 2-node
-        else if (n.parent.rightKey == null) {
-            int kComp = n.parent.leftKey.compareTo(n.rightKey);
-            if (kComp < 0) {
-                n.parent.rightKey = n.rightKey;
-                n.parent.rightValue = n.rightValue;
-            } else {
-                n.parent.rightKey = n.parent.leftKey;
-                n.parent.rightValue = n.parent.leftValue;
+    /**
+     * Inserts the entries in ascending key order, so that consecutive inserts
+     * descend through the same recently split nodes
+     * 
+     * @param keys
+     *            The keys of the entries
+     * @param values
+     *            The values of the entries; must be as long as keys
+     */
+    @Override
+    public void insertAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+        for (int i : Batches.sortedOrder(keys)) {
+            this.insert(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Looks up the keys in ascending order, so that consecutive searches share
+     * the same path through the tree
+     * 
+     * @param keys
+     *            The keys to search for
+     * @param results
+     *            Receives the values; must be at least as long as keys
+     */
+    @Override
+    public void lookUpAll(K[] keys, V[] results) {
+        for (int i : Batches.sortedOrder(keys)) {
+            results[i] = this.lookUp(keys[i]);
+        }
+    }
 
-                n.parent.leftKey = n.rightKey;
-                n.parent.leftValue = n.rightValue;
+    /**
+     * Builds a tree from entries that are already sorted by key, in O(n) time.
+     * Instead of inserting the entries one by one, the tree is built bottom-up:
+     * its height is the smallest that can hold every entry, and each subtree
+     * spreads its entries as evenly as possible over three children whenever
+     * they can all be filled to that height, and over two otherwise. Nodes are
+     * thus mostly 3-nodes, and every leaf is at the same depth.
+     * 
+     * @param keys
+     *            The keys, in ascending order
+     * @param values
+     *            The values, in the same order as their keys
+     * @param parallel
+     *            Whether or not to build large subtrees on separate fork-join
+     *            tasks in the common pool
+     * @param <K>
+     *            The generic type for keys
+     * @param <V>
+     *            The generic type for values
+     * @return The new tree
+     */
+    public static <K extends Comparable<K>, V> TwoThreeTree<K, V> fromSorted(Iterator<K> keys, Iterator<V> values,
+            boolean parallel) {
+        Object[] ks = new Object[16];
+        Object[] vs = new Object[16];
+        int n = 0;
+        K previous = null;
+        while (keys.hasNext()) {
+            if (!values.hasNext()) {
+                throw new IllegalArgumentException("Keys and values must have the same length.");
             }
-            // Split n into two 2-nodes
-            // n is the left node
-            if (n == n.parent.left) {
-                n.parent.left = new Node(n.leftKey, n.leftValue, null, null, n.left, null, n.middle, n.parent);
-                n.parent.middle = new Node(n.overFlowKey, n.overFlowValue, null, null, n.right, null, n.overFlowNode,
-                        n.parent);
+            K key = keys.next();
+            if (previous != null && previous.compareTo(key) > 0) {
+                throw new IllegalArgumentException("Keys must be sorted in ascending order.");
             }
-            // n is the right node
-            else {
-                n.parent.middle = new Node(n.leftKey, n.leftValue, null, null, n.left, null, n.middle, n.parent);
-                n.parent.right = new Node(n.overFlowKey, n.overFlowValue, null, null, n.right, null, n.overFlowNode,
-                        n.parent);
+            if (n == ks.length) {
+                ks = Arrays.copyOf(ks, n * 2);
+                vs = Arrays.copyOf(vs, n * 2);
             }
+            ks[n] = key;
+            vs[n++] = values.next();
+            previous = key;
         }
-        // The parent is a 3-node
-        else {
-            int kComp = n.rightKey.compareTo(n.parent.leftKey);
-            if (kComp < 0) {
-                n.parent.overFlowKey = n.parent.rightKey;
-                n.parent.overFlowValue = n.parent.rightValue;
-                n.parent.rightKey = n.parent.leftKey;
-                n.parent.rightValue = n.parent.leftValue;
-                n.parent.leftKey = n.rightKey;
-                n.parent.leftValue = n.rightValue;
-            } else {
-                kComp = n.rightKey.compareTo(n.parent.rightKey);
-                if (kComp < 0) {
-                    n.parent.overFlowKey = n.parent.rightKey;
-                    n.parent.overFlowValue = n.parent.rightValue;
-                    n.parent.rightKey = n.rightKey;
-                    n.parent.rightValue = n.rightValue;
-                } else {
-                    n.parent.overFlowKey = n.rightKey;
-                    n.parent.overFlowValue = n.rightValue;
-                }
+        if (values.hasNext()) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+
+        TwoThreeTree<K, V> tree = new TwoThreeTree<K, V>();
+        if (n == 0) {
+            return tree;
+        }
+        int height = 1;
+        while (TwoThreeTree.capacity(height) < n) {
+            height++;
+        }
+        if (parallel) {
+            tree.root = ForkJoinPool.commonPool().invoke(tree.new Builder(ks, vs, 0, n, height));
+        } else {
+            tree.root = tree.build(ks, vs, 0, n, height);
+        }
+        return tree;
+    }
+
+    /**
+     * Builds a tree from entries that are already sorted by key, in O(n) time
+     * and on the calling thread
+     * 
+     * @param keys
+     *            The keys, in ascending order
+     * @param values
+     *            The values, in the same order as their keys
+     * @param <K>
+     *            The generic type for keys
+     * @param <V>
+     *            The generic type for values
+     * @return The new tree
+     */
+    public static <K extends Comparable<K>, V> TwoThreeTree<K, V> fromSorted(Iterator<K> keys, Iterator<V> values) {
+        return TwoThreeTree.fromSorted(keys, values, false);
+    }
+
+    /**
+     * Builds the subtree of a range of sorted entries. A subtree of height h
+     * holds between 2^h - 1 and 3^h - 1 keys.
+     * 
+     * @param keys
+     *            The sorted keys
+     * @param values
+     *            The values of the keys
+     * @param from
+     *            The index of the first key of the subtree
+     * @param to
+     *            The index after the last key of the subtree
+     * @param height
+     *            The height of the subtree; the range must fit it
+     * @return The root of the subtree
+     */
+    @SuppressWarnings("unchecked")
+    private Node build(Object[] keys, Object[] values, int from, int to, int height) {
+        int m = to - from;
+        if (height == 1) {
+            if (m == 1) {
+                return new Node((K) keys[from], (V) values[from], null, null, null, null, null);
             }
-            // This is the left child
-            if (n.parent.left == n) {
-                n.parent.overFlowNode = n.parent.right;
-                n.parent.right = n.parent.middle;
-                n.parent.middle = new Node(n.overFlowKey, n.overFlowValue, null, null, n.right, null, n.overFlowNode,
-                        n.parent);
-                n.parent.left = new Node(n.leftKey, n.leftValue, null, null, n.left, null, n.middle, n.parent);
+            return new Node((K) keys[from], (V) values[from], (K) keys[from + 1], (V) values[from + 1], null, null,
+                    null);
+        }
+        int c = TwoThreeTree.children(m, height);
+        int a = TwoThreeTree.separator(from, m, c, 0);
+        Node left = this.build(keys, values, from, a, height - 1);
+        if (c == 2) {
+            Node right = this.build(keys, values, a + 1, to, height - 1);
+            return new Node((K) keys[a], (V) values[a], null, null, left, null, right);
+        }
+        int b = TwoThreeTree.separator(from, m, c, 1);
+        Node middle = this.build(keys, values, a + 1, b, height - 1);
+        Node right = this.build(keys, values, b + 1, to, height - 1);
+        return new Node((K) keys[a], (V) values[a], (K) keys[b], (V) values[b], left, middle, right);
+    }
+
+    /**
+     * Picks the number of children of a subtree built from sorted entries:
+     * three if each of them can hold the fewest keys of its height, and two
+     * otherwise
+     * 
+     * @param m
+     *            The number of keys of the subtree
+     * @param height
+     *            The height of the subtree; at least 2
+     * @return 2 or 3
+     */
+    private static int children(int m, int height) {
+        long minChild = (1L << (height - 1)) - 1;
+        return m - 2 >= 3 * minChild ? 3 : 2;
+    }
+
+    /**
+     * Finds a separator of a subtree built from sorted entries. The keys other
+     * than the separators are spread over the children as evenly as possible,
+     * with the earlier children taking any extra keys.
+     * 
+     * @param from
+     *            The index of the first key of the subtree
+     * @param m
+     *            The number of keys of the subtree
+     * @param c
+     *            The number of children of the subtree
+     * @param i
+     *            Which separator to find; 0 or 1
+     * @return The index of the key that follows child i
+     */
+    private static int separator(int from, int m, int c, int i) {
+        int rest = m - (c - 1);
+        return from + (i + 1) * (rest / c) + Math.min(i + 1, rest % c) + i;
+    }
+
+    /**
+     * Gets the most keys a tree of the given height can hold, 3^height - 1
+     * 
+     * @param height
+     *            The number of levels
+     * @return The number of keys when every node is a 3-node
+     */
+    private static long capacity(int height) {
+        long c = 1;
+        for (int i = 0; i < height; i++) {
+            c *= 3;
+        }
+        return c - 1;
+    }
+
+    /**
+     * Splits a node holding an overflow key into two 2-nodes, moving the middle
+     * key up into the parent and splitting the parent in turn if it overflows.
+     * The node keeps the lower half, so a split only takes one node for the
+     * upper half, from the free list if it has one. Parents are found in the
+     * path buffer.
+     * 
+     * @param n
+     *            The node holding an overflow key, last on the path of the last
+     *            descend()
+     */
+    private void split(Node n) {
+        for (int d = this.depth;; d--) {
+            K midKey = n.rightKey;
+            V midValue = n.rightValue;
+            Node sibling = this.newNode(n.overFlowKey, n.overFlowValue, null, null, n.right, null, n.overFlowNode);
+            n.set(n.leftKey, n.leftValue, null, null, n.left, null, n.middle);
+            n.overFlowKey = null;
+            n.overFlowValue = null;
+            n.overFlowNode = null;
+
+            // This is the root node
+            if (d == 0) {
+                this.root = this.newNode(midKey, midValue, null, null, n, null, sibling);
+                return;
             }
-            // This is the middle child
-            else if (n.parent.middle == n) {
-                n.parent.overFlowNode = n.parent.right;
-                n.parent.middle = new Node(n.leftKey, n.leftValue, null, null, n.left, null, n.middle, n.parent);
-                n.parent.right = new Node(n.overFlowKey, n.overFlowValue, null, null, n.right, null, n.overFlowNode,
-                        n.parent);
+            Node p = this.path[d - 1];
+            // The parent is a 2-node
+            if (p.rightKey == null) {
+                if (n == p.left) {
+                    p.set(midKey, midValue, p.leftKey, p.leftValue, n, sibling, p.right);
+                } else {
+                    p.set(p.leftKey, p.leftValue, midKey, midValue, p.left, n, sibling);
+                }
+                return;
             }
-            // This is the right child
-            else {
-                n.parent.right = new Node(n.leftKey, n.leftValue, null, null, n.left, null, n.middle, n.parent);
-                n.parent.overFlowNode = new Node(n.overFlowKey, n.overFlowValue, null, null, n.right, null,
-                        n.overFlowNode, n.parent);
+            // The parent is a 3-node, so it overflows too
+            if (n == p.left) {
+                p.overFlowKey = p.rightKey;
+                p.overFlowValue = p.rightValue;
+                p.overFlowNode = p.right;
+                p.set(midKey, midValue, p.leftKey, p.leftValue, n, sibling, p.middle);
+            } else if (n == p.middle) {
+                p.overFlowKey = p.rightKey;
+                p.overFlowValue = p.rightValue;
+                p.overFlowNode = p.right;
+                p.set(p.leftKey, p.leftValue, midKey, midValue, p.left, n, sibling);
+            } else {
+                p.overFlowKey = midKey;
+                p.overFlowValue = midValue;
+                p.overFlowNode = sibling;
             }
-            this.split(n.parent);
+            n = p;
         }
     }
 
@@ -170,6 +450,9 @@ public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V
      * @return The value associated with the key; null if the key is not in the tree
      */
     public V lookUp(K key) {
+        if (this.root == null) {
+            return null;
+        }
         Node n = this.getKey(key);
         if (key.compareTo(n.leftKey) == 0) {
             return n.leftValue;
@@ -180,13 +463,290 @@ public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V
     }
 
     /**
-     * Unimplemented function; should remove keys from the dictionary
+     * Removes the given key from the tree. A key in an internal node is first
+     * replaced by its in-order successor, so that the key actually removed is
+     * always in a leaf; a leaf left without keys is then refilled by fill().
      * 
      * @param key
      *            The key of the node to remove
+     * @return The value of the removed key, or null if the key is not in the
+     *         tree
      */
     public V remove(K key) {
-        throw new UnsupportedOperationException();
+        if (this.root == null) {
+            return null;
+        }
+        Node n = this.descend(key);
+        V temp;
+        boolean isRight;
+        if (key.compareTo(n.leftKey) == 0) {
+            temp = n.leftValue;
+            isRight = false;
+        } else if (n.rightKey != null && key.compareTo(n.rightKey) == 0) {
+            temp = n.rightValue;
+            isRight = true;
+        } else {
+            this.clearPath();
+            return null;
+        }
+
+        if (n.left != null) {
+            Node s = isRight || n.rightKey == null ? n.right : n.middle;
+            this.push(++this.depth, s);
+            while (s.left != null) {
+                s = s.left;
+                this.push(++this.depth, s);
+            }
+            if (isRight) {
+                n.rightKey = s.leftKey;
+                n.rightValue = s.leftValue;
+            } else {
+                n.leftKey = s.leftKey;
+                n.leftValue = s.leftValue;
+            }
+            n = s;
+            isRight = false;
+        }
+
+        // A 3-node leaf just becomes a 2-node
+        if (n.rightKey != null) {
+            if (!isRight) {
+                n.leftKey = n.rightKey;
+                n.leftValue = n.rightValue;
+            }
+            n.rightKey = null;
+            n.rightValue = null;
+            this.clearPath();
+            return temp;
+        }
+        n.leftKey = null;
+        n.leftValue = null;
+        this.fill(n);
+        this.clearPath();
+        return temp;
+    }
+
+    /**
+     * Empties the used part of the path buffer, so that it does not keep nodes
+     * reachable after remove releases them
+     */
+    private void clearPath() {
+        Arrays.fill(this.path, 0, this.depth + 1, null);
+    }
+
+    /**
+     * Refills a node that has lost its only key. If a neighbouring sibling is a
+     * 3-node, a key rotates from it through the parent; otherwise the node
+     * merges with a sibling and a key of the parent. A 2-node parent is then
+     * left without keys in turn, so the repair continues upwards, and removes
+     * the root once the root is left without keys.
+     * 
+     * @param hole
+     *            A node with no keys whose only child, if any, is its left
+     *            child, last on the path of the last descend()
+     */
+    private void fill(Node hole) {
+        for (int d = this.depth;; d--) {
+            Node c = hole.left;
+            if (d == 0) {
+                this.root = c;
+                this.release(hole);
+                return;
+            }
+            Node p = this.path[d - 1];
+
+            // The parent is a 2-node
+            if (p.rightKey == null) {
+                Node s;
+                if (hole == p.left) {
+                    s = p.right;
+                    if (s.rightKey != null) {
+                        hole.set(p.leftKey, p.leftValue, null, null, c, null, s.left);
+                        p.leftKey = s.leftKey;
+                        p.leftValue = s.leftValue;
+                        s.set(s.rightKey, s.rightValue, null, null, s.middle, null, s.right);
+                        return;
+                    }
+                    s.set(p.leftKey, p.leftValue, s.leftKey, s.leftValue, c, s.left, s.right);
+                } else {
+                    s = p.left;
+                    if (s.rightKey != null) {
+                        hole.set(p.leftKey, p.leftValue, null, null, s.right, null, c);
+                        p.leftKey = s.rightKey;
+                        p.leftValue = s.rightValue;
+                        s.set(s.leftKey, s.leftValue, null, null, s.left, null, s.middle);
+                        return;
+                    }
+                    s.set(s.leftKey, s.leftValue, p.leftKey, p.leftValue, s.left, s.right, c);
+                }
+                // The parent's key went into the merged sibling
+                p.set(null, null, null, null, s, null, null);
+                this.release(hole);
+                hole = p;
+                continue;
+            }
+
+            // The parent is a 3-node, so it can always give up a key
+            Node l = p.left;
+            Node m = p.middle;
+            Node r = p.right;
+            if (hole == l) {
+                if (m.rightKey != null) {
+                    hole.set(p.leftKey, p.leftValue, null, null, c, null, m.left);
+                    p.leftKey = m.leftKey;
+                    p.leftValue = m.leftValue;
+                    m.set(m.rightKey, m.rightValue, null, null, m.middle, null, m.right);
+                } else {
+                    m.set(p.leftKey, p.leftValue, m.leftKey, m.leftValue, c, m.left, m.right);
+                    p.set(p.rightKey, p.rightValue, null, null, m, null, r);
+                    this.release(hole);
+                }
+            } else if (hole == m) {
+                if (l.rightKey != null) {
+                    hole.set(p.leftKey, p.leftValue, null, null, l.right, null, c);
+                    p.leftKey = l.rightKey;
+                    p.leftValue = l.rightValue;
+                    l.set(l.leftKey, l.leftValue, null, null, l.left, null, l.middle);
+                } else if (r.rightKey != null) {
+                    hole.set(p.rightKey, p.rightValue, null, null, c, null, r.left);
+                    p.rightKey = r.leftKey;
+                    p.rightValue = r.leftValue;
+                    r.set(r.rightKey, r.rightValue, null, null, r.middle, null, r.right);
+                } else {
+                    l.set(l.leftKey, l.leftValue, p.leftKey, p.leftValue, l.left, l.right, c);
+                    p.set(p.rightKey, p.rightValue, null, null, l, null, r);
+                    this.release(hole);
+                }
+            } else {
+                if (m.rightKey != null) {
+                    hole.set(p.rightKey, p.rightValue, null, null, m.right, null, c);
+                    p.rightKey = m.rightKey;
+                    p.rightValue = m.rightValue;
+                    m.set(m.leftKey, m.leftValue, null, null, m.left, null, m.middle);
+                } else {
+                    m.set(m.leftKey, m.leftValue, p.rightKey, p.rightValue, m.left, m.right, c);
+                    p.set(p.leftKey, p.leftValue, null, null, l, null, m);
+                    this.release(hole);
+                }
+            }
+            return;
+        }
+    }
+
+    /**
+     * Returns a node with the given keys and children, taking it from the free
+     * list if it has one
+     * 
+     * @param key1
+     *            The left key
+     * @param value1
+     *            The value of the left key
+     * @param key2
+     *            The right key, or null for a 2-node
+     * @param value2
+     *            The value of the right key
+     * @param left
+     *            The left child
+     * @param middle
+     *            The middle child; null for a 2-node
+     * @param right
+     *            The right child
+     * @return The node
+     */
+    private Node newNode(K key1, V value1, K key2, V value2, Node left, Node middle, Node right) {
+        if (this.free == null) {
+            return new Node(key1, value1, key2, value2, left, middle, right);
+        }
+        Node n = this.free;
+        this.free = n.left;
+        this.numFree--;
+        n.set(key1, value1, key2, value2, left, middle, right);
+        return n;
+    }
+
+    /**
+     * Clears a node that is no longer in the tree and keeps it on the free list
+     * if the free list has room
+     * 
+     * @param n
+     *            The node to release
+     */
+    private void release(Node n) {
+        n.set(null, null, null, null, null, null, null);
+        if (this.numFree < TwoThreeTree.MAX_FREE_NODES) {
+            n.left = this.free;
+            this.free = n;
+            this.numFree++;
+        }
+    }
+
+    /**
+     * Builds the subtree of a range of sorted entries like build(), forking a
+     * task for each child while the subtree has at least PARALLEL_THRESHOLD
+     * keys
+     * 
+     * @author Neil Dey
+     */
+    private class Builder extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+
+        /** The sorted keys **/
+        private final Object[] keys;
+        /** The values of the keys **/
+        private final Object[] values;
+        /** The index of the first key of the subtree **/
+        private final int from;
+        /** The index after the last key of the subtree **/
+        private final int to;
+        /** The height of the subtree **/
+        private final int height;
+
+        /**
+         * Prepares to build the subtree of a range of entries
+         * 
+         * @param keys
+         *            The sorted keys
+         * @param values
+         *            The values of the keys
+         * @param from
+         *            The index of the first key of the subtree
+         * @param to
+         *            The index after the last key of the subtree
+         * @param height
+         *            The height of the subtree; the range must fit it
+         */
+        Builder(Object[] keys, Object[] values, int from, int to, int height) {
+            this.keys = keys;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.height = height;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Node compute() {
+            int m = this.to - this.from;
+            if (this.height == 1 || m < TwoThreeTree.PARALLEL_THRESHOLD) {
+                return TwoThreeTree.this.build(this.keys, this.values, this.from, this.to, this.height);
+            }
+            int c = TwoThreeTree.children(m, this.height);
+            int a = TwoThreeTree.separator(this.from, m, c, 0);
+            int b = c == 2 ? this.to : TwoThreeTree.separator(this.from, m, c, 1);
+            Builder right = new Builder(this.keys, this.values, c == 2 ? a + 1 : b + 1, this.to, this.height - 1);
+            Builder middle = c == 2 ? null : new Builder(this.keys, this.values, a + 1, b, this.height - 1);
+            right.fork();
+            if (middle != null) {
+                middle.fork();
+            }
+            Node left = new Builder(this.keys, this.values, this.from, a, this.height - 1).compute();
+            if (middle == null) {
+                return new Node((K) this.keys[a], (V) this.values[a], null, null, left, null, right.join());
+            }
+            Node mid = middle.join();
+            return new Node((K) this.keys[a], (V) this.values[a], (K) this.keys[b], (V) this.values[b], left, mid,
+                    right.join());
+        }
     }
 
     /**
@@ -200,7 +760,6 @@ public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V
         public V leftValue;
         public V rightValue;
 
-        public Node parent;
         public Node left;
         public Node middle;
         public Node right;
@@ -209,7 +768,29 @@ public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V
         public V overFlowValue;
         public Node overFlowNode;
 
-        public Node(K key1, V value1, K key2, V value2, Node left, Node middle, Node right, Node parent) {
+        public Node(K key1, V value1, K key2, V value2, Node left, Node middle, Node right) {
+            this.set(key1, value1, key2, value2, left, middle, right);
+        }
+
+        /**
+         * Replaces the keys and children of the node
+         * 
+         * @param key1
+         *            The left key
+         * @param value1
+         *            The value of the left key
+         * @param key2
+         *            The right key, or null for a 2-node
+         * @param value2
+         *            The value of the right key
+         * @param left
+         *            The left child
+         * @param middle
+         *            The middle child; null for a 2-node
+         * @param right
+         *            The right child
+         */
+        public void set(K key1, V value1, K key2, V value2, Node left, Node middle, Node right) {
             this.leftKey = key1;
             this.rightKey = key2;
             this.leftValue = value1;
@@ -217,17 +798,6 @@ public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V
             this.left = left;
             this.middle = middle;
             this.right = right;
-            this.parent = parent;
-
-            if (left != null) {
-                left.parent = this;
-            }
-            if (middle != null) {
-                middle.parent = this;
-            }
-            if (right != null) {
-                right.parent = this;
-            }
         }
 
         // public Node(K key, V value, Node left, Node right) {
@@ -235,56 +805,44 @@ public class TwoThreeTree<K extends Comparable<K>, V> implements Dictionary<K, V
         // }
 
         public Node(K key, V value) {
-            this(key, value, null, null, null, null, null, null);
+            this(key, value, null, null, null, null, null);
         }
 
         // public Node(K key1, V value1, K key2, V value2) {
         // this(key1, value1, key2, value2, null, null, null, null);
         // }
 
-        public Node getKey(K key) {
+        /**
+         * Returns the child to search next for the given key
+         * 
+         * @param key
+         *            The key to search for
+         * @return The child whose subtree would hold the key, or null if the
+         *         search ends at this node because the node holds the key or is
+         *         a leaf
+         */
+        public Node next(K key) {
             // 2-node
             if (this.rightKey == null) {
                 int temp = this.leftKey.compareTo(key);
                 if (temp == 0) {
-                    return this;
-                }
-                if (temp > 0) {
-                    if (this.left == null) {
-                        return this;
-                    }
-                    return this.left.getKey(key);
+                    return null;
                 }
-                if (this.right == null) {
-                    return this;
-                }
-                return this.right.getKey(key);
+                return temp > 0 ? this.left : this.right;
             }
             // 3-node
             int lcomp = this.leftKey.compareTo(key);
             if (lcomp == 0) {
-                return this;
+                return null;
             }
             if (lcomp > 0) {
-                if (this.left == null) {
-                    return this;
-                }
-                return this.left.getKey(key);
+                return this.left;
             }
             int rcomp = this.rightKey.compareTo(key);
             if (rcomp == 0) {
-                return this;
-            }
-            if (rcomp < 0) {
-                if (this.right == null) {
-                    return this;
-                }
-                return this.right.getKey(key);
-            }
-            if (this.middle == null) {
-                return this;
+                return null;
             }
-            return this.middle.getKey(key);
+            return rcomp < 0 ? this.right : this.middle;
         }
 
         // For debugging purposes only
@@ -0,0 +1,86 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class BTreeTest {
+
+    @Test
+    public void test() {
+        Dictionary<Integer, Integer> d = new BTree<Integer, Integer>(4);
+        assertNull(d.lookUp(0));
+        assertNull(d.remove(0));
+        for (int i = 0; i < 1000; i++) {
+            d.insert((i * 389) % 1000, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.lookUp((i * 389) % 1000));
+        }
+        assertNull(d.lookUp(-1));
+        assertNull(d.lookUp(1000));
+
+        // Inserting an existing key replaces its value
+        d.insert(0, 7);
+        assertEquals(7, (int) d.lookUp(0));
+        assertEquals(7, (int) d.update(0, -1));
+        assertEquals(-1, (int) d.lookUp(0));
+        assertNull(d.update(5000, 1));
+        assertEquals(-1, (int) d.remove(0));
+        assertNull(d.lookUp(0));
+        assertNull(d.remove(0));
+        for (int i = 1; i < 1000; i += 2) {
+            assertEquals(i, (int) d.remove(i) * 389 % 1000);
+        }
+        for (int i = 2; i < 1000; i += 2) {
+            assertEquals(i, (int) d.lookUp(i) * 389 % 1000);
+        }
+        assertEquals(499, ((BTree<Integer, Integer>) d).size());
+    }
+
+    @Test
+    public void testAgainstTreeMap() {
+        Random random = new Random(7);
+        for (int order : new int[] { 3, 4, 5, 32, 256 }) {
+            BTree<Integer, Integer> d = new BTree<Integer, Integer>(order);
+            TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+            for (int i = 0; i < 20000; i++) {
+                int k = random.nextInt(5000);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(k), d.remove(k));
+                } else {
+                    expected.put(k, i);
+                    d.insert(k, i);
+                }
+                assertEquals(expected.size(), d.size());
+            }
+            for (int k = 0; k < 5000; k++) {
+                assertEquals(expected.get(k), d.lookUp(k));
+            }
+            for (int k = 0; k < 5000; k++) {
+                assertEquals(expected.remove(k), d.remove(k));
+            }
+            assertEquals(0, d.size());
+            assertEquals(1, d.height());
+        }
+    }
+
+    @Test
+    public void testHeight() {
+        BTree<Integer, Integer> d = new BTree<Integer, Integer>(64);
+        for (int i = 0; i < 1000000; i++) {
+            d.insert(i, i);
+        }
+        // Every node but the root has at least 32 children
+        assertTrue(d.height() <= 4);
+        assertEquals(999999, (int) d.lookUp(999999));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOrderTooSmall() {
+        new BTree<Integer, Integer>(2);
+    }
+}
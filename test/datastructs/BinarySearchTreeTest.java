@@ -0,0 +1,61 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class BinarySearchTreeTest {
+
+    @Test
+    public void test() {
+        Dictionary<Integer, Integer> d = new BinarySearchTree<Integer, Integer>();
+        assertNull(d.lookUp(0));
+        assertNull(d.update(0, 0));
+        for (int i = 0; i < 1000; i++) {
+            d.insert((i * 389) % 1000, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.lookUp((i * 389) % 1000));
+        }
+        assertNull(d.lookUp(-1));
+        assertNull(d.lookUp(1000));
+        Integer old = d.lookUp(1);
+        assertEquals(old, d.update(1, -1));
+        assertEquals(-1, (int) d.lookUp(1));
+        assertNull(d.update(5000, 0));
+    }
+
+    @Test
+    public void testSorted() {
+        // A degenerate tree as deep as it is large
+        Dictionary<Integer, Integer> d = new BinarySearchTree<Integer, Integer>();
+        for (int i = 0; i < 40000; i++) {
+            d.insert(i, -i);
+        }
+        for (int i = 0; i < 40000; i += 97) {
+            assertEquals(-i, (int) d.lookUp(i));
+        }
+        assertNull(d.lookUp(40000));
+
+        d = new BinarySearchTree<Integer, Integer>();
+        for (int i = 40000; i > 0; i--) {
+            d.insert(i, -i);
+        }
+        for (int i = 1; i <= 40000; i += 97) {
+            assertEquals(-i, (int) d.lookUp(i));
+        }
+    }
+
+    @Test
+    public void testDuplicates() {
+        Dictionary<Integer, Integer> d = new BinarySearchTree<Integer, Integer>();
+        d.insert(5, 5);
+        d.insert(8, 8);
+        d.insert(7, 7);
+        // A duplicate goes below the existing right subtree instead of replacing it
+        d.insert(5, 50);
+        assertEquals(5, (int) d.lookUp(5));
+        assertEquals(7, (int) d.lookUp(7));
+        assertEquals(8, (int) d.lookUp(8));
+    }
+}
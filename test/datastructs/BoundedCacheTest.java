@@ -0,0 +1,80 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testLRU() {
+        StringBuilder evicted = new StringBuilder();
+        BoundedCache<Integer, Integer> c = new BoundedCache<Integer, Integer>(3, BoundedCache.Policy.LRU,
+                (k, v) -> evicted.append(k + " "));
+        c.insert(1, 1);
+        c.insert(2, 2);
+        c.insert(3, 3);
+        assertEquals(1, (int) c.lookUp(1));
+        c.insert(4, 4);
+        assertEquals("2 ", evicted.toString());
+        assertNull(c.lookUp(2));
+        assertEquals("{ (4, 4) (1, 1) (3, 3) }", c.toString());
+
+        c.update(3, 30);
+        c.insert(5, 5);
+        assertEquals("2 1 ", evicted.toString());
+        assertEquals(3, c.size());
+
+        assertEquals(1, c.getHits());
+        assertEquals(1, c.getMisses());
+        assertEquals(2, c.getEvictions());
+    }
+
+    @Test
+    public void testLFU() {
+        StringBuilder evicted = new StringBuilder();
+        BoundedCache<Integer, Integer> c = new BoundedCache<Integer, Integer>(3, BoundedCache.Policy.LFU,
+                (k, v) -> evicted.append(k + " "));
+        c.insert(1, 1);
+        c.insert(2, 2);
+        c.insert(3, 3);
+        c.lookUp(1);
+        c.lookUp(1);
+        c.lookUp(2);
+        c.lookUp(3);
+        // 1 has been used three times; 2 and 3 twice, 3 most recently
+        assertEquals("{ (1, 1) (3, 3) (2, 2) }", c.toString());
+        c.insert(4, 4);
+        assertEquals("2 ", evicted.toString());
+
+        // 4 is the only entry used once
+        c.insert(5, 5);
+        assertEquals("2 4 ", evicted.toString());
+        c.lookUp(5);
+        c.lookUp(5);
+        c.lookUp(5);
+        c.insert(6, 6);
+        assertEquals("2 4 3 ", evicted.toString());
+        assertEquals("{ (5, 5) (1, 1) (6, 6) }", c.toString());
+
+        assertEquals(1, (int) c.remove(1));
+        c.insert(7, 7);
+        c.insert(8, 8);
+        assertEquals("2 4 3 6 ", evicted.toString());
+    }
+
+    @Test
+    public void testChurn() {
+        BoundedCache<Integer, Integer> c = new BoundedCache<Integer, Integer>(100, BoundedCache.Policy.LFU);
+        for (int i = 0; i < 10000; i++) {
+            c.insert(i % 350, i);
+            c.lookUp((i * 7) % 200);
+            assertTrue(c.size() <= 100);
+        }
+        int n = 0;
+        for (HashTable.Node node : c) {
+            n++;
+        }
+        assertEquals(c.size(), n);
+    }
+}
@@ -0,0 +1,59 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CompactSkipListTest {
+
+    @Test
+    public void test() {
+        Dictionary<Integer, Integer> d = new CompactSkipList<Integer, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            d.insert((i * 389) % 1000, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.lookUp((i * 389) % 1000));
+        }
+        assertNull(d.lookUp(-1));
+        assertNull(d.lookUp(1000));
+
+        assertEquals(0, (int) d.update(0, -1));
+        assertEquals(-1, (int) d.lookUp(0));
+        assertEquals(-1, (int) d.remove(0));
+        assertNull(d.lookUp(0));
+        assertNull(d.remove(0));
+        assertNull(d.remove(5000));
+        for (int i = 1; i < 1000; i += 2) {
+            assertEquals(i, (int) d.remove(i) * 389 % 1000);
+        }
+        for (int i = 2; i < 1000; i += 2) {
+            assertEquals(i, (int) d.lookUp(i) * 389 % 1000);
+        }
+        assertEquals(499, ((CompactSkipList<Integer, Integer>) d).size());
+    }
+
+    @Test
+    public void testDuplicates() {
+        CompactSkipList<Integer, Integer> d = new CompactSkipList<Integer, Integer>();
+        d.insert(2, 20);
+        d.insert(1, 10);
+        d.insert(2, 5);
+        d.insert(2, 30);
+        d.insert(3, 1);
+        assertEquals("10, 5, 20, 30, 1, ", d.printAll());
+        // The first entry with a key has the smallest value
+        assertEquals(5, (int) d.lookUp(2));
+        d.remove(2);
+        assertEquals(20, (int) d.lookUp(2));
+
+        for (int i = 0; i < 1000; i++) {
+            d.insert(4, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.remove(4));
+        }
+        assertNull(d.lookUp(4));
+        assertEquals("10, 20, 30, 1, ", d.printAll());
+    }
+}
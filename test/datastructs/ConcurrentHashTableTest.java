@@ -0,0 +1,69 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ConcurrentHashTableTest {
+
+    @Test
+    public void test() {
+        Dictionary<Integer, Integer> d = new ConcurrentHashTable<Integer, Integer>(1);
+        for (int i = 0; i < 1000; i++) {
+            d.insert(i, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.lookUp(i));
+        }
+        for (int i = 500; i < 750; i += 2) {
+            assertEquals(i, (int) d.remove(i));
+        }
+        for (int i = 500; i < 750; i++) {
+            if (i % 2 == 0) {
+                assertNull(d.lookUp(i));
+            } else {
+                assertEquals(i, (int) d.lookUp(i));
+            }
+        }
+        assertEquals(992, (int) d.update(992, -5));
+        assertEquals(-5, (int) d.lookUp(992));
+        assertNull(d.update(-1, 0));
+        assertNull(d.remove(-1));
+
+        d.insert(3, 30);
+        assertEquals(30, (int) d.lookUp(3));
+        assertEquals(875, ((ConcurrentHashTable<Integer, Integer>) d).size());
+    }
+
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        final ConcurrentHashTable<Integer, Integer> d = new ConcurrentHashTable<Integer, Integer>(1);
+        final int perThread = 20000;
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int base = t * perThread;
+            threads[t] = new Thread(() -> {
+                for (int i = base; i < base + perThread; i++) {
+                    d.insert(i, i);
+                }
+                for (int i = base; i < base + perThread; i += 2) {
+                    d.remove(i);
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(threads.length * perThread / 2, d.size());
+        for (int i = 0; i < threads.length * perThread; i++) {
+            if (i % 2 == 0) {
+                assertNull(d.lookUp(i));
+            } else {
+                assertEquals(i, (int) d.lookUp(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class ConcurrentSkipListTest {
+
+    @Test
+    public void test() {
+        Dictionary<Integer, Integer> d = new ConcurrentSkipList<Integer, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            d.insert((i * 389) % 1000, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.lookUp((i * 389) % 1000));
+        }
+        assertNull(d.lookUp(-1));
+        assertNull(d.lookUp(1000));
+
+        assertEquals(0, (int) d.update(0, -1));
+        assertEquals(-1, (int) d.lookUp(0));
+        assertEquals(-1, (int) d.remove(0));
+        assertNull(d.lookUp(0));
+        assertNull(d.remove(0));
+        assertNull(d.update(0, 1));
+        assertEquals(999, ((ConcurrentSkipList<Integer, Integer>) d).size());
+    }
+
+    @Test
+    public void testDuplicates() {
+        ConcurrentSkipList<Integer, Integer> d = new ConcurrentSkipList<Integer, Integer>();
+        d.insert(2, 20);
+        d.insert(1, 10);
+        d.insert(2, 5);
+        d.insert(2, 30);
+        d.insert(3, 1);
+        assertEquals("10, 5, 20, 30, 1, ", d.printAll());
+        // The first entry with a key has the smallest value
+        assertEquals(5, (int) d.lookUp(2));
+        d.remove(2);
+        assertEquals(20, (int) d.lookUp(2));
+    }
+
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        final ConcurrentSkipList<Integer, Integer> d = new ConcurrentSkipList<Integer, Integer>();
+        final int perThread = 20000;
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int base = t;
+            threads[t] = new Thread(() -> {
+                // Interleave the keys of every thread so that they insert next to each other
+                for (int i = 0; i < perThread; i++) {
+                    d.insert(i * threads.length + base, i);
+                }
+                for (int i = 0; i < perThread; i += 2) {
+                    d.remove(i * threads.length + base);
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(threads.length * perThread / 2, d.size());
+        for (int i = 0; i < perThread; i++) {
+            for (int t = 0; t < threads.length; t++) {
+                if (i % 2 == 0) {
+                    assertNull(d.lookUp(i * threads.length + t));
+                } else {
+                    assertEquals(i, (int) d.lookUp(i * threads.length + t));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentRemovers() throws InterruptedException {
+        // Every duplicate must be removed by exactly one thread
+        final ConcurrentSkipList<Integer, Integer> d = new ConcurrentSkipList<Integer, Integer>();
+        final int copies = 10000;
+        for (int i = 0; i < copies; i++) {
+            d.insert(7, i);
+        }
+        final AtomicLong sum = new AtomicLong();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                Integer v;
+                while ((v = d.remove(7)) != null) {
+                    sum.addAndGet(v);
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals((long) copies * (copies - 1) / 2, sum.get());
+        assertNull(d.lookUp(7));
+        assertEquals(0, d.size());
+        assertEquals("", d.printAll());
+    }
+}
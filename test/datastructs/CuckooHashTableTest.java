@@ -0,0 +1,120 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CuckooHashTableTest {
+
+    @Test
+    public void test() {
+        Dictionary<Integer, Integer> d = new CuckooHashTable<Integer, Integer>();
+        for (int i = -1; i <= 13; i++) {
+            d.insert(i, i);
+        }
+        for (int i = -1; i <= 13; i++) {
+            assertEquals(i, (int) d.lookUp(i));
+        }
+
+        assertEquals(-1, (int) d.update(-1, 4));
+        assertEquals(4, (int) d.lookUp(-1));
+        assertNull(d.update(-27, 0));
+        assertNull(d.lookUp(-27));
+
+        assertEquals(12, (int) d.remove(12));
+        assertNull(d.lookUp(12));
+        assertNull(d.remove(12));
+
+        // Re-inserting a key replaces its value
+        d.insert(5, 50);
+        assertEquals(50, (int) d.lookUp(5));
+        assertEquals(14, ((CuckooHashTable<Integer, Integer>) d).size());
+    }
+
+    @Test
+    public void testResizing() {
+        CuckooHashTable<Integer, Integer> d = new CuckooHashTable<Integer, Integer>(1);
+        for (int i = 0; i < 100000; i++) {
+            d.insert(i * 7919, i);
+        }
+        assertEquals(100000, d.size());
+        assertTrue(d.stashSize() <= CuckooHashTable.STASH_SIZE);
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(i, (int) d.lookUp(i * 7919));
+        }
+        for (int i = 0; i < 100000; i += 2) {
+            assertEquals(i, (int) d.remove(i * 7919));
+        }
+        for (int i = 0; i < 100000; i++) {
+            if (i % 2 == 0) {
+                assertNull(d.lookUp(i * 7919));
+            } else {
+                assertEquals(i, (int) d.lookUp(i * 7919));
+            }
+        }
+        assertEquals(50000, d.size());
+    }
+
+    @Test
+    public void testCollidingHashes() {
+        // Keys whose hashes all agree send every entry to the same two buckets
+        CuckooHashTable<Collider, Integer> d = new CuckooHashTable<Collider, Integer>();
+        for (int i = 0; i < 2 * CuckooHashTable.SLOTS + CuckooHashTable.STASH_SIZE; i++) {
+            d.insert(new Collider(i), i);
+        }
+        for (int i = 0; i < 2 * CuckooHashTable.SLOTS + CuckooHashTable.STASH_SIZE; i++) {
+            assertEquals(i, (int) d.lookUp(new Collider(i)));
+        }
+        assertEquals(CuckooHashTable.STASH_SIZE, d.stashSize());
+        assertEquals(3, (int) d.remove(new Collider(3)));
+        assertNull(d.lookUp(new Collider(3)));
+        assertEquals(2 * CuckooHashTable.SLOTS + CuckooHashTable.STASH_SIZE - 1, d.size());
+
+        // Past what two buckets and the stash hold, the stash grows instead of the table
+        int buckets = d.getHashTableLength();
+        for (int i = 100; i < 1100; i++) {
+            d.insert(new Collider(i), i);
+        }
+        for (int i = 100; i < 1100; i++) {
+            assertEquals(i, (int) d.lookUp(new Collider(i)));
+        }
+        assertNull(d.lookUp(new Collider(3)));
+        assertEquals(2 * CuckooHashTable.SLOTS + CuckooHashTable.STASH_SIZE - 1 + 1000, d.size());
+        assertTrue(d.getHashTableLength() < 1000);
+        assertTrue(d.getHashTableLength() >= buckets);
+        for (int i = 100; i < 1100; i++) {
+            assertEquals(i, (int) d.remove(new Collider(i)));
+        }
+        assertNull(d.lookUp(new Collider(100)));
+        assertEquals(0, (int) d.lookUp(new Collider(0)));
+
+        // With the burst gone, an overfull stash forces a rehash again
+        assertEquals(CuckooHashTable.STASH_SIZE, d.stashLimit);
+        int hashSeed = d.hashSeed;
+        for (int i = 2000; d.stashSize() <= CuckooHashTable.STASH_SIZE; i++) {
+            d.insert(new Collider(i), i);
+        }
+        assertTrue(hashSeed != d.hashSeed);
+    }
+
+    /**
+     * A key with a constant hash code
+     */
+    private static class Collider {
+        private final int id;
+
+        Collider(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Collider && ((Collider) o).id == this.id;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class DiskBPlusTreeTest {
+
+    @Test
+    public void test() throws IOException {
+        Path file = Files.createTempFile("bplustree", ".db");
+        Files.delete(file);
+        try {
+            TreeMap<Integer, String> expected = new TreeMap<Integer, String>();
+            // Small pages and a small cache exercise splits and evictions
+            try (DiskBPlusTree<Integer, String> d = new DiskBPlusTree<Integer, String>(file, 256, 8,
+                    Codec.INTEGER, Codec.STRING)) {
+                assertNull(d.lookUp(0));
+                Random random = new Random(3);
+                for (int i = 0; i < 20000; i++) {
+                    int k = random.nextInt(5000) - 2500;
+                    if (random.nextInt(4) == 0) {
+                        assertEquals(expected.remove(k), d.remove(k));
+                    } else {
+                        String v = "value" + random.nextInt(1000000);
+                        expected.put(k, v);
+                        d.insert(k, v);
+                    }
+                }
+                assertEquals(expected.size(), d.size());
+                assertTrue(d.height() > 2);
+                assertTrue(d.getCache().getEvictions() > 0);
+                for (int k = -2500; k < 2500; k++) {
+                    assertEquals(expected.get(k), d.lookUp(k));
+                }
+                assertEquals(expected.get(7), d.update(7, "seven"));
+                expected.replace(7, "seven");
+                assertNull(d.update(100000, "missing"));
+                assertNull(d.lookUp(100000));
+            }
+
+            // Reopening only reads the header
+            try (DiskBPlusTree<Integer, String> d = new DiskBPlusTree<Integer, String>(file, Codec.INTEGER,
+                    Codec.STRING)) {
+                assertEquals(0, d.getCache().getMisses());
+                assertEquals(expected.size(), d.size());
+                for (int k = -2500; k < 2500; k++) {
+                    assertEquals(expected.get(k), d.lookUp(k));
+                }
+
+                Iterator<DiskBPlusTree<Integer, String>.Entry> it = d.range(-100, 1000);
+                for (Map.Entry<Integer, String> e : expected.subMap(-100, 1000).entrySet()) {
+                    DiskBPlusTree<Integer, String>.Entry actual = it.next();
+                    assertEquals(e.getKey(), actual.key);
+                    assertEquals(e.getValue(), actual.value);
+                }
+                assertFalse(it.hasNext());
+                assertFalse(d.range(3000, 4000).hasNext());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testWorkingSet() throws IOException {
+        Path file = Files.createTempFile("bplustree", ".db");
+        Files.delete(file);
+        try (DiskBPlusTree<Integer, Integer> d = new DiskBPlusTree<Integer, Integer>(file, 512, 64,
+                Codec.INTEGER, Codec.INTEGER)) {
+            for (int i = 0; i < 50000; i++) {
+                d.insert(i, -i);
+            }
+            for (int i = 0; i < 100; i++) {
+                assertEquals(-i, (int) d.lookUp(i));
+            }
+            // The pages of the first hundred keys now stay in the cache
+            long misses = d.getCache().getMisses();
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < 100; i++) {
+                    assertEquals(-i, (int) d.lookUp(i));
+                }
+            }
+            assertEquals(misses, d.getCache().getMisses());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testOddPageSize() throws IOException {
+        Path file = Files.createTempFile("bplustree", ".db");
+        Files.delete(file);
+        try {
+            try (DiskBPlusTree<Integer, Integer> d = new DiskBPlusTree<Integer, Integer>(file, 300, 8,
+                    Codec.INTEGER, Codec.INTEGER)) {
+                for (int i = 0; i < 5000; i++) {
+                    d.insert(i, -i);
+                }
+            }
+            try (DiskBPlusTree<Integer, Integer> d = new DiskBPlusTree<Integer, Integer>(file, Codec.INTEGER,
+                    Codec.INTEGER)) {
+                for (int i = 0; i < 5000; i++) {
+                    assertEquals(-i, (int) d.lookUp(i));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testEntryTooLarge() throws IOException {
+        Path file = Files.createTempFile("bplustree", ".db");
+        Files.delete(file);
+        try (DiskBPlusTree<Integer, String> d = new DiskBPlusTree<Integer, String>(file, 256, 8,
+                Codec.INTEGER, Codec.STRING)) {
+            d.insert(1, new String(new char[1000]));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotATree() throws IOException {
+        Path file = Files.createTempFile("bplustree", ".db");
+        try {
+            Files.write(file, new byte[] { 1, 2, 3 });
+            new DiskBPlusTree<Integer, Integer>(file, Codec.INTEGER, Codec.INTEGER);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
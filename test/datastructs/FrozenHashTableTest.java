@@ -0,0 +1,84 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+public class FrozenHashTableTest {
+
+    @Test
+    public void test() {
+        HashTable<Integer, Integer> h = new HashTable<Integer, Integer>();
+        for (int i = 0; i < 100000; i++) {
+            h.insert(i * 31, i);
+        }
+        h.insert(31, -1);
+        FrozenHashTable<Integer, Integer> d = h.freeze();
+        assertEquals(100000, d.size());
+        assertEquals(-1, (int) d.lookUp(31));
+        for (int i = 2; i < 100000; i++) {
+            assertEquals(i, (int) d.lookUp(i * 31));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertNull(d.lookUp(i * 31 + 1));
+        }
+
+        try {
+            d.insert(1, 1);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+        try {
+            d.remove(0);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+
+        assertNull(new HashTable<Integer, Integer>().freeze().lookUp(5));
+    }
+
+    @Test
+    public void testCollidingHashes() {
+        // "Aa" and "BB" have the same hashCode()
+        HashTable<String, Integer> h = new HashTable<String, Integer>();
+        h.insert("Aa", 1);
+        h.insert("BB", 2);
+        h.insert("C", 3);
+        FrozenHashTable<String, Integer> d = h.freeze();
+        assertEquals(1, (int) d.lookUp("Aa"));
+        assertEquals(2, (int) d.lookUp("BB"));
+        assertEquals(3, (int) d.lookUp("C"));
+        assertNull(d.lookUp("D"));
+        assertEquals(1, d.overflowSize());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        HashTable<String, String> h = new HashTable<String, String>();
+        for (int i = 0; i < 1000; i++) {
+            h.insert("key" + i, "value" + i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(h.freeze());
+        }
+        FrozenHashTable<String, String> d;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            d = (FrozenHashTable<String, String>) in.readObject();
+        }
+        assertEquals(1000, d.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value" + i, d.lookUp("key" + i));
+        }
+        assertNull(d.lookUp("key1000"));
+    }
+}
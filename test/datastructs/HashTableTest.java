@@ -2,6 +2,8 @@ package datastructs;
 
 import static org.junit.Assert.*;
 
+import java.util.Spliterator;
+
 import org.junit.Test;
 
 public class HashTableTest {
@@ -123,4 +125,205 @@ public class HashTableTest {
         d.update(992, -5);
         assertEquals(-5, (int) d.lookUp(992));
     }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testRemoveFromChain() {
+        HashTable<Integer, Integer> d = new HashTable<Integer, Integer>(101);
+        // Four keys that share a chain, which holds them newest first
+        int[] chain = new int[4];
+        int n = 0;
+        for (int k = 1; n < chain.length; k++) {
+            if (d.compress(Integer.valueOf(k).hashCode()) == d.compress(Integer.valueOf(0).hashCode())) {
+                chain[n++] = k;
+            }
+        }
+        d.insert(0, 0);
+        for (int k : chain) {
+            d.insert(k, k);
+        }
+        d.insert(-1, -1);
+
+        // Removing nodes that are not first in their chain must unlink them from
+        // the iteration order too
+        assertEquals(chain[1], (int) d.remove(chain[1]));
+        assertEquals(0, (int) d.remove(0));
+        java.util.Set<Integer> expected = new java.util.HashSet<Integer>(
+                java.util.Arrays.asList(chain[0], chain[2], chain[3], -1));
+        java.util.Set<Integer> actual = new java.util.HashSet<Integer>();
+        int count = 0;
+        for (HashTable.Node node : d) {
+            actual.add((Integer) node.key);
+            count++;
+        }
+        assertEquals(4, d.size());
+        assertEquals(4, count);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testIncrementalResizing() {
+        HashTable<Integer, Integer> d = new HashTable<Integer, Integer>(1, true);
+        for (int i = 0; i < 1000; i++) {
+            d.insert(i, i);
+            // Everything must stay reachable while buckets are being migrated
+            for (int j = Math.max(0, i - 10); j <= i; j++) {
+                assertEquals(j, (int) d.lookUp(j));
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.lookUp(i));
+        }
+        for (int i = 500; i < 750; i += 2) {
+            assertEquals(i, (int) d.remove(i));
+        }
+        for (int i = 500; i < 750; i++) {
+            if (i % 2 == 0) {
+                assertNull(d.lookUp(i));
+            } else {
+                assertEquals(i, (int) d.lookUp(i));
+            }
+        }
+        assertEquals(875, d.size());
+
+        d.update(992, -5);
+        assertEquals(-5, (int) d.lookUp(992));
+        assertNull(d.update(-1, 0));
+        assertNull(d.remove(-1));
+    }
+
+    @Test
+    public void testShrinking() {
+        HashTable<Integer, Integer> d = new HashTable<Integer, Integer>(1, true);
+        d.setAutoShrink(true);
+        for (int i = 0; i < 10000; i++) {
+            d.insert(i, i);
+        }
+        int fullLength = d.getHashTableLength();
+        long fullFootprint = d.memoryFootprint();
+        for (int i = 0; i < 9990; i++) {
+            assertEquals(i, (int) d.remove(i));
+        }
+        assertTrue(d.getHashTableLength() < fullLength / 100);
+        assertTrue(d.memoryFootprint() < fullFootprint / 100);
+        for (int i = 9990; i < 10000; i++) {
+            assertEquals(i, (int) d.lookUp(i));
+        }
+
+        // Hovering around the shrink threshold must not resize on every operation
+        int length = d.getHashTableLength();
+        d.remove(9990);
+        d.insert(9990, 9990);
+        d.remove(9990);
+        d.insert(9990, 9990);
+        assertEquals(length, d.getHashTableLength());
+
+        d.trimToSize();
+        assertTrue(d.getHashTableLength() > d.size());
+        assertTrue(d.getHashTableLength() <= d.size() + 2);
+        for (int i = 9990; i < 10000; i++) {
+            assertEquals(i, (int) d.lookUp(i));
+        }
+
+        HashTable<Integer, Integer> fixed = new HashTable<Integer, Integer>(1);
+        assertFalse(fixed.isAutoShrink());
+        for (int i = 0; i < 1000; i++) {
+            fixed.insert(i, i);
+        }
+        length = fixed.getHashTableLength();
+        for (int i = 0; i < 1000; i++) {
+            fixed.remove(i);
+        }
+        assertEquals(length, fixed.getHashTableLength());
+        fixed.trimToSize();
+        assertEquals(1, fixed.getHashTableLength());
+        fixed.insert(1, 1);
+        fixed.insert(2, 2);
+        assertEquals(2, (int) fixed.lookUp(2));
+    }
+
+    @Test
+    public void testStreams() {
+        HashTable<Integer, Integer> d = new HashTable<Integer, Integer>(1, true);
+        for (int i = 0; i < 10000; i++) {
+            d.insert(i, i);
+        }
+        long expected = 9999L * 10000 / 2;
+        assertEquals(10000, d.spliterator().estimateSize());
+        assertEquals(10000, d.stream().count());
+        assertEquals(expected, d.stream().mapToLong(n -> (Integer) n.value).sum());
+        assertEquals(expected, d.parallelStream().mapToLong(n -> (Integer) n.value).sum());
+        assertEquals(10000, d.parallelStream().map(n -> n.key).distinct().count());
+
+        Spliterator<HashTable.Node> first = d.spliterator();
+        Spliterator<HashTable.Node> second = first.trySplit();
+        long[] count = new long[1];
+        first.forEachRemaining(n -> count[0]++);
+        while (second.tryAdvance(n -> count[0]++)) {
+            // Counted by the action
+        }
+        assertEquals(10000, count[0]);
+    }
+
+    @Test
+    public void testBatch() {
+        Dictionary<Integer, Integer> d = new HashTable<Integer, Integer>(1);
+        Integer[] keys = new Integer[1000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 7;
+        }
+        d.insertAll(keys, keys);
+        assertEquals(1000, ((HashTable<Integer, Integer>) d).size());
+
+        Integer[] results = new Integer[keys.length];
+        d.lookUpAll(keys, results);
+        assertArrayEquals(keys, results);
+
+        Integer[] gone = { 0, 7, 5, 14 };
+        Integer[] removed = new Integer[gone.length];
+        d.removeAll(gone, removed);
+        assertArrayEquals(new Integer[] { 0, 7, null, 14 }, removed);
+        assertNull(d.lookUp(7));
+        assertEquals(21, (int) d.lookUp(21));
+    }
+
+    @Test
+    public void testStats() {
+        HashTable<Integer, Integer> d = new HashTable<Integer, Integer>(1);
+        for (int i = 0; i < 100; i++) {
+            d.insert(i, i);
+        }
+        d.lookUp(5);
+        HashTableStats stats = d.getStats();
+        assertEquals(0, stats.getSearches());
+        assertEquals(0, stats.getResizes());
+
+        d.setStatsEnabled(true);
+        for (int i = 100; i < 1000; i++) {
+            d.insert(i, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            d.lookUp(i);
+        }
+        stats = d.getStats();
+        assertEquals(1000, stats.getSearches());
+        assertTrue(stats.getAverageProbes() >= 1);
+        assertTrue(stats.getResizes() > 0);
+        assertEquals(1000, stats.getSize());
+        assertEquals(d.getHashTableLength(), stats.getCapacity());
+
+        int buckets = 0;
+        int elements = 0;
+        int[] histogram = stats.getChainLengthHistogram();
+        for (int i = 0; i < histogram.length; i++) {
+            buckets += histogram[i];
+            elements += i * histogram[i];
+        }
+        assertEquals(stats.getCapacity(), buckets);
+        assertEquals(1000, elements);
+        assertEquals(stats.getCapacity() - histogram[0], stats.getOccupiedBuckets());
+
+        d.resetStats();
+        assertEquals(0, d.getStats().getSearches());
+    }
 }
@@ -0,0 +1,44 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class IntIntHashTableTest {
+
+    @Test
+    public void test() {
+        IntIntHashTable d = new IntIntHashTable(1, -1);
+        for (int i = -500; i < 500; i++) {
+            d.insert(i, i * 2);
+        }
+        assertEquals(1000, d.size());
+        for (int i = -500; i < 500; i++) {
+            assertEquals(i * 2, d.lookUp(i));
+        }
+        assertEquals(-1, d.lookUp(12345));
+        assertFalse(d.containsKey(12345));
+        assertTrue(d.containsKey(0));
+
+        assertEquals(0, d.update(0, 7));
+        assertEquals(7, d.lookUp(0));
+        assertEquals(-1, d.update(12345, 7));
+        d.update(0, 0);
+
+        for (int i = -500; i < 500; i += 2) {
+            assertEquals(i * 2, d.remove(i));
+        }
+        assertEquals(-1, d.remove(0));
+        assertEquals(500, d.size());
+        for (int i = -499; i < 500; i += 2) {
+            assertEquals(i * 2, d.lookUp(i));
+        }
+        for (int i = -500; i < 500; i += 2) {
+            assertEquals(-1, d.lookUp(i));
+        }
+
+        d.insert(3, 4);
+        assertEquals(4, d.lookUp(3));
+        assertEquals(500, d.size());
+    }
+}
@@ -0,0 +1,111 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class IntObjectHashTableTest {
+
+    @Test
+    public void test() {
+        IntObjectHashTable<String> d = new IntObjectHashTable<String>();
+        assertNull(d.lookUp(0));
+        assertFalse(d.containsKey(0));
+        assertNull(d.remove(0));
+        assertNull(d.update(0, "x"));
+
+        // The key 0 is kept outside the key array but counts like any other
+        d.insert(0, "zero");
+        d.insert(5, "five");
+        assertEquals(2, d.size());
+        assertTrue(d.containsKey(0));
+        assertEquals("zero", d.lookUp(0));
+        d.insert(0, "again");
+        assertEquals(2, d.size());
+        assertEquals("again", d.update(0, "zero"));
+        assertEquals("zero", d.remove(0));
+        assertNull(d.lookUp(0));
+        assertFalse(d.containsKey(0));
+        assertEquals(1, d.size());
+
+        assertNull(d.update(6, "six"));
+        assertNull(d.remove(6));
+        assertEquals("five", d.update(5, "FIVE"));
+        assertEquals("FIVE", d.remove(5));
+        assertEquals(0, d.size());
+    }
+
+    @Test
+    public void testWrappedCluster() {
+        IntObjectHashTable<Integer> d = new IntObjectHashTable<Integer>(4);
+        int last = d.getHashTableLength() - 1;
+        // Three keys whose home is the last slot wrap around to the front,
+        // followed by a key whose home is the first slot
+        int[] homeLast = keysWithHome(d, last, 3);
+        int homeFirst = keysWithHome(d, 0, 1)[0];
+        for (int k : homeLast) {
+            d.insert(k, k);
+        }
+        d.insert(homeFirst, homeFirst);
+        assertEquals(homeLast[1], d.keys[0]);
+        assertEquals(homeLast[2], d.keys[1]);
+        assertEquals(homeFirst, d.keys[2]);
+
+        // Removing the key in the last slot shifts the rest of the cluster back
+        // across the end of the array
+        assertEquals(homeLast[0], (int) d.remove(homeLast[0]));
+        assertEquals(homeLast[1], d.keys[last]);
+        assertEquals(homeLast[2], d.keys[0]);
+        assertEquals(homeFirst, d.keys[1]);
+        assertEquals(IntObjectHashTable.FREE_KEY, d.keys[2]);
+        assertNull(d.lookUp(homeLast[0]));
+        assertEquals(homeLast[1], (int) d.lookUp(homeLast[1]));
+        assertEquals(homeLast[2], (int) d.lookUp(homeLast[2]));
+        assertEquals(homeFirst, (int) d.lookUp(homeFirst));
+
+        // A key already in its home slot stays put
+        assertEquals(homeLast[2], (int) d.remove(homeLast[2]));
+        assertEquals(homeLast[1], d.keys[last]);
+        assertEquals(homeFirst, d.keys[0]);
+        assertEquals(IntObjectHashTable.FREE_KEY, d.keys[1]);
+        assertEquals(homeFirst, (int) d.lookUp(homeFirst));
+        assertEquals(2, d.size());
+    }
+
+    @Test
+    public void testResizing() {
+        IntObjectHashTable<Integer> d = new IntObjectHashTable<Integer>(1);
+        assertEquals(2, d.getHashTableLength());
+        for (int i = -5000; i < 5000; i++) {
+            d.insert(i, -i);
+        }
+        assertEquals(10000, d.size());
+        assertTrue(d.getHashTableLength() * IntObjectHashTable.RESIZE_THRESHOLD > d.size());
+        for (int i = -5000; i < 5000; i++) {
+            assertEquals(-i, (int) d.lookUp(i));
+        }
+        assertNull(d.lookUp(5000));
+    }
+
+    /**
+     * Finds nonzero keys that compress to the given slot
+     *
+     * @param d
+     *            The hash table
+     * @param home
+     *            The slot
+     * @param count
+     *            The number of keys to find
+     * @return The first count such keys
+     */
+    private static int[] keysWithHome(IntObjectHashTable<?> d, int home, int count) {
+        int[] found = new int[count];
+        int n = 0;
+        for (int k = 1; n < count; k++) {
+            if (d.compress(k) == home) {
+                found[n++] = k;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,55 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class LevelGeneratorTest {
+
+    @Test
+    public void test() {
+        for (double p : new double[] { 0.5, 0.25, 1 / Math.E }) {
+            LevelGenerator levels = new LevelGenerator(p, 8, 42);
+            int n = 200000;
+            int[] counts = new int[9];
+            for (int i = 0; i < n; i++) {
+                int h = levels.nextHeight();
+                assertTrue(h >= 1 && h <= 8);
+                counts[h]++;
+            }
+            // A tower reaches level h + 1 with probability p^h
+            int atLeast = n;
+            for (int h = 1; h <= 3; h++) {
+                atLeast -= counts[h];
+                assertEquals(Math.pow(p, h), (double) atLeast / n, 0.01);
+            }
+        }
+    }
+
+    @Test
+    public void testSeed() {
+        LevelGenerator a = new LevelGenerator(0.5, 32, 7);
+        LevelGenerator b = new LevelGenerator(0.5, 32, 7);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(a.nextHeight(), b.nextHeight());
+        }
+
+        LevelGenerator flat = new LevelGenerator(0.9, 1);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(1, flat.nextHeight());
+        }
+
+        SkipList<Integer, Integer> d = new SkipList<Integer, Integer>(false, new LevelGenerator(0.25, 4, 1));
+        for (int i = 0; i < 1000; i++) {
+            d.insert((i * 389) % 1000, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.lookUp((i * 389) % 1000));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadPromotion() {
+        new LevelGenerator(1.0, 32);
+    }
+}
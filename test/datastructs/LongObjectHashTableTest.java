@@ -0,0 +1,37 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class LongObjectHashTableTest {
+
+    @Test
+    public void test() {
+        LongObjectHashTable<String> d = new LongObjectHashTable<String>(1);
+        long big = 1L << 40;
+        for (long i = 0; i < 1000; i++) {
+            d.insert(big * i, "v" + i);
+        }
+        for (long i = 0; i < 1000; i++) {
+            assertEquals("v" + i, d.lookUp(big * i));
+        }
+        assertNull(d.lookUp(big + 1));
+
+        assertEquals("v0", d.update(0, "zero"));
+        assertEquals("zero", d.lookUp(0));
+        assertNull(d.update(-1, "x"));
+
+        for (long i = 0; i < 1000; i += 3) {
+            assertNotNull(d.remove(big * i));
+        }
+        for (long i = 0; i < 1000; i++) {
+            if (i % 3 == 0) {
+                assertNull(d.lookUp(big * i));
+            } else {
+                assertEquals("v" + i, d.lookUp(big * i));
+            }
+        }
+        assertEquals(666, d.size());
+    }
+}
@@ -0,0 +1,62 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class MappedHashTableTest {
+
+    @Test
+    public void test() throws IOException {
+        HashTable<String, Integer> h = new HashTable<String, Integer>(1);
+        for (int i = -500; i < 500; i++) {
+            h.insert("key" + i, i);
+        }
+        h.remove("key7");
+
+        Path file = Files.createTempFile("hashtable", ".snap");
+        try {
+            h.writeSnapshot(file, Codec.STRING, Codec.INTEGER);
+            MappedHashTable<String, Integer> d = new MappedHashTable<String, Integer>(file, Codec.STRING,
+                    Codec.INTEGER);
+            assertEquals(h.size(), d.size());
+            assertEquals(h.getHashTableLength(), d.getHashTableLength());
+            for (int i = -500; i < 500; i++) {
+                assertEquals(h.lookUp("key" + i), d.lookUp("key" + i));
+            }
+            assertNull(d.lookUp("key7"));
+            assertNull(d.lookUp("missing"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        Path file = Files.createTempFile("hashtable", ".snap");
+        try {
+            new HashTable<Integer, Integer>().writeSnapshot(file, Codec.INTEGER, Codec.INTEGER);
+            MappedHashTable<Integer, Integer> d = new MappedHashTable<Integer, Integer>(file, Codec.INTEGER,
+                    Codec.INTEGER);
+            assertEquals(0, d.size());
+            assertNull(d.lookUp(0));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotASnapshot() throws IOException {
+        Path file = Files.createTempFile("hashtable", ".snap");
+        try {
+            Files.write(file, new byte[] { 1, 2, 3 });
+            new MappedHashTable<Integer, Integer>(file, Codec.INTEGER, Codec.INTEGER);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class OffHeapHashTableTest {
+
+    @Test
+    public void test() {
+        OffHeapHashTable<String, String> d = new OffHeapHashTable<String, String>(1, 4096,
+                Codec.STRING, Codec.STRING);
+        for (int i = 0; i < 1000; i++) {
+            d.insert("key" + i, "value" + i);
+        }
+        assertEquals(1000, d.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value" + i, d.lookUp("key" + i));
+        }
+        assertNull(d.lookUp("key1000"));
+
+        // Shorter values are written in place, longer ones are moved
+        assertEquals("value7", d.update("key7", "v"));
+        assertEquals("v", d.lookUp("key7"));
+        assertEquals("value8", d.update("key8", "a much longer value than before"));
+        assertEquals("a much longer value than before", d.lookUp("key8"));
+        assertNull(d.update("missing", "x"));
+
+        for (int i = 0; i < 1000; i += 2) {
+            assertNotNull(d.remove("key" + i));
+        }
+        assertNull(d.remove("key0"));
+        assertEquals(500, d.size());
+
+        d.compact();
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) {
+                assertNull(d.lookUp("key" + i));
+            } else if (i != 7) {
+                assertEquals("value" + i, d.lookUp("key" + i));
+            }
+        }
+        assertEquals("v", d.lookUp("key7"));
+
+        d.insert("key1", "replaced");
+        assertEquals("replaced", d.lookUp("key1"));
+        assertEquals(500, d.size());
+    }
+
+    @Test
+    public void testChurn() {
+        OffHeapHashTable<String, String> d = new OffHeapHashTable<String, String>(16, 1024,
+                Codec.STRING, Codec.STRING);
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 100; i++) {
+                d.insert("k" + i, "round" + round);
+            }
+            for (int i = 0; i < 100; i += 3) {
+                d.remove("k" + i);
+            }
+        }
+        // Garbage is reclaimed, so the arena stays small
+        assertTrue(d.offHeapBytes() < 32 * 1024);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 == 0 ? null : "round49", d.lookUp("k" + i));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.Test;
+
+public class PageCacheTest {
+
+    @Test
+    public void test() throws IOException {
+        Path file = Files.createTempFile("pagecache", ".db");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // A page size that is not a multiple of 8
+            PageCache cache = new PageCache(channel, 100, 2);
+            for (long page = 0; page < 5; page++) {
+                ByteBuffer b = cache.pinNew(page);
+                assertEquals(0, b.get(99));
+                b.put(99, (byte) (page + 1));
+                cache.unpin(page, true);
+            }
+            assertEquals(3, cache.getEvictions());
+            for (long page = 0; page < 5; page++) {
+                assertEquals(page + 1, cache.pin(page).get(99));
+                cache.unpin(page, false);
+            }
+            cache.flush();
+            assertEquals(500, Files.size(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testFailedRead() throws IOException {
+        Path file = Files.createTempFile("pagecache", ".db");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            PageCache cache = new PageCache(channel, 64, 2);
+            for (int attempt = 1; attempt <= 2; attempt++) {
+                try {
+                    cache.pin(0);
+                    fail();
+                } catch (NonReadableChannelException e) {
+                    // Expected
+                }
+                // The page that could not be read is not left in the cache
+                assertEquals(0, cache.getHits());
+                assertEquals(attempt, cache.getMisses());
+            }
+            cache.pinNew(0);
+            cache.unpin(0, true);
+            cache.flush();
+            assertEquals(64, Files.size(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RobinHoodHashTableTest {
+
+    @Test
+    public void test() {
+        Dictionary<Integer, Integer> d = new RobinHoodHashTable<Integer, Integer>();
+        d.insert(2, 2);
+        d.insert(1, 1);
+        assertEquals("{ (1, 1) (2, 2) }", d.toString());
+        for (int i = 3; i <= 13; i++) {
+            d.insert(i, i);
+        }
+        d.insert(-1, -1);
+        d.insert(0, 0);
+        for (int i = -1; i <= 13; i++) {
+            assertEquals(i, (int) d.lookUp(i));
+        }
+
+        assertEquals(-1, (int) d.update(-1, 4));
+        assertEquals(4, (int) d.lookUp(-1));
+        d.update(-1, -1);
+        assertNull(d.update(-27, 0));
+        assertNull(d.lookUp(-27));
+
+        assertEquals(12, (int) d.remove(12));
+        assertNull(d.lookUp(12));
+        assertNull(d.remove(12));
+
+        // Re-inserting a key replaces its value
+        d.insert(5, 50);
+        assertEquals(50, (int) d.lookUp(5));
+        assertEquals(14, ((RobinHoodHashTable<Integer, Integer>) d).size());
+    }
+
+    @Test
+    public void testIterationOrder() {
+        RobinHoodHashTable<Integer, Integer> d = new RobinHoodHashTable<Integer, Integer>(1);
+        for (int i = 0; i < 100; i++) {
+            d.insert(i, i);
+        }
+        for (int i = 0; i < 100; i += 3) {
+            d.remove(i);
+        }
+        int expected = 99;
+        for (RobinHoodHashTable<Integer, Integer>.Entry e : d) {
+            while (expected % 3 == 0) {
+                expected--;
+            }
+            assertEquals(expected, (int) e.key);
+            expected--;
+        }
+    }
+
+    @Test
+    public void testResizing() {
+        Dictionary<Integer, Integer> d = new RobinHoodHashTable<Integer, Integer>(1);
+        for (int i = 0; i < 1000; i++) {
+            d.insert(i, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.lookUp(i));
+        }
+        for (int i = 500; i < 750; i += 2) {
+            d.remove(i);
+        }
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, (int) d.lookUp(i));
+        }
+        for (int i = 501; i < 750; i += 2) {
+            assertEquals(i, (int) d.lookUp(i));
+        }
+        for (int i = 500; i < 750; i += 2) {
+            assertNull(d.lookUp(i));
+        }
+        for (int i = 750; i < 1000; i++) {
+            assertEquals(i, (int) d.lookUp(i));
+        }
+
+        // Churn through removals so the entry arrays get compacted
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 1000; i++) {
+                d.remove(i);
+            }
+            for (int i = 0; i < 1000; i++) {
+                d.insert(i, i + round);
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 9, (int) d.lookUp(i));
+        }
+    }
+}
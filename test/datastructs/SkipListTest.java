@@ -0,0 +1,245 @@
+package datastructs;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+
+import org.junit.Test;
+
+public class SkipListTest {
+
+    @Test
+    public void test() {
+        Dictionary<Integer, Integer> d = new SkipList<Integer, Integer>();
+        for (int i = 0; i < 1000; i++) {
+            d.insert((i * 389) % 1000, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) d.lookUp((i * 389) % 1000));
+        }
+        assertNull(d.lookUp(-1));
+        assertNull(d.lookUp(1000));
+
+        assertEquals(0, (int) d.update(0, -1));
+        assertEquals(-1, (int) d.lookUp(0));
+        assertEquals(-1, (int) d.remove(0));
+        assertNull(d.lookUp(0));
+    }
+
+    @Test
+    public void testDuplicates() {
+        SkipList<Integer, Integer> d = new SkipList<Integer, Integer>();
+        d.insert(2, 20);
+        d.insert(1, 10);
+        d.insert(2, 5);
+        d.insert(2, 30);
+        d.insert(3, 1);
+        assertEquals("10, 5, 20, 30, 1, ", d.printAll());
+        // The first entry with a key has the smallest value
+        assertEquals(5, (int) d.lookUp(2));
+        d.remove(2);
+        assertEquals(20, (int) d.lookUp(2));
+    }
+
+    @Test
+    public void testBatch() {
+        Dictionary<Integer, Integer> d = new SkipList<Integer, Integer>();
+        Integer[] keys = new Integer[1000];
+        Integer[] values = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (i * 389) % 1000;
+            values[i] = -keys[i];
+        }
+        d.insertAll(keys, values);
+
+        Integer[] results = new Integer[keys.length];
+        d.lookUpAll(keys, results);
+        assertArrayEquals(values, results);
+
+        Integer[] gone = { 10, 5, 1000, 10 };
+        Integer[] removed = new Integer[gone.length];
+        d.removeAll(gone, removed);
+        assertArrayEquals(new Integer[] { -10, -5, null, null }, removed);
+        assertNull(d.lookUp(5));
+        assertEquals(-6, (int) d.lookUp(6));
+    }
+
+    @Test
+    public void testNavigation() {
+        SkipList<Integer, Integer> d = new SkipList<Integer, Integer>();
+        assertNull(d.first());
+        assertNull(d.last());
+        assertNull(d.floor(5));
+        assertNull(d.ceiling(5));
+        assertFalse(d.range(0, 100).hasNext());
+
+        for (int i = 0; i < 100; i += 10) {
+            d.insert(i, i + 1);
+            d.insert(i, i);
+        }
+        assertEquals(0, (int) d.first().value);
+        assertEquals(90, (int) d.last().key);
+        assertEquals(90, (int) d.last().value);
+
+        assertEquals(20, (int) d.floor(20).value);
+        assertEquals(20, (int) d.floor(25).value);
+        assertNull(d.floor(-1));
+        assertEquals(20, (int) d.ceiling(20).value);
+        assertEquals(30, (int) d.ceiling(25).value);
+        assertNull(d.ceiling(91));
+        assertEquals(30, (int) d.higher(20).value);
+        assertEquals(30, (int) d.higher(25).value);
+        assertNull(d.higher(90));
+        assertEquals(10, (int) d.lower(20).value);
+        assertEquals(20, (int) d.lower(25).value);
+        assertNull(d.lower(0));
+
+        Iterator<SkipList<Integer, Integer>.Entry> it = d.range(15, 40);
+        int[] expected = { 20, 21, 30, 31 };
+        for (int v : expected) {
+            assertTrue(it.hasNext());
+            assertEquals(v, (int) it.next().value);
+        }
+        assertFalse(it.hasNext());
+        assertFalse(d.range(41, 49).hasNext());
+        assertFalse(d.range(50, 10).hasNext());
+    }
+
+    @Test
+    public void testMultimap() {
+        SkipList<Integer, Integer> d = new SkipList<Integer, Integer>(true);
+        d.insert(2, 20);
+        d.insert(1, 10);
+        d.insert(2, 5);
+        d.insert(2, 30);
+        d.insert(3, 1);
+        assertEquals("10, 5, 20, 30, 1, ", d.printAll());
+        assertEquals(5, (int) d.lookUp(2));
+
+        Iterator<Integer> values = d.values(2);
+        for (int v : new int[] { 5, 20, 30 }) {
+            assertEquals(v, (int) values.next());
+        }
+        assertFalse(values.hasNext());
+        assertFalse(d.values(4).hasNext());
+
+        Iterator<SkipList<Integer, Integer>.Entry> it = d.range(2, 4);
+        for (int v : new int[] { 5, 20, 30, 1 }) {
+            assertEquals(v, (int) it.next().value);
+        }
+        assertFalse(it.hasNext());
+
+        assertEquals(5, (int) d.remove(2));
+        assertEquals(20, (int) d.lookUp(2));
+        assertEquals(20, (int) d.update(2, 40));
+        assertEquals(30, (int) d.lookUp(2));
+        assertEquals(30, (int) d.remove(2));
+        assertEquals(40, (int) d.remove(2));
+        assertNull(d.lookUp(2));
+        assertEquals(3, (int) d.higher(1).key);
+
+        // Keys with a single value work without a container
+        assertEquals(1, (int) d.update(3, 9));
+        values = d.values(3);
+        assertEquals(9, (int) values.next());
+        assertFalse(values.hasNext());
+        d.insert(3, 4);
+        assertEquals(4, (int) d.lookUp(3));
+        assertEquals(4, (int) d.remove(3));
+        assertEquals(9, (int) d.remove(3));
+        assertNull(d.lookUp(3));
+
+        // Many values under one key
+        for (int i = 10000; i > 0; i--) {
+            d.insert(7, i);
+        }
+        Integer[] keys = { 7, 7, 8 };
+        Integer[] more = { 0, 20000, 8 };
+        d.insertAll(keys, more);
+        assertEquals(0, (int) d.lookUp(7));
+        values = d.values(7);
+        for (int i = 0; i <= 10000; i++) {
+            assertEquals(i, (int) values.next());
+        }
+        assertEquals(20000, (int) values.next());
+        assertFalse(values.hasNext());
+        Integer[] removed = new Integer[2];
+        d.removeAll(new Integer[] { 7, 8 }, removed);
+        assertArrayEquals(new Integer[] { 0, 8 }, removed);
+        assertEquals(1, (int) d.lookUp(7));
+    }
+
+    @Test
+    public void testFromSorted() {
+        java.util.List<Integer> keys = new java.util.ArrayList<Integer>();
+        java.util.List<Integer> values = new java.util.ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            keys.add(i / 2);
+            values.add(i);
+        }
+        SkipList<Integer, Integer> d = SkipList.fromSorted(keys.iterator(), values.iterator());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(2 * i, (int) d.lookUp(i));
+        }
+        assertNull(d.lookUp(500));
+        assertEquals(499, (int) d.last().key);
+        d.insert(250, -1);
+        assertEquals(-1, (int) d.remove(250));
+        assertEquals(500, (int) d.remove(250));
+        assertEquals(501, (int) d.lookUp(250));
+
+        SkipList<Integer, Integer> m = SkipList.fromSorted(keys.iterator(), values.iterator(), true);
+        Iterator<Integer> it = m.values(7);
+        assertEquals(14, (int) it.next());
+        assertEquals(15, (int) it.next());
+        assertFalse(it.hasNext());
+
+        SkipList<Integer, Integer> empty = SkipList.fromSorted(keys.subList(0, 0).iterator(),
+                values.subList(0, 0).iterator());
+        assertNull(empty.first());
+        empty.insert(1, 1);
+        assertEquals(1, (int) empty.lookUp(1));
+
+        try {
+            SkipList.fromSorted(java.util.Arrays.asList(2, 1).iterator(), values.iterator());
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testCursor() {
+        SkipList<Integer, Integer> d = new SkipList<Integer, Integer>();
+        for (int i = 0; i < 1000; i += 2) {
+            d.insert(i, -i);
+        }
+        SkipList<Integer, Integer>.Cursor c = d.cursor();
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) {
+                assertEquals(-i, (int) c.lookUp(i));
+            } else {
+                assertNull(c.lookUp(i));
+            }
+        }
+        // Backward and forward jumps from the current position
+        assertEquals(-500, (int) c.lookUp(500));
+        assertEquals(-2, (int) c.lookUp(2));
+        assertNull(c.lookUp(-5));
+        assertEquals(-998, (int) c.lookUp(998));
+        assertEquals(-996, (int) c.lookUp(996));
+
+        assertEquals(996, (int) c.next().key);
+        assertEquals(998, (int) c.next().key);
+        assertFalse(c.hasNext());
+
+        c.lookUp(10);
+        d.insert(11, -11);
+        assertEquals(-10, (int) c.next().value);
+        assertEquals(-11, (int) c.next().value);
+        d.remove(12);
+        c.reset();
+        assertEquals(-14, (int) c.lookUp(14));
+        assertNull(c.lookUp(12));
+    }
+}
@@ -2,6 +2,10 @@ package datastructs;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeMap;
+
 import org.junit.Test;
 
 public class TwoThreeTreeTest {
@@ -86,4 +90,139 @@ public class TwoThreeTreeTest {
         assertNull(d.lookUp(-27));
     }
 
+    @Test
+    public void testBatch() {
+        Dictionary<Integer, Integer> d = new TwoThreeTree<Integer, Integer>();
+        Integer[] keys = new Integer[1000];
+        Integer[] values = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (i * 389) % 1000;
+            values[i] = -keys[i];
+        }
+        d.insertAll(keys, values);
+
+        Integer[] results = new Integer[keys.length];
+        d.lookUpAll(keys, results);
+        assertArrayEquals(values, results);
+    }
+
+    @Test
+    public void testRemove() {
+        Dictionary<Integer, Integer> d = new TwoThreeTree<Integer, Integer>();
+        assertNull(d.remove(1));
+        assertNull(d.lookUp(1));
+        d.insert(1, 1);
+        assertEquals(1, (int) d.remove(1));
+        assertNull(d.lookUp(1));
+        assertNull(d.update(1, 2));
+
+        TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+        Random random = new Random(11);
+        for (int i = 0; i < 50000; i++) {
+            int k = random.nextInt(2000);
+            if (random.nextInt(2) == 0) {
+                assertEquals(expected.remove(k), d.remove(k));
+            } else if (expected.containsKey(k)) {
+                assertEquals(expected.put(k, i), d.update(k, i));
+            } else {
+                expected.put(k, i);
+                d.insert(k, i);
+            }
+        }
+        for (int k = 0; k < 2000; k++) {
+            assertEquals(expected.get(k), d.lookUp(k));
+        }
+        for (int k = 0; k < 2000; k++) {
+            assertEquals(expected.remove(k), d.remove(k));
+        }
+        assertNull(d.lookUp(0));
+        d.insert(5, 5);
+        assertEquals(5, (int) d.lookUp(5));
+    }
+
+    @Test
+    public void testReinsert() {
+        // Re-inserting replaces the value, including keys held in internal nodes
+        for (int j = 0; j < 20; j++) {
+            Dictionary<Integer, Integer> d = new TwoThreeTree<Integer, Integer>();
+            for (int i = 0; i < 20; i++) {
+                d.insert(i, i);
+            }
+            d.insert(j, -j);
+            assertEquals(-j, (int) d.lookUp(j));
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i == j ? -i : i, (int) d.remove(i));
+                assertNull(d.lookUp(i));
+            }
+            assertNull(d.lookUp(j));
+        }
+    }
+
+    @Test
+    public void testSorted() {
+        Dictionary<Integer, Integer> d = new TwoThreeTree<Integer, Integer>();
+        for (int i = 0; i < 100000; i++) {
+            d.insert(i, -i);
+        }
+        for (int i = 100000; i < 200000; i++) {
+            d.insert(-i, i);
+        }
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(-i, (int) d.lookUp(i));
+            assertEquals(i + 100000, (int) d.lookUp(-i - 100000));
+        }
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(-i, (int) d.remove(i));
+        }
+        for (int i = 199999; i >= 100000; i--) {
+            assertEquals(i, (int) d.remove(-i));
+        }
+        assertNull(d.lookUp(0));
+    }
+
+    @Test
+    public void testFromSorted() {
+        for (int n : new int[] { 0, 1, 2, 3, 4, 5, 7, 8, 9, 26, 27, 100, 100000 }) {
+            for (boolean parallel : new boolean[] { false, true }) {
+                Integer[] keys = new Integer[n];
+                Integer[] values = new Integer[n];
+                for (int i = 0; i < n; i++) {
+                    keys[i] = 2 * i;
+                    values[i] = -i;
+                }
+                TwoThreeTree<Integer, Integer> d = TwoThreeTree.fromSorted(Arrays.asList(keys).iterator(),
+                        Arrays.asList(values).iterator(), parallel);
+                for (int i = 0; i < n; i++) {
+                    assertEquals(-i, (int) d.lookUp(2 * i));
+                    assertNull(d.lookUp(2 * i + 1));
+                }
+                // The tree stays balanced under later inserts and removes
+                for (int i = 0; i < n; i += 3) {
+                    d.insert(2 * i + 1, i);
+                }
+                for (int i = 0; i < n; i++) {
+                    assertEquals(-i, (int) d.remove(2 * i));
+                }
+                for (int i = 0; i < n; i++) {
+                    assertEquals(i % 3 == 0 ? (Integer) i : null, d.lookUp(2 * i + 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFromSortedErrors() {
+        try {
+            TwoThreeTree.fromSorted(Arrays.asList(1, 3, 2).iterator(), Arrays.asList(1, 3, 2).iterator());
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            TwoThreeTree.fromSorted(Arrays.asList(1, 2).iterator(), Arrays.asList(1).iterator());
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
 }